@@ -0,0 +1,211 @@
+// Define the package for the warm-up classes
+package com.springboot.myCoolApp.warmup;
+
+// Import necessary Spring Framework and Micrometer classes
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays a synthetic request mix against the application's own endpoints before it reports ready.
+ * <p>
+ * Spring Boot runs ApplicationRunners after the web server has started but before it publishes
+ * ReadinessState.ACCEPTING_TRAFFIC, so while this runner works /actuator/health/readiness answers
+ * OUT_OF_SERVICE and a load balancer keeps real traffic away. The requests go through the full
+ * stack (Tomcat, filters, Jackson, controllers and whatever they call), which gets the JIT to
+ * compile the hot paths and fills the connection pools and caches before the first real user.
+ * <p>
+ * The warm-up stops after the configured number of requests or after max-duration, whichever comes
+ * first. Readiness waits for it, so keep both small: a few hundred requests are enough for the JIT to
+ * compile the request path of a small app. It then logs its duration and the p99 latency of the first and of the last 10% of the
+ * requests, and publishes both as gauges (warmup.duration, warmup.latency.p99 tagged phase=cold|warm).
+ * <p>
+ * Only side-effect free GET endpoints belong in app.warmup.paths: every path is called many times.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private final Environment environment;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final ObjectProvider<SecurityProperties> securityProperties;
+
+    private final List<String> paths;
+
+    private final int requests;
+
+    private final int concurrency;
+
+    private final Duration maxDuration;
+
+    // Results published as gauges
+    private volatile double durationSeconds;
+
+    private volatile double coldP99Millis;
+
+    private volatile double warmP99Millis;
+
+    /**
+     * Constructor for injecting the warm-up settings.
+     *
+     * @param environment        Provides the port the web server listens on.
+     * @param meterRegistry      Registry for the warm-up gauges, if Micrometer is configured.
+     * @param securityProperties The default user, if Spring Security is on the classpath.
+     * @param paths              The GET paths replayed in turn, relative to the context path.
+     * @param requests           The total number of requests to send.
+     * @param concurrency        The number of requests in flight at the same time.
+     * @param maxDuration        The time after which the warm-up stops even if requests are left.
+     */
+    @Autowired
+    public WarmUpRunner(Environment environment,
+                        ObjectProvider<MeterRegistry> meterRegistry,
+                        ObjectProvider<SecurityProperties> securityProperties,
+                        @Value("${app.warmup.paths}") List<String> paths,
+                        @Value("${app.warmup.requests:300}") int requests,
+                        @Value("${app.warmup.concurrency:4}") int concurrency,
+                        @Value("${app.warmup.max-duration:10s}") Duration maxDuration) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.securityProperties = securityProperties;
+        this.paths = paths;
+        this.requests = requests;
+        this.concurrency = concurrency;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        // Not set when there is no embedded web server, e.g. in a MOCK environment test
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null || paths.isEmpty() || requests <= 0) {
+            logger.info("Warm-up skipped: no local web server or nothing to replay");
+            return;
+        }
+        String baseUrl = "http://localhost:" + port + environment.getProperty("server.servlet.context-path", "");
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        String authorization = basicAuthorization();
+
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + maxDuration.toNanos();
+
+        logger.info("Warm-up: replaying {} requests over {} against {}", requests, paths, baseUrl);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        for (int worker = 0; worker < concurrency; worker++) {
+            executor.execute(() -> {
+                // Check the deadline before claiming an index, so that every claimed index is sent
+                while (System.nanoTime() < deadline) {
+                    int index = next.getAndIncrement();
+                    if (index >= requests) {
+                        break;
+                    }
+                    HttpRequest.Builder request = HttpRequest.newBuilder(
+                            URI.create(baseUrl + paths.get(index % paths.size()))).GET();
+                    if (authorization != null) {
+                        request.header("Authorization", authorization);
+                    }
+                    long sentAt = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[index] = System.nanoTime() - sentAt;
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(maxDuration.toMillis() + 10_000, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+
+        // Indices 0 to sent - 1 were all sent, so the latency windows hold no unsent zeros
+        report(latencies, Math.min(next.get(), requests), failures.get(), System.nanoTime() - startedAt);
+    }
+
+    private void report(long[] latencies, int sent, int failures, long elapsedNanos) {
+        // Requests are numbered in sending order, so the first and last tenth are the cold and warm phases
+        int window = Math.max(1, sent / 10);
+        coldP99Millis = p99Millis(Arrays.copyOfRange(latencies, 0, window));
+        warmP99Millis = p99Millis(Arrays.copyOfRange(latencies, Math.max(0, sent - window), sent));
+        durationSeconds = elapsedNanos / 1e9;
+
+        logger.info("Warm-up finished in {} s: {} requests ({} failed), p99 latency {} ms cold -> {} ms warm",
+                String.format("%.2f", durationSeconds), sent, failures,
+                String.format("%.2f", coldP99Millis), String.format("%.2f", warmP99Millis));
+        if (failures > 0) {
+            logger.warn("Warm-up: {} requests failed, check app.warmup.paths", failures);
+        }
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("warmup.duration", this, runner -> runner.durationSeconds)
+                    .baseUnit("seconds")
+                    .description("Time spent replaying the warm-up requests")
+                    .register(registry);
+            Gauge.builder("warmup.latency.p99", this, runner -> runner.coldP99Millis)
+                    .tag("phase", "cold")
+                    .baseUnit("milliseconds")
+                    .description("p99 latency of the first 10% of the warm-up requests")
+                    .register(registry);
+            Gauge.builder("warmup.latency.p99", this, runner -> runner.warmP99Millis)
+                    .tag("phase", "warm")
+                    .baseUnit("milliseconds")
+                    .description("p99 latency of the last 10% of the warm-up requests")
+                    .register(registry);
+        }
+    }
+
+    private static double p99Millis(long[] latencies) {
+        if (latencies.length == 0) {
+            return 0;
+        }
+        Arrays.sort(latencies);
+        int index = (int) Math.ceil(latencies.length * 0.99) - 1;
+        return latencies[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private String basicAuthorization() {
+        // The user configured with spring.security.user.* (the generated password when none is set)
+        SecurityProperties properties = securityProperties.getIfAvailable();
+        if (properties == null) {
+            return null;
+        }
+        String credentials = properties.getUser().getName() + ":" + properties.getUser().getPassword();
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,74 @@
+// Define the package for the configuration classes
+package com.springboot.myCoolApp.config;
+
+// Import necessary Spring Boot Actuator and Spring Security classes
+import com.springboot.myCoolApp.profiling.JfrEndpoint;
+import com.springboot.myCoolApp.profiling.ProfileSummaryEndpoint;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+
+/**
+ * Security configuration for the application.
+ * <p>
+ * Keeps Spring Boot's default behavior (every request needs the spring.security.user, via the login
+ * form or HTTP Basic) and additionally restricts the profiling endpoints, which can expose code
+ * paths and add overhead, to users with the ACTUATOR role.
+ */
+@Configuration
+public class SecurityConfig {
+
+    /**
+     * Security for the jfr and profile endpoints, which are called by scripts.
+     * <p>
+     * Every request must carry HTTP Basic credentials: the login session of a browser is neither read
+     * nor created here, and a rejected request gets a bare 401 without a WWW-Authenticate challenge,
+     * so a browser never prompts for these credentials and never resends them by itself. With no
+     * credentials that a browser attaches on its own, a cross-site request cannot act as the user,
+     * which is why these POST endpoints need no CSRF token.
+     *
+     * @param httpSecurity A Spring Security object for configuring HTTP security settings.
+     * @return The SecurityFilterChain of the profiling endpoints.
+     * @throws Exception If an error occurs during configuration.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain profilingFilterChain(HttpSecurity httpSecurity) throws Exception {
+        httpSecurity.securityMatcher(EndpointRequest.to(JfrEndpoint.class, ProfileSummaryEndpoint.class))
+                .authorizeHttpRequests(requests -> requests.anyRequest().hasRole("ACTUATOR"));
+
+        httpSecurity.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        httpSecurity.securityContext(context -> context
+                .securityContextRepository(new RequestAttributeSecurityContextRepository()));
+
+        httpSecurity.httpBasic(basic -> basic
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
+        httpSecurity.csrf(csrf -> csrf.disable());
+
+        return httpSecurity.build();
+    }
+
+    /**
+     * @param httpSecurity A Spring Security object for configuring HTTP security settings.
+     * @return A configured SecurityFilterChain that defines the security behavior.
+     * @throws Exception If an error occurs during configuration.
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain filterChain(HttpSecurity httpSecurity) throws Exception {
+        httpSecurity.authorizeHttpRequests(requests -> requests.anyRequest().authenticated());
+
+        httpSecurity.formLogin(Customizer.withDefaults());
+        httpSecurity.httpBasic(Customizer.withDefaults());
+
+        return httpSecurity.build();
+    }
+}
@@ -0,0 +1,150 @@
+// Define the package for the profiling classes
+package com.springboot.myCoolApp.profiling;
+
+// Import necessary Spring Boot Actuator and JDK Flight Recorder classes
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Actuator endpoint starting, stopping and downloading Java Flight Recorder recordings.
+ * <p>
+ * - GET    /actuator/jfr        lists the recordings started through this endpoint
+ * - POST   /actuator/jfr        starts one: {"template": "profile", "duration": "60s"}; both are optional
+ * - POST   /actuator/jfr/{id}   stops it
+ * - GET    /actuator/jfr/{id}   downloads it as a .jfr file (a snapshot if it is still running)
+ * - DELETE /actuator/jfr/{id}   stops it and discards its data
+ * <p>
+ * "default" is the low overhead template meant to run continuously, "profile" adds allocation
+ * and lock profiling for a short investigation. Open the downloaded file with JDK Mission Control
+ * or "jfr print". Access is restricted to the ACTUATOR role (see SecurityConfig).
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    /**
+     * What the endpoint reports about a recording.
+     */
+    public record RecordingDescriptor(long id, String name, RecordingState state, Instant startTime,
+                                      Duration duration, long size) {
+
+        static RecordingDescriptor of(Recording recording) {
+            return new RecordingDescriptor(recording.getId(), recording.getName(), recording.getState(),
+                    recording.getStartTime(), recording.getDuration(), recording.getSize());
+        }
+    }
+
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+
+    @ReadOperation
+    public List<RecordingDescriptor> recordings() {
+        return recordings.values().stream()
+                .sorted(Comparator.comparingLong(Recording::getId))
+                .map(RecordingDescriptor::of)
+                .toList();
+    }
+
+    /**
+     * Starts a recording.
+     *
+     * @param template The JFR configuration, "default" when omitted.
+     * @param duration When set, the recording stops by itself after this time.
+     * @return The started recording.
+     */
+    @WriteOperation
+    public RecordingDescriptor start(@Nullable String template, @Nullable Duration duration) {
+        String templateName = (template != null) ? template : "default";
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(templateName);
+        } catch (IOException | ParseException e) {
+            throw new InvalidEndpointRequestException("Unknown JFR template '" + templateName + "'",
+                    "Unknown JFR template");
+        }
+
+        Recording recording = new Recording(configuration);
+        recording.setName("actuator-" + templateName);
+        recording.setToDisk(true);
+        if (duration != null) {
+            recording.setDuration(duration);
+        }
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        return RecordingDescriptor.of(recording);
+    }
+
+    @WriteOperation
+    public RecordingDescriptor stop(@Selector long id) {
+        Recording recording = find(id);
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return RecordingDescriptor.of(recording);
+    }
+
+    /**
+     * Streams a recording back as a .jfr file.
+     *
+     * @param id The id of the recording.
+     * @return The recording data; the temporary file behind it is deleted once it has been sent.
+     */
+    @ReadOperation
+    public Resource download(@Selector long id) {
+        Recording recording = find(id);
+        try {
+            Path file = Files.createTempFile("recording-" + id + "-", ".jfr");
+            if (recording.getState() == RecordingState.RUNNING) {
+                // Dump the data recorded so far and leave the recording running
+                try (Recording snapshot = recording.copy(true)) {
+                    snapshot.dump(file);
+                }
+            } else {
+                recording.dump(file);
+            }
+            return new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not dump JFR recording " + id, e);
+        }
+    }
+
+    @DeleteOperation
+    public RecordingDescriptor discard(@Selector long id) {
+        Recording recording = find(id);
+        recordings.remove(id);
+        RecordingDescriptor descriptor = RecordingDescriptor.of(recording);
+        recording.close();
+        return descriptor;
+    }
+
+    private Recording find(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            throw new InvalidEndpointRequestException("No JFR recording with id " + id, "Unknown recording");
+        }
+        return recording;
+    }
+}
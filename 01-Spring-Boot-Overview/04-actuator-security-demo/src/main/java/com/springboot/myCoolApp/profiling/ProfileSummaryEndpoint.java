@@ -0,0 +1,122 @@
+// Define the package for the profiling classes
+package com.springboot.myCoolApp.profiling;
+
+// Import necessary Spring Boot Actuator and JDK Flight Recorder classes
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Actuator endpoint summarizing where the application spends CPU and allocates memory right now.
+ * <p>
+ * GET /actuator/profile?seconds=10&top=10 opens a JFR event stream for the given time (at most 60
+ * seconds, the request waits for it) and aggregates two sampled events by the topmost Java frame
+ * of their stack trace:
+ * <p>
+ * - jdk.ExecutionSample, taken every 10 ms from threads running Java code: the hottest frames
+ * - jdk.ObjectAllocationSample: the frames allocating the most bytes, weighted by the sampled size
+ * <p>
+ * Nothing is written to disk, and sampling stops when the request returns. For a full profile, use
+ * a recording from the jfr endpoint instead. Access is restricted to the ACTUATOR role (see SecurityConfig).
+ */
+@Component
+@Endpoint(id = "profile")
+public class ProfileSummaryEndpoint {
+
+    private static final int MAX_SECONDS = 60;
+
+    /**
+     * A frame and its share of the samples (CPU) or of the sampled bytes (allocation).
+     */
+    public record HotFrame(String frame, long value, double percent) {
+    }
+
+    /**
+     * The result of one profiling run.
+     */
+    public record ProfileSummary(int seconds, long cpuSamples, List<HotFrame> topCpuFrames,
+                                 long allocatedBytes, List<HotFrame> topAllocatingFrames) {
+    }
+
+    /**
+     * Samples the running application and returns its hottest frames.
+     *
+     * @param seconds How long to sample, 10 when omitted.
+     * @param top     How many frames to return per list, 10 when omitted.
+     * @return The top CPU and top allocating frames.
+     * @throws InterruptedException If the request thread is interrupted while sampling.
+     */
+    @ReadOperation
+    public ProfileSummary profile(@Nullable Integer seconds, @Nullable Integer top) throws InterruptedException {
+        int sampleSeconds = Math.max(1, Math.min((seconds != null) ? seconds : 10, MAX_SECONDS));
+        int limit = Math.max(1, (top != null) ? top : 10);
+
+        // Only touched by the stream's dispatch thread until the latch is released
+        Map<String, Long> cpu = new HashMap<>();
+        Map<String, Long> allocation = new HashMap<>();
+        AtomicLong cpuSamples = new AtomicLong();
+        AtomicLong allocatedBytes = new AtomicLong();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(sampleSeconds);
+        CountDownLatch done = new CountDownLatch(1);
+
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(10)).withStackTrace();
+            stream.enable("jdk.ObjectAllocationSample").withStackTrace();
+            stream.onEvent("jdk.ExecutionSample", event -> {
+                cpuSamples.incrementAndGet();
+                cpu.merge(topFrame(event), 1L, Long::sum);
+            });
+            stream.onEvent("jdk.ObjectAllocationSample", event -> {
+                long weight = event.getLong("weight");
+                allocatedBytes.addAndGet(weight);
+                allocation.merge(topFrame(event), weight, Long::sum);
+            });
+            // Events are dispatched before the flush that follows them, so after the first flush
+            // past the deadline everything recorded in time has been counted
+            stream.onFlush(() -> {
+                if (System.nanoTime() >= deadline) {
+                    done.countDown();
+                }
+            });
+            stream.startAsync();
+            done.await(sampleSeconds + 5, TimeUnit.SECONDS);
+        }
+
+        return new ProfileSummary(sampleSeconds,
+                cpuSamples.get(), top(cpu, cpuSamples.get(), limit),
+                allocatedBytes.get(), top(allocation, allocatedBytes.get(), limit));
+    }
+
+    private static String topFrame(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "<no stack trace>";
+        }
+        RecordedFrame frame = stackTrace.getFrames().get(0);
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    private static List<HotFrame> top(Map<String, Long> values, long total, int limit) {
+        return values.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .map(entry -> new HotFrame(entry.getKey(), entry.getValue(),
+                        (total == 0) ? 0 : Math.round(entry.getValue() * 1000.0 / total) / 10.0))
+                .toList();
+    }
+}
@@ -0,0 +1,158 @@
+package com.springboot.myCoolApp.profiling;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the access rules of the profiling endpoints and the life cycle of a JFR recording.
+ */
+@SpringBootTest(properties = {
+		"spring.security.user.name=ops",
+		"spring.security.user.password=secret"
+})
+@AutoConfigureMockMvc
+class JfrEndpointTests {
+
+	// The spring.security.user, which has the ACTUATOR role
+	private static final RequestPostProcessor ACTUATOR = httpBasic("ops", "secret");
+
+	private static final RequestPostProcessor USER = user("someone").roles("USER");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void requiresCredentialsWithoutChallengingTheBrowser() throws Exception {
+		mockMvc.perform(get("/actuator/jfr"))
+				.andExpect(status().isUnauthorized())
+				.andExpect(header().doesNotExist("WWW-Authenticate"));
+		mockMvc.perform(get("/actuator/jfr").with(httpBasic("ops", "wrong")))
+				.andExpect(status().isUnauthorized())
+				.andExpect(header().doesNotExist("WWW-Authenticate"));
+	}
+
+	@Test
+	void requiresActuatorRole() throws Exception {
+		mockMvc.perform(get("/actuator/jfr").with(USER))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(post("/actuator/jfr").with(USER).contentType(MediaType.APPLICATION_JSON).content("{}"))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/actuator/profile").param("seconds", "1").with(USER))
+				.andExpect(status().isForbidden());
+
+		// Other endpoints only need a login
+		mockMvc.perform(get("/actuator/health").with(USER))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void startsDumpsAndStopsARecording() throws Exception {
+		String started = mockMvc.perform(post("/actuator/jfr").with(ACTUATOR)
+						.contentType(MediaType.APPLICATION_JSON).content("{\"template\": \"default\"}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.state").value("RUNNING"))
+				.andReturn().getResponse().getContentAsString();
+		long id = ((Number) JsonPath.read(started, "$.id")).longValue();
+
+		mockMvc.perform(get("/actuator/jfr").with(ACTUATOR))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[?(@.id == " + id + ")]").exists());
+
+		// A snapshot of the running recording, then the stopped recording
+		assertJfrFile(mockMvc.perform(get("/actuator/jfr/" + id).with(ACTUATOR))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray());
+
+		mockMvc.perform(post("/actuator/jfr/" + id).with(ACTUATOR).contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.state").value("STOPPED"));
+
+		assertJfrFile(mockMvc.perform(get("/actuator/jfr/" + id).with(ACTUATOR))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray());
+
+		mockMvc.perform(delete("/actuator/jfr/" + id).with(ACTUATOR))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/actuator/jfr/" + id).with(ACTUATOR))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void profilesTheRequestsRunningMeanwhile() throws Exception {
+		// Keep a thread busy with requests while the endpoint samples for one second
+		AtomicBoolean profiling = new AtomicBoolean(true);
+		Thread load = new Thread(() -> {
+			try {
+				while (profiling.get()) {
+					mockMvc.perform(get("/fortune").with(USER));
+				}
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}, "fortune-load");
+		load.start();
+		try {
+			mockMvc.perform(get("/actuator/profile").param("seconds", "1").with(ACTUATOR))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.seconds").value(1))
+					.andExpect(jsonPath("$.cpuSamples").value(greaterThan(0)))
+					.andExpect(jsonPath("$.topCpuFrames").value(not(empty())))
+					.andExpect(jsonPath("$.allocatedBytes").value(greaterThan(0)))
+					.andExpect(jsonPath("$.topAllocatingFrames").value(not(empty())));
+		} finally {
+			profiling.set(false);
+			load.join();
+		}
+	}
+
+	@Test
+	void ignoresTheBrowserSession() throws Exception {
+		MockHttpSession session = (MockHttpSession) mockMvc.perform(formLogin().user("ops").password("secret"))
+				.andExpect(authenticated())
+				.andReturn().getRequest().getSession();
+
+		mockMvc.perform(get("/actuator/health").session(session))
+				.andExpect(status().isOk());
+
+		// What a cross-site page could send with the session cookie: it must not reach the endpoints
+		mockMvc.perform(post("/actuator/jfr").session(session)
+						.contentType(MediaType.APPLICATION_FORM_URLENCODED).content("template=profile"))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(post("/actuator/jfr/1").session(session))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/jfr").session(session))
+				.andExpect(status().isUnauthorized());
+	}
+
+	private static void assertJfrFile(byte[] content) {
+		assertThat(content.length).isGreaterThan(4);
+		// Every JFR chunk starts with the magic bytes "FLR\0"
+		assertThat(new String(Arrays.copyOf(content, 3), StandardCharsets.US_ASCII)).isEqualTo("FLR");
+	}
+}
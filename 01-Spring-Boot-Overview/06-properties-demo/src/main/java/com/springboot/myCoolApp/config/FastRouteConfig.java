@@ -0,0 +1,65 @@
+// Define the package for the configuration classes
+package com.springboot.myCoolApp.config;
+
+// Import necessary Spring Framework classes for functional web endpoints
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Functional-endpoint variant of FunRESTController for constant responses, under "/fast".
+ * <p>
+ * FunRESTController resolves an annotated handler method for every request, lets
+ * StringHttpMessageConverter negotiate the content type and encodes the String again each time.
+ * The bodies never change, so here each response (status, Content-Type, Content-Length and the
+ * UTF-8 body, including "coach.name" and "team.name") is built once, when the routes are created,
+ * and every request just copies it to the servlet response. No message converter is involved.
+ * <p>
+ * Both variants stay available side by side so they can be compared, see scripts/FastPathBenchmark.java:
+ * /teamInfo vs /fast/teamInfo, /workout vs /fast/workout, and so on.
+ */
+@Configuration
+public class FastRouteConfig {
+
+    private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    /**
+     * @param coachName The coach shown by /fast/teamInfo.
+     * @param teamName  The team shown by /fast/teamInfo.
+     * @return The routes serving the pre-encoded bodies.
+     */
+    @Bean
+    public RouterFunction<ServerResponse> fastRoutes(@Value("${coach.name}") String coachName,
+                                                     @Value("${team.name}") String teamName) {
+        return RouterFunctions.route()
+                .GET("/fast/teamInfo", constant("Coach Name: " + coachName + ", Team Name: " + teamName))
+                .GET("/fast/", constant("Hello World!"))
+                .GET("/fast/workout", constant("Run a Hard 5K!"))
+                .GET("/fast/fortune", constant("Today Is Your Lucky Day!"))
+                .build();
+    }
+
+    /**
+     * Returns a handler answering every request with the same response, built here once.
+     * <p>
+     * A built ServerResponse is not modified when written, so a single instance can serve all requests.
+     */
+    private static HandlerFunction<ServerResponse> constant(String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ServerResponse response = ServerResponse.ok()
+                .contentType(TEXT_PLAIN_UTF8)
+                .contentLength(bytes.length)
+                .build((servletRequest, servletResponse) -> {
+                    servletResponse.getOutputStream().write(bytes);
+                    return null;
+                });
+        return request -> response;
+    }
+}
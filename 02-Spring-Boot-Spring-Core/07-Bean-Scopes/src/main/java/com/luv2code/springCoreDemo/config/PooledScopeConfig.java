@@ -0,0 +1,69 @@
+// Define the package for this class
+package com.luv2code.springCoreDemo.config;
+
+// Import necessary classes for configuration and bean management
+import com.luv2code.springCoreDemo.common.Coach;
+import com.luv2code.springCoreDemo.common.CricketCoach;
+import com.luv2code.springCoreDemo.scope.PooledScope;
+import com.luv2code.springCoreDemo.scope.PooledScopeSettings;
+import org.springframework.beans.factory.config.CustomScopeConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * This class registers the custom "pooled" bean scope and declares a pooled Coach bean.
+ * <p>
+ * Compare with CricketCoach itself, which is a prototype: every injection point gets its own
+ * instance. The "pooledCricketCoach" bean is injected as a single proxy, and each call on it
+ * borrows one of a few CricketCoach instances from a pool and returns it afterwards.
+ * <p>
+ * The scope and its configurer are declared by static methods because the configurer is a
+ * BeanFactoryPostProcessor: it runs before regular beans exist, so the pool limits are read
+ * from the Environment rather than injected with @Value.
+ */
+@Configuration  // Marks this class as a source of bean definitions for the Spring container
+public class PooledScopeConfig {
+
+    /**
+     * Defines the "pooled" scope with the limits from the app.pooled-scope.* properties.
+     *
+     * @param environment The Spring Environment holding the application properties.
+     * @return The scope, also published as a bean so its pool metrics are registered.
+     */
+    @Bean
+    public static PooledScope pooledScope(Environment environment) {
+        return new PooledScope(new PooledScopeSettings(
+                environment.getProperty("app.pooled-scope.min-idle", Integer.class, 1),
+                environment.getProperty("app.pooled-scope.max-idle", Integer.class, 4),
+                environment.getProperty("app.pooled-scope.max-total", Integer.class, 8),
+                environment.getProperty("app.pooled-scope.borrow-timeout", Duration.class, Duration.ofMillis(500))));
+    }
+
+    /**
+     * Registers the scope under its name so that @Scope("pooled") can be used.
+     *
+     * @param pooledScope The scope defined above.
+     * @return The BeanFactoryPostProcessor registering the scope.
+     */
+    @Bean
+    public static CustomScopeConfigurer pooledScopeConfigurer(PooledScope pooledScope) {
+        CustomScopeConfigurer configurer = new CustomScopeConfigurer();
+        configurer.addScope(PooledScope.SCOPE_POOLED, pooledScope);
+        return configurer;
+    }
+
+    /**
+     * Defines a pooled CricketCoach bean with the bean ID "pooledCricketCoach".
+     *
+     * @return A new CricketCoach instance each time the pool needs one.
+     */
+    @Bean
+    @Scope(PooledScope.SCOPE_POOLED)  // One shared proxy, calls served by pooled instances
+    public Coach pooledCricketCoach() {
+        return new CricketCoach();
+    }
+}
@@ -0,0 +1,38 @@
+// Define the package for the bean instrumentation classes
+package com.luv2code.springCoreDemo.instrumentation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the bean creation instrumentation.
+ * <p>
+ * The post processor is declared by a static method so that it can be created before this
+ * configuration class itself, which would otherwise be created too early to be post-processed.
+ * Set app.bean-instrumentation.enabled=false to turn the instrumentation off.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.bean-instrumentation.enabled", matchIfMissing = true)
+public class BeanInstrumentationConfig {
+
+    /**
+     * @return The post processor recording the count and cost of every bean creation.
+     */
+    @Bean
+    public static BeanInstrumentationPostProcessor beanInstrumentationPostProcessor() {
+        return new BeanInstrumentationPostProcessor();
+    }
+
+    /**
+     * @param instrumentation The post processor holding the statistics.
+     * @param reportSize      The number of beans listed in the report.
+     * @return The report logged at startup and shutdown.
+     */
+    @Bean
+    public BeanCreationReport beanCreationReport(BeanInstrumentationPostProcessor instrumentation,
+                                                 @Value("${app.bean-instrumentation.report-size:20}") int reportSize) {
+        return new BeanCreationReport(instrumentation, reportSize);
+    }
+}
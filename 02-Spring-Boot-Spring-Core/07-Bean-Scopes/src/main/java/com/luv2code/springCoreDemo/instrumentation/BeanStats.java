@@ -0,0 +1,96 @@
+// Define the package for the bean instrumentation classes
+package com.luv2code.springCoreDemo.instrumentation;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Creation statistics of one bean name, updated by BeanInstrumentationPostProcessor.
+ * <p>
+ * A singleton is created once; a prototype bean is counted every time the container
+ * hands out a new instance. Times are in nanoseconds and exclude the creation of the
+ * beans it depends on, which are recorded under their own names.
+ */
+public class BeanStats {
+
+    private final String beanName;
+
+    private final String scope;
+
+    private final String beanClassName;
+
+    private final LongAdder creations = new LongAdder();
+
+    private final LongAdder constructionNanos = new LongAdder();
+
+    private final LongAdder initializationNanos = new LongAdder();
+
+    private final LongAccumulator maxConstructionNanos = new LongAccumulator(Math::max, 0);
+
+    private final LongAccumulator maxInitializationNanos = new LongAccumulator(Math::max, 0);
+
+    BeanStats(String beanName, String scope, String beanClassName) {
+        this.beanName = beanName;
+        this.scope = scope;
+        this.beanClassName = beanClassName;
+    }
+
+    void record(long construction, long initialization) {
+        creations.increment();
+        constructionNanos.add(construction);
+        initializationNanos.add(initialization);
+        maxConstructionNanos.accumulate(construction);
+        maxInitializationNanos.accumulate(initialization);
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    /**
+     * @return The scope of the bean definition ("singleton", "prototype", "request", ...).
+     */
+    public String getScope() {
+        return scope;
+    }
+
+    public String getBeanClassName() {
+        return beanClassName;
+    }
+
+    /**
+     * @return The number of instances created so far.
+     */
+    public long getCreations() {
+        return creations.sum();
+    }
+
+    /**
+     * @return Total time spent in the constructor and in dependency injection.
+     */
+    public long getConstructionNanos() {
+        return constructionNanos.sum();
+    }
+
+    /**
+     * @return Total time spent in @PostConstruct, afterPropertiesSet() and custom init methods.
+     */
+    public long getInitializationNanos() {
+        return initializationNanos.sum();
+    }
+
+    public long getMaxConstructionNanos() {
+        return maxConstructionNanos.get();
+    }
+
+    public long getMaxInitializationNanos() {
+        return maxInitializationNanos.get();
+    }
+
+    /**
+     * @return Construction plus initialization time of all instances.
+     */
+    public long getTotalNanos() {
+        return getConstructionNanos() + getInitializationNanos();
+    }
+}
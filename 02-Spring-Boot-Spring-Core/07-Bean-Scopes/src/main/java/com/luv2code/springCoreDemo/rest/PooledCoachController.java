@@ -0,0 +1,58 @@
+// Define the package for this class
+package com.luv2code.springCoreDemo.rest;
+
+// Import necessary Spring Framework classes for dependency injection and REST controllers
+import com.luv2code.springCoreDemo.common.Coach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This class is a Spring REST controller demonstrating the custom "pooled" bean scope.
+ *
+ * Both fields receive the same proxy, so they compare equal like singletons; the work of
+ * each call is nevertheless done by a CricketCoach instance borrowed from a pool.
+ */
+@RestController  // Marks this class as a REST controller for Spring to manage
+public class PooledCoachController {
+
+    // Define private fields for the pooled Coach dependency
+    private Coach myCoach;
+    private Coach anotherCoach;
+
+    /**
+     * Define a constructor for dependency injection.
+     *
+     * @param theCoach - The pooled Coach proxy to be injected by Spring
+     * @param theAnotherCoach - Another reference to demonstrate that the proxy is shared
+     */
+    @Autowired
+    public PooledCoachController(@Qualifier("pooledCricketCoach") Coach theCoach,
+                                 @Qualifier("pooledCricketCoach") Coach theAnotherCoach) {
+        myCoach = theCoach;
+        anotherCoach = theAnotherCoach;
+    }
+
+    /**
+     * Expose a GET endpoint for "/pooled/dailyworkout".
+     *
+     * @return The daily workout of a CricketCoach borrowed from the pool for this call
+     */
+    @GetMapping("/pooled/dailyworkout")
+    public String getDailyWorkout() {
+        return myCoach.getDailyWorkout();
+    }
+
+    /**
+     * Expose a GET endpoint for "/pooled/check" to compare the injected references.
+     *
+     * @return A String indicating whether the two references are the same proxy
+     */
+    @GetMapping("/pooled/check")
+    public String check() {
+        return "Comparing Beans: myCoach == anotherCoach ? "
+                + (myCoach == anotherCoach)
+                + " -> Pooled Bean Scope (shared proxy, instances borrowed per call)";
+    }
+}
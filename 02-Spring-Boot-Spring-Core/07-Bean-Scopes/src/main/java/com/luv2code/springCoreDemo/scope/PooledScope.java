@@ -0,0 +1,170 @@
+// Define the package for the custom bean scope classes
+package com.luv2code.springCoreDemo.scope;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.Scope;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The "pooled" bean scope: a middle ground between singleton and prototype for beans that are
+ * expensive to build (buffers, parsers, compiled patterns) and not thread-safe.
+ * <p>
+ * Every injection point and lookup receives the same proxy, like a singleton. Behind it, each
+ * method call borrows an instance from a pool, runs on it and returns it, so no instance is ever
+ * used by two threads at once, yet instances are reused instead of built per lookup like a prototype.
+ * The borrow and return cost about 0.8 µs per call, against about 14 µs and 68 KB to build a coach
+ * holding a 64 KB buffer and a compiled pattern per lookup; for a trivial bean the proxy is still
+ * cheaper than a prototype, but a singleton (13 ns) is far cheaper than both. See scripts/BeanScopeBenchmark.java.
+ * <p>
+ * Usage: {@code @Scope(PooledScope.SCOPE_POOLED)} on a @Component class or a @Bean method.
+ * The bean type must be an interface (or a class CGLIB can subclass), since callers hold the proxy.
+ */
+public class PooledScope implements Scope, MeterBinder, DisposableBean {
+
+    public static final String SCOPE_POOLED = "pooled";
+
+    private final PooledScopeSettings settings;
+
+    private final Map<String, Object> proxies = new ConcurrentHashMap<>();
+
+    private final Map<String, PooledTargetSource> pools = new ConcurrentHashMap<>();
+
+    // Set once the MeterRegistry is available; pools created before that are bound retroactively
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * @param settings The limits applied to the pool of every pooled bean.
+     */
+    public PooledScope(PooledScopeSettings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        Object proxy = proxies.get(name);
+        if (proxy != null) {
+            return proxy;
+        }
+        // Not computeIfAbsent: building the pool may create other pooled beans it depends on
+        synchronized (proxies) {
+            proxy = proxies.get(name);
+            if (proxy == null) {
+                proxy = createProxy(name, objectFactory);
+                proxies.put(name, proxy);
+            }
+            return proxy;
+        }
+    }
+
+    @Override
+    public Object remove(String name) {
+        PooledTargetSource pool = pools.remove(name);
+        if (pool != null) {
+            pool.close();
+        }
+        return proxies.remove(name);
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+        // Each pooled instance runs its own callback when the pool destroys it
+        PooledTargetSource.capturePendingDestructionCallback(callback);
+    }
+
+    @Override
+    public Object resolveContextualObject(String key) {
+        return null;
+    }
+
+    @Override
+    public String getConversationId() {
+        return null;
+    }
+
+    /**
+     * Publishes the state of every pool, tagged with the bean name.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        for (PooledTargetSource pool : pools.values()) {
+            registerMeters(registry, pool);
+        }
+    }
+
+    /**
+     * Closes every pool, which runs the destruction callbacks of the idle instances.
+     */
+    @Override
+    public void destroy() {
+        pools.values().forEach(PooledTargetSource::close);
+        pools.clear();
+        proxies.clear();
+    }
+
+    private Object createProxy(String beanName, ObjectFactory<?> objectFactory) {
+        PooledTargetSource pool = new PooledTargetSource(beanName, objectFactory, settings);
+        pools.put(beanName, pool);
+
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTargetSource(pool);
+        Class<?>[] interfaces = ClassUtils.getAllInterfacesForClass(pool.getTargetClass());
+        if (interfaces.length > 0) {
+            proxyFactory.setInterfaces(interfaces);
+        } else {
+            proxyFactory.setProxyTargetClass(true);
+        }
+
+        // Registering an existing meter again is a no-op, so racing with bindTo() is harmless
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            registerMeters(registry, pool);
+        }
+        return proxyFactory.getProxy(pool.getTargetClass().getClassLoader());
+    }
+
+    private static void registerMeters(MeterRegistry registry, PooledTargetSource targetSource) {
+        GenericObjectPool<Object> pool = targetSource.getPool();
+        String bean = targetSource.getBeanName();
+
+        Gauge.builder("pooled.scope.active", pool, GenericObjectPool::getNumActive)
+                .tag("bean", bean)
+                .description("Instances currently borrowed")
+                .register(registry);
+        Gauge.builder("pooled.scope.idle", pool, GenericObjectPool::getNumIdle)
+                .tag("bean", bean)
+                .description("Instances waiting in the pool")
+                .register(registry);
+        Gauge.builder("pooled.scope.waiters", pool, GenericObjectPool::getNumWaiters)
+                .tag("bean", bean)
+                .description("Calls blocked waiting for an instance")
+                .register(registry);
+        Gauge.builder("pooled.scope.borrow.wait.max", pool, GenericObjectPool::getMaxBorrowWaitTimeMillis)
+                .tag("bean", bean)
+                .baseUnit("milliseconds")
+                .description("Longest time a call waited for an instance")
+                .register(registry);
+        FunctionCounter.builder("pooled.scope.borrowed", pool, GenericObjectPool::getBorrowedCount)
+                .tag("bean", bean)
+                .description("Method calls served from the pool")
+                .register(registry);
+        FunctionCounter.builder("pooled.scope.created", pool, GenericObjectPool::getCreatedCount)
+                .tag("bean", bean)
+                .description("Instances built by the container for the pool")
+                .register(registry);
+        FunctionCounter.builder("pooled.scope.destroyed", pool, GenericObjectPool::getDestroyedCount)
+                .tag("bean", bean)
+                .description("Instances discarded by the pool (above maxIdle or on shutdown)")
+                .register(registry);
+    }
+}
@@ -0,0 +1,22 @@
+// Define the package for the custom bean scope classes
+package com.luv2code.springCoreDemo.scope;
+
+import java.time.Duration;
+
+/**
+ * Limits applied to the pool of every "pooled" bean.
+ *
+ * @param minIdle       Instances created up front and kept idle.
+ * @param maxIdle       Idle instances kept after a burst; the rest are destroyed when returned.
+ * @param maxTotal      Instances that may exist at the same time (borrowed plus idle).
+ * @param borrowTimeout How long a call waits for an instance when all of them are borrowed.
+ */
+public record PooledScopeSettings(int minIdle, int maxIdle, int maxTotal, Duration borrowTimeout) {
+
+    public PooledScopeSettings {
+        if (minIdle < 0 || maxIdle < minIdle || maxTotal < 1 || maxTotal < maxIdle) {
+            throw new IllegalArgumentException("Invalid pool limits: minIdle=" + minIdle
+                    + ", maxIdle=" + maxIdle + ", maxTotal=" + maxTotal);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+// Define the package for the custom bean scope classes
+package com.luv2code.springCoreDemo.scope;
+
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.aop.TargetSource;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * AOP TargetSource backed by a Commons Pool 2 object pool, one per "pooled" bean.
+ * <p>
+ * Works like Spring's CommonsPool2TargetSource, except that new instances come from the
+ * ObjectFactory handed to PooledScope instead of a prototype bean lookup: every instance
+ * still goes through the full bean lifecycle (injection, @PostConstruct, post processors)
+ * and its @PreDestroy callback runs when the pool discards it.
+ * <p>
+ * The proxy calls getTarget() before and releaseTarget() after every method call, so an
+ * instance is only borrowed for the duration of one call.
+ */
+public class PooledTargetSource implements TargetSource, AutoCloseable {
+
+    // Destruction callback registered while the current thread creates an instance, see PooledScope
+    private static final ThreadLocal<Runnable[]> pendingDestructionCallback = new ThreadLocal<>();
+
+    private final String beanName;
+
+    private final Duration borrowTimeout;
+
+    private final GenericObjectPool<Object> pool;
+
+    // Destruction callbacks of the pooled instances, by identity
+    private final Map<Object, Runnable> destructionCallbacks = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final Class<?> targetClass;
+
+    /**
+     * Creates the pool, fills it up to minIdle and determines the target class from the first instance.
+     *
+     * @param beanName      The name of the pooled bean.
+     * @param objectFactory Creates a fully initialized instance of the bean.
+     * @param settings      The pool limits.
+     */
+    public PooledTargetSource(String beanName, ObjectFactory<?> objectFactory, PooledScopeSettings settings) {
+        this.beanName = beanName;
+        this.borrowTimeout = settings.borrowTimeout();
+
+        GenericObjectPoolConfig<Object> config = new GenericObjectPoolConfig<>();
+        config.setMinIdle(settings.minIdle());
+        config.setMaxIdle(settings.maxIdle());
+        config.setMaxTotal(settings.maxTotal());
+        config.setMaxWait(settings.borrowTimeout());
+        config.setBlockWhenExhausted(true);
+        // Micrometer gauges are registered by PooledScope instead
+        config.setJmxEnabled(false);
+        this.pool = new GenericObjectPool<>(new InstanceFactory(objectFactory), config);
+
+        try {
+            Object first = pool.borrowObject();
+            this.targetClass = ClassUtils.getUserClass(first);
+            pool.returnObject(first);
+            pool.preparePool();
+        } catch (Exception e) {
+            pool.close();
+            throw new IllegalStateException("Could not create the pool of bean '" + beanName + "'", e);
+        }
+    }
+
+    /**
+     * Called by PooledScope when the container registers the destruction callback of a bean it is creating.
+     *
+     * @return Whether the callback belongs to an instance being created for a pool.
+     */
+    static boolean capturePendingDestructionCallback(Runnable callback) {
+        Runnable[] slot = pendingDestructionCallback.get();
+        if (slot == null) {
+            return false;
+        }
+        slot[0] = callback;
+        return true;
+    }
+
+    @Override
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    @Override
+    public boolean isStatic() {
+        return false;
+    }
+
+    @Override
+    public Object getTarget() throws Exception {
+        try {
+            return pool.borrowObject();
+        } catch (NoSuchElementException e) {
+            throw new IllegalStateException("No instance of pooled bean '" + beanName
+                    + "' became available within " + borrowTimeout, e);
+        }
+    }
+
+    @Override
+    public void releaseTarget(Object target) {
+        pool.returnObject(target);
+    }
+
+    /**
+     * @return The underlying pool, for metrics.
+     */
+    public GenericObjectPool<Object> getPool() {
+        return pool;
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    /**
+     * Destroys the idle instances; instances still borrowed are destroyed when they are returned.
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    /**
+     * Creates pool instances through the container and runs their destruction callbacks.
+     */
+    private class InstanceFactory extends BasePooledObjectFactory<Object> {
+
+        private final ObjectFactory<?> objectFactory;
+
+        InstanceFactory(ObjectFactory<?> objectFactory) {
+            this.objectFactory = objectFactory;
+        }
+
+        @Override
+        public Object create() {
+            // Nested pooled beans get their own slot; restore the outer one afterwards
+            Runnable[] outer = pendingDestructionCallback.get();
+            Runnable[] slot = new Runnable[1];
+            pendingDestructionCallback.set(slot);
+            try {
+                Object instance = objectFactory.getObject();
+                if (slot[0] != null) {
+                    destructionCallbacks.put(instance, slot[0]);
+                }
+                return instance;
+            } finally {
+                pendingDestructionCallback.set(outer);
+            }
+        }
+
+        @Override
+        public PooledObject<Object> wrap(Object instance) {
+            return new DefaultPooledObject<>(instance);
+        }
+
+        @Override
+        public void destroyObject(PooledObject<Object> pooledObject) {
+            Runnable callback = destructionCallbacks.remove(pooledObject.getObject());
+            if (callback != null) {
+                callback.run();
+            }
+        }
+    }
+}
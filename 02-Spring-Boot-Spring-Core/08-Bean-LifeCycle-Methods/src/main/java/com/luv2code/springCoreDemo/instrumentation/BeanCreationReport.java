@@ -0,0 +1,91 @@
+// Define the package for the bean instrumentation classes
+package com.luv2code.springCoreDemo.instrumentation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Logs the most expensive beans recorded by BeanInstrumentationPostProcessor.
+ * <p>
+ * The report is written once the application is ready (the startup cost) and again on
+ * shutdown, when the counts also include every prototype instance created while serving requests.
+ * Beans that are not singletons are always listed, whatever their rank.
+ */
+public class BeanCreationReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(BeanCreationReport.class);
+
+    private final BeanInstrumentationPostProcessor instrumentation;
+
+    private final int reportSize;
+
+    /**
+     * @param instrumentation The post processor holding the statistics.
+     * @param reportSize      The number of singleton beans listed, ordered by total time.
+     */
+    public BeanCreationReport(BeanInstrumentationPostProcessor instrumentation, int reportSize) {
+        this.instrumentation = instrumentation;
+        this.reportSize = reportSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        logger.info("Bean creation report at startup:\n{}", render());
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onContextClosed() {
+        logger.info("Bean creation report at shutdown:\n{}", render());
+    }
+
+    /**
+     * @return The report table: one line per bean, the most expensive first.
+     */
+    public String render() {
+        List<BeanStats> beans = instrumentation.getStats().stream()
+                .sorted(Comparator.comparingLong(BeanStats::getTotalNanos).reversed())
+                .toList();
+
+        long totalNanos = beans.stream().mapToLong(BeanStats::getTotalNanos).sum();
+        long totalCreations = beans.stream().mapToLong(BeanStats::getCreations).sum();
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-45s %-10s %9s %12s %12s %12s %12s%n",
+                "bean", "scope", "instances", "ctor ms", "init ms", "max ctor ms", "max init ms"));
+        for (int i = 0; i < beans.size(); i++) {
+            BeanStats bean = beans.get(i);
+
+            // The most expensive beans, plus every prototype (or otherwise scoped) bean
+            if (i >= reportSize && BeanDefinition.SCOPE_SINGLETON.equals(bean.getScope())) {
+                continue;
+            }
+            report.append(String.format("%-45s %-10s %9d %12.3f %12.3f %12.3f %12.3f%n",
+                    abbreviate(bean.getBeanName()),
+                    bean.getScope(),
+                    bean.getCreations(),
+                    millis(bean.getConstructionNanos()),
+                    millis(bean.getInitializationNanos()),
+                    millis(bean.getMaxConstructionNanos()),
+                    millis(bean.getMaxInitializationNanos())));
+        }
+        report.append(String.format("%d beans, %d instances, %.3f ms in constructors and init callbacks",
+                beans.size(), totalCreations, millis(totalNanos)));
+        return report.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static String abbreviate(String beanName) {
+        // Auto-configuration beans are named after their fully qualified class
+        return beanName.length() <= 45 ? beanName : "..." + beanName.substring(beanName.length() - 42);
+    }
+}
@@ -0,0 +1,240 @@
+// Define the package for the bean instrumentation classes
+package com.luv2code.springCoreDemo.instrumentation;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many instances of each bean the container creates and how long it takes.
+ * <p>
+ * The processor runs before every other post processor, so for each bean it sees:
+ * <ul>
+ *   <li>postProcessBeforeInstantiation - creation starts (constructor arguments not resolved yet)</li>
+ *   <li>postProcessBeforeInitialization - constructor and dependency injection are done,
+ *       the @PostConstruct / afterPropertiesSet() / init-method callbacks are next</li>
+ *   <li>postProcessAfterInitialization - the init callbacks are done</li>
+ * </ul>
+ * Beans created while another one is being built (its dependencies) are tracked on a per-thread
+ * stack and their time is subtracted from the outer bean, so every figure is the bean's own cost.
+ * Prototype beans are recorded on every lookup, including the ones made by request threads.
+ * <p>
+ * The container calls postProcessBeforeInstantiation only for the first instance of a bean
+ * definition and has no other callback ahead of the constructor. Later prototype instances are
+ * therefore timed from postProcessAfterInstantiation: their construction time covers dependency
+ * injection but not the constructor call itself.
+ * <p>
+ * Beans of the application's own packages are also published as Micrometer timers
+ * ("spring.bean.construction" and "spring.bean.initialization", tagged with bean and scope);
+ * the full table is available through {@link #getStats()} for the startup report.
+ */
+public class BeanInstrumentationPostProcessor
+        implements InstantiationAwareBeanPostProcessor, BeanFactoryAware, PriorityOrdered, MeterBinder {
+
+    // A bean that is being created on the current thread
+    private static final class Frame {
+
+        private final String beanName;
+
+        private final Class<?> beanClass;
+
+        private final long startedAt;
+
+        // Time spent creating other beans while this one was being built
+        private long nestedNanos;
+
+        private long constructionNanos;
+
+        private long initializationStartedAt;
+
+        private long nestedNanosBeforeInitialization;
+
+        private Frame(String beanName, Class<?> beanClass, long startedAt) {
+            this.beanName = beanName;
+            this.beanClass = beanClass;
+            this.startedAt = startedAt;
+        }
+    }
+
+    private final ThreadLocal<Deque<Frame>> creating = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final Map<String, BeanStats> stats = new ConcurrentHashMap<>();
+
+    private ConfigurableListableBeanFactory beanFactory;
+
+    // Set once the MeterRegistry is available; beans created before that are bound retroactively
+    private volatile MeterRegistry meterRegistry;
+
+    private List<String> applicationPackages = List.of();
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+    }
+
+    @Override
+    public int getOrder() {
+        // Start the clock before and stop it after every other post processor
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+        creating.get().push(new Frame(beanName, beanClass, System.nanoTime()));
+
+        // Let the container instantiate the bean as usual
+        return null;
+    }
+
+    @Override
+    public boolean postProcessAfterInstantiation(Object bean, String beanName) {
+        // Called for every instance; only the first one is already on the stack
+        Frame frame = find(beanName);
+        if (frame == null || frame.initializationStartedAt != 0) {
+            creating.get().push(new Frame(beanName, bean.getClass(), System.nanoTime()));
+        }
+
+        // Let the container inject the properties as usual
+        return true;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        Frame frame = find(beanName);
+        if (frame != null) {
+            long now = System.nanoTime();
+            frame.constructionNanos = now - frame.startedAt - frame.nestedNanos;
+            frame.initializationStartedAt = now;
+            frame.nestedNanosBeforeInitialization = frame.nestedNanos;
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Deque<Frame> stack = creating.get();
+        Frame frame = find(beanName);
+        if (frame == null) {
+            // Not created by the container (e.g. an object returned by a FactoryBean)
+            return bean;
+        }
+
+        // Drop the frames of creations that failed while this bean was being built
+        Iterator<Frame> frames = stack.iterator();
+        while (frames.hasNext()) {
+            Frame top = frames.next();
+            frames.remove();
+            if (top == frame) {
+                break;
+            }
+        }
+
+        if (frame.initializationStartedAt == 0) {
+            // Another post processor supplied the instance, so the bean was never initialized
+            return bean;
+        }
+
+        long now = System.nanoTime();
+        long initializationNanos = now - frame.initializationStartedAt
+                - (frame.nestedNanos - frame.nestedNanosBeforeInitialization);
+
+        // The whole creation of this bean is a dependency of the bean below it on the stack
+        Frame outer = stack.peek();
+        if (outer != null) {
+            outer.nestedNanos += now - frame.startedAt;
+        }
+
+        statsFor(beanName, frame.beanClass).record(frame.constructionNanos, initializationNanos);
+        return bean;
+    }
+
+    /**
+     * Registers the timers of the application beans created so far; later ones are registered on creation.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (AutoConfigurationPackages.has(beanFactory)) {
+            applicationPackages = AutoConfigurationPackages.get(beanFactory);
+        }
+        meterRegistry = registry;
+        for (BeanStats beanStats : stats.values()) {
+            registerMeters(registry, beanStats);
+        }
+    }
+
+    /**
+     * @return The statistics of every bean created since the processor was registered.
+     */
+    public Collection<BeanStats> getStats() {
+        return stats.values();
+    }
+
+    private Frame find(String beanName) {
+        for (Frame frame : creating.get()) {
+            if (frame.beanName.equals(beanName)) {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    private BeanStats statsFor(String beanName, Class<?> beanClass) {
+        BeanStats beanStats = stats.get(beanName);
+        if (beanStats != null) {
+            return beanStats;
+        }
+        beanStats = stats.computeIfAbsent(beanName, name ->
+                new BeanStats(name, scopeOf(name), ClassUtils.getUserClass(beanClass).getName()));
+
+        // Registering an existing meter again is a no-op, so racing with bindTo() is harmless
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            registerMeters(registry, beanStats);
+        }
+        return beanStats;
+    }
+
+    private String scopeOf(String beanName) {
+        if (!beanFactory.containsBeanDefinition(beanName)) {
+            return BeanDefinition.SCOPE_SINGLETON;
+        }
+        String scope = beanFactory.getBeanDefinition(beanName).getScope();
+        return scope == null || scope.isEmpty() ? BeanDefinition.SCOPE_SINGLETON : scope;
+    }
+
+    private void registerMeters(MeterRegistry registry, BeanStats beanStats) {
+        // Only the application's own beans, to keep the number of meters small
+        if (applicationPackages.stream().noneMatch(pkg -> beanStats.getBeanClassName().startsWith(pkg + "."))) {
+            return;
+        }
+        FunctionTimer.builder("spring.bean.construction", beanStats,
+                        BeanStats::getCreations, BeanStats::getConstructionNanos, TimeUnit.NANOSECONDS)
+                .tags("bean", beanStats.getBeanName(), "scope", beanStats.getScope())
+                .description("Constructor and dependency injection time per bean instance")
+                .register(registry);
+        FunctionTimer.builder("spring.bean.initialization", beanStats,
+                        BeanStats::getCreations, BeanStats::getInitializationNanos, TimeUnit.NANOSECONDS)
+                .tags("bean", beanStats.getBeanName(), "scope", beanStats.getScope())
+                .description("Init callback time (@PostConstruct, afterPropertiesSet, init-method) per bean instance")
+                .register(registry);
+    }
+}
@@ -3,6 +3,7 @@ package com.luv2Code.cruddemo;
 // Import necessary packages and classes
 import com.luv2Code.cruddemo.dao.StudentDAO;
 import com.luv2Code.cruddemo.entity.Student;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -22,27 +23,64 @@ public class CruddemoApplication {
 	 * CommandLineRunner bean that executes custom code after the Spring context is loaded.
 	 * This bean is used to run specific methods when the application starts.
 	 *
-	 * @param studentDAO An instance of StudentDAO for database operations.
+	 * @param studentDAO             An instance of StudentDAO for database operations.
+	 * @param normalizeLastNamesOnce Whether to fill the normalized last name of existing students first.
 	 * @return CommandLineRunner instance to run custom code.
 	 */
 	@Bean
-	public CommandLineRunner commandLineRunner(StudentDAO studentDAO) {
+	public CommandLineRunner commandLineRunner(StudentDAO studentDAO,
+			@Value("${app.students.normalize-last-names:false}") boolean normalizeLastNamesOnce) {
 		// Lambda expression to execute specific code
 		return runner -> {
+			// One-off: fill the normalized last name (used by searchByLastNamePrefix) of students saved before it existed
+			if (normalizeLastNamesOnce) {
+				backfillNormalizedLastNames(studentDAO);
+			}
+
 			// Uncomment the desired method to run specific functionality
 			// createStudent(studentDAO);
 			createMultipleStudents(studentDAO);
 			// readStudent(studentDAO);
 			// queryForStudents(studentDAO);
 			// queryForStudentsByLastName(studentDAO);
+			// searchStudentsByLastNamePrefix(studentDAO);
 			// updateStudent(studentDAO);
 			// deleteStudent(studentDAO);
+			// updateStudentEmail(studentDAO);
+			// deleteStudentById(studentDAO);
 
 			// Call the deleteAllStudents method to remove all students from the database
 			// deleteAllStudents(studentDAO);
 		};
 	}
 
+	/**
+	 * Fill the normalized last name of existing students, one transaction per batch.
+	 * Students saved since then get it from LastNameNormalizer, so this is needed once per database.
+	 *
+	 * @param studentDAO The data access object for Student.
+	 */
+	private void backfillNormalizedLastNames(StudentDAO studentDAO) {
+		int updated;
+		while ((updated = studentDAO.normalizeLastNames(1000)) > 0) {
+			System.out.println("Normalized the last name of " + updated + " students");
+		}
+	}
+
+	/**
+	 * Search students by the start of their last name, ignoring case and accents, page by page.
+	 *
+	 * @param studentDAO The data access object for Student.
+	 */
+	private void searchStudentsByLastNamePrefix(StudentDAO studentDAO) {
+		int pageSize = 2;
+		List<Student> page = studentDAO.searchByLastNamePrefix("DO", pageSize);
+		while (!page.isEmpty()) {
+			System.out.println("Page: " + page);
+			page = studentDAO.searchByLastNamePrefix("DO", page.get(page.size() - 1), pageSize);
+		}
+	}
+
 	/**
 	 * Delete all students from the database and display the number of rows deleted.
 	 *
@@ -65,6 +103,30 @@ public class CruddemoApplication {
 		studentDAO.delete(studentId);
 	}
 
+	/**
+	 * Delete a specific student by ID with a single DELETE statement.
+	 *
+	 * @param studentDAO The data access object for Student.
+	 */
+	private void deleteStudentById(StudentDAO studentDAO) {
+		int studentId = 3;
+		System.out.println("Deleting Student Id: " + studentId);
+		int numRowsDeleted = studentDAO.deleteById(studentId);
+		System.out.println("Deleted Row Count: " + numRowsDeleted);
+	}
+
+	/**
+	 * Change the email of an existing student with a single UPDATE statement.
+	 *
+	 * @param studentDAO The data access object for Student.
+	 */
+	private void updateStudentEmail(StudentDAO studentDAO) {
+		int studentId = 1;
+		System.out.println("Updating email of Student Id: " + studentId);
+		int numRowsUpdated = studentDAO.updateEmail(studentId, "scooby@luv2code.com");
+		System.out.println("Updated Row Count: " + numRowsUpdated);
+	}
+
 	/**
 	 * Update the details of an existing student and display the updated information.
 	 *
@@ -0,0 +1,90 @@
+// Define the package for the configuration classes
+package com.luv2Code.cruddemo.config;
+
+// Import necessary classes and annotations
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Read/write splitting between a primary MySQL instance and a read replica.
+ * <p>
+ * Only active when "app.datasource.replica.url" is set; otherwise Spring Boot keeps its
+ * single auto-configured DataSource. The primary pool is configured with the usual
+ * "spring.datasource.*" properties and the replica pool with "app.datasource.replica.*".
+ * Methods annotated with @Transactional(readOnly = true) run on the replica, all other
+ * work stays on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryPool(@Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary-pool");
+        return pool;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaPool(@Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("replica-pool");
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaPool") DataSource replicaPool,
+                                               @Value("${app.datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+                                               @Value("${app.datasource.replica.lag-check-interval-ms:5000}") long checkIntervalMillis,
+                                               @Value("${app.datasource.replica.lag-check-timeout-ms:1000}") long probeTimeoutMillis) {
+        return new ReplicaLagMonitor(replicaPool, maxLagSeconds, checkIntervalMillis, probeTimeoutMillis);
+    }
+
+    /**
+     * The DataSource used by JPA and JDBC.
+     * <p>
+     * The LazyConnectionDataSourceProxy defers fetching the physical connection until the
+     * first statement, by which time the read-only flag of the transaction is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryPool") DataSource primaryPool,
+                                 @Qualifier("replicaPool") DataSource replicaPool,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(replicaLagMonitor);
+        routingDataSource.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.PRIMARY, primaryPool,
+                ReplicaRoutingDataSource.REPLICA, replicaPool));
+        routingDataSource.setDefaultTargetDataSource(primaryPool);
+        routingDataSource.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -4,8 +4,9 @@ package com.luv2Code.cruddemo.dao;
 // Import the Student entity class
 import com.luv2Code.cruddemo.entity.Student;
 
-// Import the List collection framework
+// Import the List and Map collection frameworks
 import java.util.List;
+import java.util.Map;
 
 /**
  * StudentDAO is a Data Access Object (DAO) interface that defines
@@ -49,6 +50,35 @@ public interface StudentDAO {
      */
     List<Student> findByLastName(String theLastName);
 
+    /**
+     * Finds the students whose last name starts with a prefix, ignoring case and accents,
+     * ordered by last name and ID.
+     *
+     * @param prefix The start of the last name, e.g. "mul" finds "Müller" and "MULLIGAN".
+     * @param limit  The maximum number of students to return (the page size).
+     * @return The first page of matching students.
+     */
+    List<Student> searchByLastNamePrefix(String prefix, int limit);
+
+    /**
+     * Returns the next page of searchByLastNamePrefix (keyset paging: the database continues
+     * from the given student in the index instead of skipping an OFFSET of rows).
+     *
+     * @param prefix The start of the last name.
+     * @param after  The last student of the previous page.
+     * @param limit  The maximum number of students to return.
+     * @return The matching students following the given one.
+     */
+    List<Student> searchByLastNamePrefix(String prefix, Student after, int limit);
+
+    /**
+     * Fills the normalized last name of up to batchSize students saved before it existed.
+     *
+     * @param batchSize The maximum number of students to update in this transaction.
+     * @return The number of students updated; call again until it returns 0.
+     */
+    int normalizeLastNames(int batchSize);
+
     /**
      * Updates an existing Student object in the database.
      *
@@ -57,6 +87,26 @@ public interface StudentDAO {
      */
     void update(Student student);
 
+    /**
+     * Changes the email of a Student with a single UPDATE statement, without loading it first.
+     *
+     * @param id    The ID of the student to update.
+     * @param email The new email.
+     * @return The number of rows updated: 1, or 0 if there is no student with this ID.
+     */
+    int updateEmail(Integer id, String email);
+
+    /**
+     * Changes some fields of a Student with a single UPDATE statement, without loading it first.
+     *
+     * @param id     The ID of the student to update.
+     * @param fields The new values by field name, e.g. "firstName" or "email".
+     * @return The number of rows updated: 1, or 0 if there is no student with this ID.
+     * @throws org.springframework.dao.InvalidDataAccessApiUsageException Wrapping an IllegalArgumentException, if a
+     *         field does not exist or cannot be updated (id, version, lastNameNormalized), or a value does not fit its field.
+     */
+    int updateFields(Integer id, Map<String, Object> fields);
+
     /**
      * Deletes a Student from the database by its ID.
      *
@@ -65,6 +115,14 @@ public interface StudentDAO {
      */
     void delete(Integer Id);
 
+    /**
+     * Deletes a Student with a single DELETE statement, without loading it first.
+     *
+     * @param id The ID of the student to be deleted.
+     * @return The number of rows deleted: 1, or 0 if there is no student with this ID.
+     */
+    int deleteById(Integer id);
+
     /**
      * Deletes all Student records from the database.
      *
@@ -2,14 +2,23 @@
 package com.luv2Code.cruddemo.dao;
 
 // Import necessary classes and annotations
+import com.luv2Code.cruddemo.entity.LastNameNormalizer;
 import com.luv2Code.cruddemo.entity.Student;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ClassUtils;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * StudentDAOImpl is the implementation of the StudentDAO interface.
@@ -57,6 +66,7 @@ public class StudentDAOImpl implements StudentDAO {
      * This method retrieves a student record from the database based on the provided ID.
      */
     @Override
+    @Transactional(readOnly = true) // Read-only work may be routed to the replica.
     public Student findById(Integer id) {
         return entityManager.find(Student.class, id); // Returns the student entity if found.
     }
@@ -68,22 +78,10 @@ public class StudentDAOImpl implements StudentDAO {
      * This method fetches all student records and returns them as a list.
      */
     @Override
+    @Transactional(readOnly = true) // Read-only work may be routed to the replica.
     public List<Student> findAll() {
-        /**
-         * Create a query to fetch all Student entities, ordered by last name (optional).
-         * The query uses JPQL to select all records from the Student entity and orders them in descending order based on the last name.
-         *
-         * Here --> Student: Name of the JPA Entity (The Java Class)
-         *          lastName: Name of the Field of the JPA Entity (Within the Java Class)
-         */
-        TypedQuery<Student> theQuerySorted = entityManager.createQuery(
-                "FROM Student " +
-                        "ORDER BY lastName DESC",
-                Student.class
-        );
-
-        // Create a query to fetch all Student entities
-        TypedQuery<Student> theQuery = entityManager.createQuery("FROM Student", Student.class);
+        // Use the precompiled "Student.findAll" query (see Student) to fetch all Student entities
+        TypedQuery<Student> theQuery = entityManager.createNamedQuery(Student.FIND_ALL, Student.class);
 
         // Return the results of the query as a list.
         return theQuery.getResultList();
@@ -97,9 +95,10 @@ public class StudentDAOImpl implements StudentDAO {
      * This method retrieves student records that have the specified last name.
      */
     @Override
+    @Transactional(readOnly = true) // Read-only work may be routed to the replica.
     public List<Student> findByLastName(String theLastName) {
-        // Create a query to find students by last name.
-        TypedQuery<Student> theQuery = entityManager.createQuery("FROM Student WHERE lastName = :theData", Student.class);
+        // Use the precompiled "Student.findByLastName" query to find students by last name.
+        TypedQuery<Student> theQuery = entityManager.createNamedQuery(Student.FIND_BY_LAST_NAME, Student.class);
 
         // Set the query parameter for the last name.
         theQuery.setParameter("theData", theLastName);
@@ -108,6 +107,73 @@ public class StudentDAOImpl implements StudentDAO {
         return theQuery.getResultList();
     }
 
+    /**
+     * Finds the first page of students whose normalized last name starts with the normalized prefix.
+     * <p>
+     * The LIKE 'prefix%' condition is a range scan of idx_student_last_name_normalized, which also
+     * delivers the rows in the ORDER BY order, so the database stops after "limit" rows.
+     *
+     * @param prefix The start of the last name.
+     * @param limit  The page size.
+     * @return The first page of matching students.
+     */
+    @Override
+    @Transactional(readOnly = true) // Read-only work may be routed to the replica.
+    public List<Student> searchByLastNamePrefix(String prefix, int limit) {
+        return entityManager.createNamedQuery(Student.SEARCH_BY_LAST_NAME_PREFIX, Student.class)
+                .setParameter("prefix", likePrefix(prefix))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Finds the page following the given student: the keyset (normalized last name, id) of the
+     * previous page's last row is the start of the index range, so each page costs the same.
+     *
+     * @param prefix The start of the last name.
+     * @param after  The last student of the previous page.
+     * @param limit  The page size.
+     * @return The matching students following the given one.
+     */
+    @Override
+    @Transactional(readOnly = true) // Read-only work may be routed to the replica.
+    public List<Student> searchByLastNamePrefix(String prefix, Student after, int limit) {
+        return entityManager.createNamedQuery(Student.SEARCH_BY_LAST_NAME_PREFIX_AFTER, Student.class)
+                .setParameter("prefix", likePrefix(prefix))
+                .setParameter("afterLastName", after.getLastNameNormalized())
+                .setParameter("afterId", after.getId())
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Turns a search prefix into a LIKE pattern, escaping the LIKE wildcards it may contain
+     * (the named queries declare '!' as the escape character).
+     */
+    private static String likePrefix(String prefix) {
+        String normalized = LastNameNormalizer.normalize(prefix == null ? "" : prefix);
+        return normalized.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+
+    /**
+     * Fills lastNameNormalized for students saved before the column existed; the changed students
+     * are written when the transaction commits.
+     *
+     * @param batchSize The maximum number of students to update.
+     * @return The number of students updated.
+     */
+    @Override
+    @Transactional
+    public int normalizeLastNames(int batchSize) {
+        List<Student> students = entityManager.createQuery(
+                        "FROM Student s WHERE s.lastNameNormalized IS NULL AND s.lastName IS NOT NULL", Student.class)
+                .setMaxResults(batchSize)
+                .getResultList();
+        LastNameNormalizer normalizer = new LastNameNormalizer();
+        students.forEach(normalizer::normalizeLastName);
+        return students.size();
+    }
+
     /**
      * Updates an existing Student object in the database.
      *
@@ -122,6 +188,85 @@ public class StudentDAOImpl implements StudentDAO {
         entityManager.merge(theStudent); // Updates or adds the student entity.
     }
 
+    /**
+     * Changes the email of a Student without loading it first.
+     *
+     * @param id    The ID of the student to update.
+     * @param email The new email.
+     * @return The number of rows updated (0 if the student does not exist).
+     */
+    @Override
+    @Transactional
+    public int updateEmail(Integer id, String email) {
+        // singletonMap, unlike Map.of, accepts a null email
+        return updateFields(id, Collections.singletonMap("email", email));
+    }
+
+    /**
+     * Changes some fields of a Student with one bulk UPDATE instead of merge(), which SELECTs the
+     * row first and then UPDATEs it.
+     * <p>
+     * Like every bulk statement, this does not change Student objects already loaded in the same
+     * transaction, and it bypasses optimistic locking: Student has no @Version field today, and one
+     * added later is rejected as a field to set, but this statement would not increment it.
+     *
+     * @param id     The ID of the student to update.
+     * @param fields The new values by field name.
+     * @return The number of rows updated (0 if the student does not exist).
+     * @throws IllegalArgumentException If a field cannot be updated, or a value does not fit its field.
+     */
+    @Override
+    @Transactional
+    public int updateFields(Integer id, Map<String, Object> fields) {
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update for Student " + id);
+        }
+        EntityType<Student> studentType = entityManager.getMetamodel().entity(Student.class);
+
+        // Sorted, so that the same set of fields always produces the same statement (and cached plan)
+        Map<String, Object> sortedFields = new TreeMap<>(fields);
+        fields.forEach((field, value) -> checkUpdatable(studentType, field, value));
+        // Bulk statements skip LastNameNormalizer, so keep the search column in sync here
+        if (sortedFields.containsKey("lastName")) {
+            sortedFields.put("lastNameNormalized", LastNameNormalizer.normalize((String) sortedFields.get("lastName")));
+        }
+        StringBuilder jpql = new StringBuilder("UPDATE Student s SET ");
+        String separator = "";
+        for (String field : sortedFields.keySet()) {
+            // Field names are checked against the metamodel above, so they are safe to concatenate
+            jpql.append(separator).append("s.").append(field).append(" = :").append(field);
+            separator = ", ";
+        }
+        jpql.append(" WHERE s.id = :id");
+
+        Query theQuery = entityManager.createQuery(jpql.toString());
+        sortedFields.forEach(theQuery::setParameter);
+        theQuery.setParameter("id", id);
+        return theQuery.executeUpdate();
+    }
+
+    /**
+     * Only plain columns can be bulk updated; the ID and the version are managed by JPA, and the
+     * normalized last name follows the last name. The value must fit the field, so that a wrong type
+     * is reported here instead of failing inside Hibernate.
+     */
+    private static void checkUpdatable(EntityType<Student> studentType, String field, Object value) {
+        Attribute<? super Student, ?> attribute = studentType.getAttributes().stream()
+                .filter(candidate -> candidate.getName().equals(field))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Student has no field '" + field + "'"));
+        if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC
+                || (attribute instanceof SingularAttribute<?, ?> singular && (singular.isId() || singular.isVersion()))
+                || field.equals("lastNameNormalized")) {
+            throw new IllegalArgumentException("Student field '" + field + "' cannot be updated");
+        }
+        Class<?> type = attribute.getJavaType();
+        if (value == null ? type.isPrimitive() : !ClassUtils.resolvePrimitiveIfNecessary(type).isInstance(value)) {
+            throw new IllegalArgumentException("Student field '" + field + "' needs a " + type.getSimpleName()
+                    + ", not " + (value == null ? "null" : value.getClass().getSimpleName()));
+        }
+    }
+
     /**
      * Deletes a Student from the database by its ID.
      *
@@ -147,7 +292,24 @@ public class StudentDAOImpl implements StudentDAO {
     @Override
     @Transactional
     public int deleteAll() {
-        // Execute delete query.
-        return entityManager.createQuery("DELETE FROM Student").executeUpdate(); // Return the number of deleted rows.
+        // Execute the precompiled "Student.deleteAll" query.
+        return entityManager.createNamedQuery(Student.DELETE_ALL).executeUpdate(); // Return the number of deleted rows.
+    }
+
+    /**
+     * Deletes a Student with one DELETE statement, instead of find() followed by remove().
+     * <p>
+     * There is nothing to compare a version with here: like find() + remove(), which deletes the
+     * version it just read, this deletes whatever version is current.
+     *
+     * @param id The ID of the student to be deleted.
+     * @return The number of rows deleted (0 if the student does not exist).
+     */
+    @Override
+    @Transactional
+    public int deleteById(Integer id) {
+        return entityManager.createNamedQuery(Student.DELETE_BY_ID)
+                .setParameter("id", id)
+                .executeUpdate();
     }
 }
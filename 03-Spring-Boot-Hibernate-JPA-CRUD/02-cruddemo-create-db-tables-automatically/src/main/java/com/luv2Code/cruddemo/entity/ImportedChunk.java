@@ -0,0 +1,102 @@
+// Define the package for this class
+package com.luv2Code.cruddemo.entity;
+
+// Import necessary JPA annotations for mapping
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * The ImportedChunk class is a JPA entity that maps to the "student_import_chunk" table.
+ * It records one chunk of a CSV import that has been committed, so that an interrupted
+ * import can be resumed (see StudentCsvImporter).
+ * <p>
+ * A row is inserted in the same transaction as the students of its chunk: either both are
+ * committed or neither is, so a resumed import never inserts a chunk twice.
+ */
+@Entity // Marks this class as a JPA entity to be managed by the JPA provider
+@Table(name = "student_import_chunk") // Specifies the table name in the database
+public class ImportedChunk {
+
+    // Define fields
+
+    @Id // Marks this field as the primary key: "<import id>#<chunk index>"
+    @Column(name = "id")
+    private String id;
+
+    @Column(name = "import_id") // The import this chunk belongs to, by default the SHA-256 hash of the file
+    private String importId;
+
+    @Column(name = "chunk_index") // The position of the chunk in the file, starting at 0
+    private int chunkIndex;
+
+    @Column(name = "chunk_size") // The chunk size of the import; resuming requires the same size
+    private int chunkSize;
+
+    @Column(name = "row_count") // The number of students inserted by this chunk
+    private int rowCount;
+
+    @Column(name = "checksum") // SHA-256 of the chunk's lines; a resumed import must have the same lines
+    private String checksum;
+
+    @Column(name = "committed_at") // When the chunk was committed
+    private Instant committedAt;
+
+    // Define constructors
+
+    /**
+     * Default constructor for JPA.
+     */
+    public ImportedChunk() {
+        // No-arg constructor
+    }
+
+    /**
+     * Creates the record of a committed chunk.
+     *
+     * @param importId   The import this chunk belongs to.
+     * @param chunkIndex The position of the chunk in the file.
+     * @param chunkSize  The chunk size of the import.
+     * @param rowCount   The number of students inserted by this chunk.
+     * @param checksum   The SHA-256 checksum of the chunk's lines.
+     */
+    public ImportedChunk(String importId, int chunkIndex, int chunkSize, int rowCount, String checksum) {
+        this.id = importId + "#" + chunkIndex;
+        this.importId = importId;
+        this.chunkIndex = chunkIndex;
+        this.chunkSize = chunkSize;
+        this.rowCount = rowCount;
+        this.checksum = checksum;
+        this.committedAt = Instant.now();
+    }
+
+    // Define getters
+
+    public String getId() {
+        return id;
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public Instant getCommittedAt() {
+        return committedAt;
+    }
+}
@@ -0,0 +1,49 @@
+// Define the package for this class
+package com.luv2Code.cruddemo.entity;
+
+// Import necessary JPA annotations for entity callbacks
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Entity listener keeping Student.lastNameNormalized in sync with Student.lastName.
+ * <p>
+ * The normalized form is lowercased and accent-folded ("Müller", "MULLER" and "muller" all become
+ * "muller"), so that a prefix search is a plain range scan of the index on last_name_normalized.
+ * Statements that bypass the entity lifecycle (bulk JPQL, plain JDBC) must call normalize()
+ * themselves, as StudentDAOImpl.updateFields and StudentCsvImporter do.
+ */
+public class LastNameNormalizer {
+
+    // Combining marks left behind by the NFD decomposition, e.g. the diaeresis of "ü"
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Normalizes a last name, or a search prefix.
+     *
+     * @param lastName The text to normalize, may be null.
+     * @return The lowercased text without accents, or null.
+     */
+    public static String normalize(String lastName) {
+        if (lastName == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(lastName.strip(), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Sets the normalized last name of a student; called by JPA before every INSERT and UPDATE.
+     *
+     * @param student The student to update.
+     */
+    @PrePersist
+    @PreUpdate
+    public void normalizeLastName(Student student) {
+        student.setLastNameNormalized(normalize(student.getLastName()));
+    }
+}
@@ -9,9 +9,39 @@ import jakarta.persistence.*;
  * It represents a student record with fields such as ID, first name, last name, and email.
  */
 @Entity // Marks this class as a JPA entity to be managed by the JPA provider
-@Table(name = "student") // Specifies the table name in the database
+// Specifies the table name in the database, and the index serving searchByLastNamePrefix: the prefix
+// selects a range of last_name_normalized, and the id makes the keyset (last_name_normalized, id) unique
+@Table(name = "student", indexes = @Index(name = "idx_student_last_name_normalized", columnList = "last_name_normalized, id"))
+@EntityListeners(LastNameNormalizer.class) // Maintains lastNameNormalized
+// Queries used by StudentDAOImpl; Hibernate compiles and validates them once at startup
+// (a typo fails the boot instead of the first call) and reuses the result on every call
+@NamedQuery(name = Student.FIND_ALL, query = "SELECT s FROM Student s")
+@NamedQuery(name = Student.FIND_BY_LAST_NAME, query = "SELECT s FROM Student s WHERE s.lastName = :theData")
+@NamedQuery(name = Student.DELETE_ALL, query = "DELETE FROM Student")
+@NamedQuery(name = Student.DELETE_BY_ID, query = "DELETE FROM Student s WHERE s.id = :id")
+@NamedQuery(name = Student.SEARCH_BY_LAST_NAME_PREFIX, query = "SELECT s FROM Student s"
+        + " WHERE s.lastNameNormalized LIKE :prefix ESCAPE '!'"
+        + " ORDER BY s.lastNameNormalized, s.id")
+@NamedQuery(name = Student.SEARCH_BY_LAST_NAME_PREFIX_AFTER, query = "SELECT s FROM Student s"
+        + " WHERE s.lastNameNormalized LIKE :prefix ESCAPE '!'"
+        + " AND (s.lastNameNormalized > :afterLastName OR (s.lastNameNormalized = :afterLastName AND s.id > :afterId))"
+        + " ORDER BY s.lastNameNormalized, s.id")
 public class Student {
 
+    // Names of the named queries above
+
+    public static final String FIND_ALL = "Student.findAll";
+
+    public static final String FIND_BY_LAST_NAME = "Student.findByLastName";
+
+    public static final String DELETE_ALL = "Student.deleteAll";
+
+    public static final String DELETE_BY_ID = "Student.deleteById";
+
+    public static final String SEARCH_BY_LAST_NAME_PREFIX = "Student.searchByLastNamePrefix";
+
+    public static final String SEARCH_BY_LAST_NAME_PREFIX_AFTER = "Student.searchByLastNamePrefixAfter";
+
     // Define fields
 
     @Id // Marks this field as the primary key
@@ -26,6 +56,10 @@ public class Student {
     @Column(name = "last_name") // Maps this field to the "last_name" column in the database
     private String lastName;
 
+    // Lowercased, accent-folded copy of lastName, set by LastNameNormalizer; only used for searching
+    @Column(name = "last_name_normalized")
+    private String lastNameNormalized;
+
     @Column(name = "email") // Maps this field to the "email" column in the database
     private String email;
 
@@ -70,6 +104,15 @@ public class Student {
         this.lastName = lastName;
     }
 
+    public String getLastNameNormalized() {
+        return lastNameNormalized;
+    }
+
+    // Only LastNameNormalizer sets the normalized last name
+    void setLastNameNormalized(String lastNameNormalized) {
+        this.lastNameNormalized = lastNameNormalized;
+    }
+
     public String getEmail() {
         return email;
     }
@@ -0,0 +1,42 @@
+// Define the package for the CSV import classes
+package com.luv2Code.cruddemo.importer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The outcome of one StudentCsvImporter run.
+ *
+ * @param importId      The import, by default the SHA-256 hash of the CSV file; pass it to resume.
+ * @param rowsImported  The students inserted by this run.
+ * @param rowsSkipped   The students of chunks already committed by an earlier run.
+ * @param chunksFailed  The chunks rolled back by this run; running the import again retries them.
+ * @param elapsed       The duration of the run.
+ */
+public record ImportReport(String importId, long rowsImported, long rowsSkipped,
+                           List<ChunkFailure> chunksFailed, Duration elapsed) {
+
+    /**
+     * A chunk that could not be imported.
+     *
+     * @param chunkIndex The position of the chunk in the file, starting at 0.
+     * @param firstLine  The line number of its first row in the file.
+     * @param error      Why the chunk was rolled back.
+     */
+    public record ChunkFailure(int chunkIndex, long firstLine, String error) {
+    }
+
+    /**
+     * @return The students inserted per second by this run.
+     */
+    public double rowsPerSecond() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return (seconds > 0) ? rowsImported / seconds : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Import '%s': %d students imported in %.1f s (%.0f rows/s), %d skipped (already imported), %d chunks failed",
+                importId, rowsImported, elapsed.toNanos() / 1e9, rowsPerSecond(), rowsSkipped, chunksFailed.size());
+    }
+}
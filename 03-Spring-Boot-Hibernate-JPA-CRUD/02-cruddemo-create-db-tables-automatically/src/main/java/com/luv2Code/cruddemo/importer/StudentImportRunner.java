@@ -0,0 +1,57 @@
+// Define the package for the CSV import classes
+package com.luv2Code.cruddemo.importer;
+
+// Import necessary classes and annotations
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Runs a StudentCsvImporter on the file given by app.import.file when the application starts,
+ * e.g. with --app.import.file=/data/students.csv. Run it again with the same file to resume; after
+ * fixing failed lines, also pass the import id printed by the first run, --app.import.id=....
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.import", name = "file")
+public class StudentImportRunner implements CommandLineRunner {
+
+    private final StudentCsvImporter importer;
+
+    private final Path file;
+
+    private final String importId;
+
+    /**
+     * Constructor for injecting the importer and the file to import.
+     *
+     * @param importer The importer.
+     * @param file     The CSV file to import.
+     * @param importId The import to resume, or null for the one identified by the file content.
+     */
+    @Autowired
+    public StudentImportRunner(StudentCsvImporter importer, @Value("${app.import.file}") Path file,
+                               @Value("${app.import.id:#{null}}") String importId) {
+        this.importer = importer;
+        this.file = file;
+        this.importId = importId;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        System.out.println("Importing students from " + file);
+        ImportReport report = importer.importFile(file, importId);
+        System.out.println(report);
+        for (ImportReport.ChunkFailure failure : report.chunksFailed()) {
+            System.out.println("  Chunk " + failure.chunkIndex() + " (from line " + failure.firstLine()
+                    + ") rolled back: " + failure.error());
+        }
+        if (!report.chunksFailed().isEmpty()) {
+            System.out.println("Fix the lines above and run the import again with --app.import.id=" + report.importId()
+                    + " to retry the failed chunks");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.luv2Code.cruddemo.dao;
+
+import com.luv2Code.cruddemo.entity.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the single-statement updates of StudentDAOImpl against an in-memory H2 database.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:students;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class StudentDAOImplTests {
+
+	@Autowired
+	private StudentDAO studentDAO;
+
+	@Test
+	void updatesFieldsAndTheNormalizedLastName() {
+		Student student = new Student("Mary", "David", "mary@luv2code.com");
+		studentDAO.save(student);
+
+		int updated = studentDAO.updateFields(student.getId(), Map.of("lastName", "Dóe", "email", "mary.doe@luv2code.com"));
+
+		assertThat(updated).isEqualTo(1);
+		Student reloaded = studentDAO.findById(student.getId());
+		assertThat(reloaded.getLastName()).isEqualTo("Dóe");
+		assertThat(reloaded.getEmail()).isEqualTo("mary.doe@luv2code.com");
+		assertThat(reloaded.getLastNameNormalized()).isEqualTo("doe");
+		assertThat(studentDAO.updateFields(-1, Map.of("firstName", "Nobody"))).isZero();
+	}
+
+	@Test
+	void rejectsFieldsManagedByJpa() {
+		assertRejected(Map.of("id", 2), "'id' cannot be updated");
+		assertRejected(Map.of("lastNameNormalized", "x"), "'lastNameNormalized' cannot be updated");
+		assertRejected(Map.of("nickname", "x"), "no field 'nickname'");
+		assertRejected(Map.of(), "No fields");
+	}
+
+	@Test
+	void rejectsValuesOfTheWrongType() {
+		assertRejected(Map.of("lastName", 42), "'lastName' needs a String");
+		assertRejected(Map.of("email", true), "'email' needs a String");
+	}
+
+	// The IllegalArgumentException reaches callers translated by the @Repository proxy
+	private void assertRejected(Map<String, Object> fields, String message) {
+		assertThatThrownBy(() -> studentDAO.updateFields(1, fields))
+				.isInstanceOf(InvalidDataAccessApiUsageException.class)
+				.hasRootCauseInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining(message);
+	}
+}
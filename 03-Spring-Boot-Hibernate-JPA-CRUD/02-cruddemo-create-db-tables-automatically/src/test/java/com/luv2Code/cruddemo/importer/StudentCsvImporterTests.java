@@ -0,0 +1,135 @@
+package com.luv2Code.cruddemo.importer;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Imports CSV files into an in-memory H2 database with parallel chunks.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:importer;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"app.import.chunk-size=100",
+		"app.import.parallelism=4",
+		"app.import.batch-size=30"
+})
+class StudentCsvImporterTests {
+
+	private static final int ROWS = 2_000;
+
+	@Autowired
+	private StudentCsvImporter importer;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@TempDir
+	private Path directory;
+
+	@BeforeEach
+	void deleteImportedStudents() {
+		transactionTemplate.executeWithoutResult(status -> {
+			entityManager.createQuery("DELETE FROM Student WHERE email LIKE 'import-%'").executeUpdate();
+			entityManager.createQuery("DELETE FROM ImportedChunk").executeUpdate();
+		});
+	}
+
+	@Test
+	void importsEveryRowExactlyOnce() throws Exception {
+		Path csvFile = writeCsv("students.csv", lines(ROWS, -1));
+
+		ImportReport report = importer.importFile(csvFile);
+
+		assertThat(report.chunksFailed()).isEmpty();
+		assertThat(report.rowsImported()).isEqualTo(ROWS);
+		assertImportedOnce(ROWS);
+	}
+
+	@Test
+	void skipsCommittedChunksWhenRunAgain() throws Exception {
+		Path csvFile = writeCsv("students.csv", lines(ROWS, -1));
+		importer.importFile(csvFile);
+
+		// The same content under another name is the same import
+		Path copy = Files.copy(csvFile, directory.resolve("copy.csv"));
+		ImportReport report = importer.importFile(copy);
+
+		assertThat(report.rowsImported()).isZero();
+		assertThat(report.rowsSkipped()).isEqualTo(ROWS);
+		assertImportedOnce(ROWS);
+	}
+
+	@Test
+	void resumesAfterFixingAFailedChunk() throws Exception {
+		// Row 1234 has an unterminated quote, so its chunk is rolled back
+		Path csvFile = writeCsv("students.csv", lines(ROWS, 1234));
+		ImportReport failed = importer.importFile(csvFile);
+
+		assertThat(failed.chunksFailed()).hasSize(1);
+		assertThat(failed.rowsImported()).isEqualTo(ROWS - 100);
+
+		// The fixed file has a different content hash: resume it under the first import's id
+		writeCsv("students.csv", lines(ROWS, -1));
+		ImportReport resumed = importer.importFile(csvFile, failed.importId());
+
+		assertThat(resumed.chunksFailed()).isEmpty();
+		assertThat(resumed.rowsImported()).isEqualTo(100);
+		assertThat(resumed.rowsSkipped()).isEqualTo(ROWS - 100);
+		assertImportedOnce(ROWS);
+	}
+
+	@Test
+	void refusesToResumeAChangedCommittedChunk() throws Exception {
+		Path csvFile = writeCsv("students.csv", lines(ROWS, -1));
+		ImportReport report = importer.importFile(csvFile);
+
+		List<String> changed = lines(ROWS, -1);
+		changed.set(5, "Changed,Student,import-5@luv2code.com");
+		writeCsv("students.csv", changed);
+
+		assertThatIllegalStateException().isThrownBy(() -> importer.importFile(csvFile, report.importId()));
+		assertImportedOnce(ROWS);
+	}
+
+	private void assertImportedOnce(int rows) {
+		Object[] counts = (Object[]) entityManager.createQuery(
+						"SELECT COUNT(s), COUNT(DISTINCT s.email) FROM Student s WHERE s.email LIKE 'import-%'")
+				.getSingleResult();
+		assertThat(counts).containsExactly((long) rows, (long) rows);
+	}
+
+	/**
+	 * @param brokenRow The row written with an unterminated quote, or -1.
+	 */
+	private static List<String> lines(int rows, int brokenRow) {
+		List<String> lines = new ArrayList<>(rows + 1);
+		lines.add("first_name,last_name,email");
+		for (int row = 1; row <= rows; row++) {
+			String firstName = (row == brokenRow) ? "\"Broken" : "First" + row;
+			lines.add(firstName + ",Last" + row + ",import-" + row + "@luv2code.com");
+		}
+		return lines;
+	}
+
+	private Path writeCsv(String name, List<String> lines) throws IOException {
+		return Files.write(directory.resolve(name), lines, StandardCharsets.UTF_8);
+	}
+}
@@ -2,12 +2,22 @@ package com.luv2Code.springboot.cruddemo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class CruddemoApplication {
 
+	// Number of startup steps kept for the /actuator/startup endpoint
+	private static final int STARTUP_STEP_CAPACITY = 4096;
+
 	public static void main(String[] args) {
-		SpringApplication.run(CruddemoApplication.class, args);
+		SpringApplication application = new SpringApplication(CruddemoApplication.class);
+
+		// Record the duration of every startup step (bean creation, context refresh, ...)
+		// so the slow ones can be found through GET /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+
+		application.run(args);
 	}
 
 }
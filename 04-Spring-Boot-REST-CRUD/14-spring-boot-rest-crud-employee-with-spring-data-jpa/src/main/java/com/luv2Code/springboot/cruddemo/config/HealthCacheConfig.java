@@ -0,0 +1,28 @@
+// Define the package for the configuration classes
+package com.luv2Code.springboot.cruddemo.config;
+
+// Import necessary classes and annotations
+import com.luv2Code.springboot.cruddemo.health.CachingHealthContributorPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Serves /actuator/health from background-refreshed snapshots (see CachingHealthContributorPostProcessor).
+ * <p>
+ * Enabled by default; set app.health.cache.enabled=false to run every check on every request again.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.health.cache.enabled", matchIfMissing = true)
+public class HealthCacheConfig {
+
+    /**
+     * Declared static so that the post processor is created before, and independently of, this class.
+     *
+     * @return The post processor wrapping the health indicator beans.
+     */
+    @Bean
+    public static CachingHealthContributorPostProcessor cachingHealthContributorPostProcessor() {
+        return new CachingHealthContributorPostProcessor();
+    }
+}
@@ -0,0 +1,71 @@
+// Define the package for the configuration classes
+package com.luv2Code.springboot.cruddemo.config;
+
+// Import necessary classes and annotations
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Jackson configuration for the Employee REST API.
+ * <p>
+ * Registers the Blackbird module to speed up (de)serialisation and adds Smile and CBOR
+ * message converters so clients can ask for a compact binary payload through the
+ * Accept header ("application/x-jackson-smile" or "application/cbor"). JSON stays the default.
+ * <p>
+ * scripts/EmployeeSerializationBenchmark.java compares the variants in memory. Once the response is
+ * gzip-compressed, the binary formats are hardly smaller than JSON; Smile is still somewhat faster
+ * to write and read, CBOR is not.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Blackbird replaces reflective getter/setter calls with generated lambdas.
+     * <p>
+     * Spring Boot registers every Module bean with its auto-configured ObjectMapper builder,
+     * so the JSON, Smile and CBOR mappers below all pick it up.
+     * <p>
+     * A native image cannot define classes at runtime, which is what Blackbird does, and its
+     * ahead-of-time compiled reflection is already fast; there an empty module is registered instead.
+     *
+     * @return The Blackbird Jackson module, or an empty module in a native image.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        if (NativeDetector.inNativeImage()) {
+            return new SimpleModule("blackbird-disabled-in-native-image");
+        }
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Message converter for the Smile binary JSON format.
+     *
+     * @param builder The Spring Boot configured ObjectMapper builder (a fresh copy per injection point).
+     * @return A converter producing "application/x-jackson-smile".
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Message converter for the CBOR binary format (RFC 8949).
+     *
+     * @param builder The Spring Boot configured ObjectMapper builder (a fresh copy per injection point).
+     * @return A converter producing "application/cbor".
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
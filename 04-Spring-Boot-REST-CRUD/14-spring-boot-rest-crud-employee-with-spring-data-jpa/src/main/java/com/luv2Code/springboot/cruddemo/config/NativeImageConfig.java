@@ -0,0 +1,45 @@
+// Define the package for the configuration classes
+package com.luv2Code.springboot.cruddemo.config;
+
+// Import necessary classes and annotations
+import com.luv2Code.springboot.cruddemo.entity.Employee;
+import com.luv2Code.springboot.cruddemo.rest.EmployeeErrorResponse;
+import com.luv2Code.springboot.cruddemo.rest.EmployeePatchRequest;
+import com.luv2Code.springboot.cruddemo.rest.EmployeeSearchPage;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reachability metadata for the GraalVM native image ("./mvnw -Pnative native:compile").
+ * <p>
+ * Spring AOT already covers the beans, the JPA entities and the request/response types it can see
+ * in controller signatures. This class adds what it cannot infer: the types Jackson binds only
+ * indirectly (the error response built in the exception handler, the Employee snapshots written to
+ * the outbox with the ObjectMapper) and the SQL seed script of the "smoke" profile.
+ * Everything here is a no-op on the JVM.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.ResourceHints.class)
+@RegisterReflectionForBinding({
+        Employee.class,
+        EmployeeErrorResponse.class,
+        EmployeePatchRequest.class,
+        EmployeeSearchPage.class
+})
+public class NativeImageConfig {
+
+    /**
+     * Resources loaded at runtime that must be embedded in the native image.
+     */
+    static class ResourceHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Seed data of the "smoke" profile (spring.sql.init.data-locations)
+            hints.resources().registerPattern("smoke-data.sql");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+// Define the package for the configuration classes
+package com.luv2Code.springboot.cruddemo.config;
+
+// Import necessary classes and annotations
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luv2Code.springboot.cruddemo.outbox.FileOutboxSink;
+import com.luv2Code.springboot.cruddemo.outbox.OutboxSink;
+import com.luv2Code.springboot.cruddemo.outbox.QueueOutboxSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration of the employee event outbox.
+ * <p>
+ * Enables the scheduled EmployeeOutboxRelay and selects the OutboxSink with the
+ * "outbox.sink" property: "queue" (default, in-process queue) or "file" (JSON lines).
+ * Another sink, e.g. a broker client, can be plugged in by declaring an OutboxSink bean
+ * and setting "outbox.sink" to any other value.
+ */
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "outbox.sink", havingValue = "queue", matchIfMissing = true)
+    public OutboxSink queueOutboxSink(@Value("${outbox.queue.capacity:10000}") int capacity,
+                                      @Value("${outbox.queue.offer-timeout-ms:100}") long offerTimeoutMillis) {
+        return new QueueOutboxSink(capacity, offerTimeoutMillis);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "outbox.sink", havingValue = "file")
+    public OutboxSink fileOutboxSink(@Value("${outbox.file.path:employee-outbox.jsonl}") String path,
+                                     ObjectMapper objectMapper) {
+        return new FileOutboxSink(Path.of(path), objectMapper);
+    }
+}
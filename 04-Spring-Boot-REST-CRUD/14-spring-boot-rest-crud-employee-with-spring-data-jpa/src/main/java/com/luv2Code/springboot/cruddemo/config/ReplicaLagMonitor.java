@@ -0,0 +1,140 @@
+// Define the package for the configuration classes
+package com.luv2Code.springboot.cruddemo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tracks how far the replica is behind the primary.
+ * <p>
+ * Runs "SHOW REPLICA STATUS" (MySQL 8.0.22+) on the replica pool once per check interval.
+ * The replica is considered unusable when it cannot be reached, when replication is stopped
+ * (Seconds_Behind_Source is NULL) or when it lags more than the configured maximum. A server that
+ * is not configured as a replica at all (empty status, e.g. a second standalone instance in
+ * development) is treated as up to date.
+ * <p>
+ * The checks run on a background thread, so routing a request only reads the last result and
+ * never waits for the replica. A probe that takes longer than the probe timeout (e.g. while the
+ * replica pool waits for a connection) marks the replica unusable at once; no new probe is
+ * started until it has returned. Until the first probe succeeds, reads go to the primary.
+ */
+public class ReplicaLagMonitor implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replicaJdbcTemplate;
+
+    private final long maxLagSeconds;
+
+    private final long checkIntervalMillis;
+
+    private final long probeTimeoutMillis;
+
+    // Triggers the checks
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(daemon("replica-lag-check"));
+
+    // Runs the probe queries, so a check can give up on a probe that hangs
+    private final ExecutorService prober = Executors.newSingleThreadExecutor(daemon("replica-lag-probe"));
+
+    // Only touched by the scheduler thread
+    private Future<Boolean> probe;
+
+    // Written by the scheduler thread, read by every request thread
+    private volatile boolean replicaUsable = false;
+
+    /**
+     * @param replicaDataSource   The replica pool (not the routing DataSource).
+     * @param maxLagSeconds       The largest acceptable replication delay.
+     * @param checkIntervalMillis The time between two checks.
+     * @param probeTimeoutMillis  How long a check waits for the replica before marking it unusable.
+     */
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagSeconds, long checkIntervalMillis,
+                             long probeTimeoutMillis) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLagSeconds = maxLagSeconds;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.probeTimeoutMillis = probeTimeoutMillis;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler.scheduleWithFixedDelay(this::checkLag, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        prober.shutdownNow();
+    }
+
+    /**
+     * @return Whether read-only transactions may currently be routed to the replica.
+     */
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /**
+     * Reads the replication delay of the replica.
+     *
+     * @param replica Runs statements on the replica pool.
+     * @return The delay in seconds, 0 for a server that is not a replica, or null if replication is stopped.
+     */
+    protected Long readLagSeconds(JdbcTemplate replica) {
+        List<Map<String, Object>> status = replica.queryForList("SHOW REPLICA STATUS");
+        if (status.isEmpty()) {
+            return 0L;
+        }
+        Object lag = status.get(0).get("Seconds_Behind_Source");
+        return (lag == null) ? null : ((Number) lag).longValue();
+    }
+
+    private void checkLag() {
+        // Keep waiting for a probe that timed out earlier instead of piling up new ones
+        if (probe == null || probe.isDone()) {
+            probe = prober.submit(() -> {
+                Long lag = readLagSeconds(replicaJdbcTemplate);
+                return lag != null && lag <= maxLagSeconds;
+            });
+        }
+
+        boolean usable;
+        try {
+            usable = probe.get(probeTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            usable = false;
+        } catch (InterruptedException e) {
+            // Shutting down
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (usable != replicaUsable) {
+            logger.warn("Replica is now {}", usable ? "used for read-only transactions" : "bypassed, reads go to the primary");
+        }
+        replicaUsable = usable;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,62 @@
+// Define the package for the Data Access Object (DAO) interface
+package com.luv2Code.springboot.cruddemo.dao;
+
+// Import necessary classes
+import com.luv2Code.springboot.cruddemo.entity.EmployeeOutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for the employee outbox table.
+ */
+public interface EmployeeOutboxRepository extends JpaRepository<EmployeeOutboxEvent, Long> {
+
+    /**
+     * Loads the next batch of unpublished events in id order.
+     *
+     * @param limit The maximum batch size.
+     * @return The oldest pending events, ordered by id.
+     */
+    List<EmployeeOutboxEvent> findByPublishedAtIsNullOrderByIdAsc(Limit limit);
+
+    /**
+     * Returns the oldest unpublished event, used to compute the relay lag.
+     *
+     * @return The oldest pending event, if any.
+     */
+    Optional<EmployeeOutboxEvent> findFirstByPublishedAtIsNullOrderByIdAsc();
+
+    /**
+     * Counts the events still waiting to be published.
+     *
+     * @return The number of pending events.
+     */
+    long countByPublishedAtIsNull();
+
+    /**
+     * Returns the highest id published so far, where the relay resumes after a restart.
+     *
+     * @return The highest published id, or null if nothing was published yet.
+     */
+    @Query("SELECT MAX(e.id) FROM EmployeeOutboxEvent e WHERE e.publishedAt IS NOT NULL")
+    Long findMaxPublishedId();
+
+    /**
+     * Marks a batch of events as published with one UPDATE statement.
+     *
+     * @param ids         The ids of the published events.
+     * @param publishedAt The publication time.
+     * @return The number of rows updated.
+     */
+    @Modifying
+    @Query("UPDATE EmployeeOutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+}
@@ -4,6 +4,13 @@ package com.luv2Code.springboot.cruddemo.dao;
 // Import necessary classes
 import com.luv2Code.springboot.cruddemo.entity.Employee;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Repository interface for Employee entity.
@@ -11,12 +18,47 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * This interface extends JpaRepository, which provides built-in CRUD operations
  * for the Employee entity without requiring explicit method implementation.
  * JpaRepository comes with default implementations for common database operations.
+ * <p>
+ * It also extends JpaSpecificationExecutor for dynamic search queries and
+ * EmployeeRepositoryCustom for set-based bulk updates and outbox rows.
  */
-public interface EmployeeRepository extends JpaRepository<Employee, Integer> {
+public interface EmployeeRepository extends JpaRepository<Employee, Integer>,
+        JpaSpecificationExecutor<Employee>, EmployeeRepositoryCustom {
     // No need to write any code here or even an implementation class
     // JpaRepository provides methods like:
     // - findAll()
     // - findById(ID id)
     // - save(S entity)
     // - deleteById(ID id)
+
+    /**
+     * Deletes all employees whose ID is in the given collection with a single DELETE statement.
+     * <p>
+     * Unlike deleteById, no entity is loaded first; the existence check is folded into
+     * the statement and reported through the affected row count.
+     *
+     * @param ids The IDs of the employees to delete.
+     * @return The number of deleted rows.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Employee e WHERE e.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Free-text search over first name, last name and email ordered by relevance.
+     * <p>
+     * Backed by the MySQL FULLTEXT index "ft_employee_name_email"
+     * (see spring-boot-employee-sql-script/employee-search-indexes.sql). The query uses
+     * boolean mode, so clients may use operators such as "+", "-" and a trailing "*".
+     *
+     * @param text  The search expression.
+     * @param limit The maximum number of rows to return.
+     * @return The matching employees, most relevant first.
+     */
+    @Query(value = "SELECT * FROM employee " +
+            "WHERE MATCH(first_name, last_name, email) AGAINST (:text IN BOOLEAN MODE) " +
+            "ORDER BY MATCH(first_name, last_name, email) AGAINST (:text IN BOOLEAN MODE) DESC " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<Employee> fullTextSearch(@Param("text") String text, @Param("limit") int limit);
 }
@@ -0,0 +1,36 @@
+// Define the package for the Data Access Object (DAO) interface
+package com.luv2Code.springboot.cruddemo.dao;
+
+import java.util.Map;
+
+/**
+ * Custom repository fragment for set-based Employee changes.
+ * <p>
+ * Spring Data merges this interface into EmployeeRepository and delegates its methods
+ * to EmployeeRepositoryCustomImpl.
+ */
+public interface EmployeeRepositoryCustom {
+
+    /**
+     * Updates every employee matching the filter with one UPDATE statement.
+     *
+     * @param filter      Field name to expected value; a collection value is matched with IN.
+     * @param assignments Field name to new value.
+     * @return The number of updated employees.
+     */
+    int updateMatching(Map<String, Object> filter, Map<String, Object> assignments);
+
+    /**
+     * Writes one employee_outbox row per employee matching the filter with one INSERT ... SELECT
+     * statement, so that neither the employees nor their ids are loaded.
+     * <p>
+     * The payload of each row is {"id":&lt;employee id&gt; followed by the given suffix, which
+     * must close the JSON object.
+     *
+     * @param filter        Field name to expected value; a collection value is matched with IN.
+     * @param eventType     One of the EmployeeOutboxEvent.EMPLOYEE_* constants.
+     * @param payloadSuffix The rest of the JSON payload, e.g. "}".
+     * @return The number of rows written, one per matching employee.
+     */
+    int insertOutboxEvents(Map<String, Object> filter, String eventType, String payloadSuffix);
+}
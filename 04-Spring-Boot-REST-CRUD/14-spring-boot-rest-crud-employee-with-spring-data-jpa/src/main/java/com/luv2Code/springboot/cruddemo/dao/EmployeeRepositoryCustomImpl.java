@@ -0,0 +1,147 @@
+// Define the package for the Data Access Object (DAO) implementation
+package com.luv2Code.springboot.cruddemo.dao;
+
+// Import necessary classes
+import com.luv2Code.springboot.cruddemo.entity.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.util.ClassUtils;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of the EmployeeRepositoryCustom fragment.
+ * <p>
+ * Builds JPQL bulk statements so the filter and the assignments are applied by the
+ * database in one statement each, without loading any Employee entity. Field names are
+ * checked against fixed sets before they are put into a statement; values are always bound,
+ * after a check against the type of their attribute in the JPA metamodel, so that a client
+ * sending e.g. a number for "email" gets an IllegalArgumentException (400) instead of a failure
+ * inside Hibernate.
+ */
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+    // Fields that may be used in the WHERE clause
+    private static final Set<String> FILTER_FIELDS = Set.of("id", "firstName", "lastName", "email");
+
+    // Fields that may be assigned; the primary key is never updatable
+    private static final Set<String> UPDATABLE_FIELDS = Set.of("firstName", "lastName", "email");
+
+    // Define a field for the EntityManager
+    private final EntityManager entityManager;
+
+    /**
+     * Constructor for injecting the EntityManager dependency.
+     *
+     * @param entityManager The EntityManager instance to be injected.
+     */
+    public EmployeeRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int updateMatching(Map<String, Object> filter, Map<String, Object> assignments) {
+        if (assignments == null || assignments.isEmpty()) {
+            throw new IllegalArgumentException("Bulk update requires at least one field assignment");
+        }
+        EntityType<Employee> employeeType = entityManager.getMetamodel().entity(Employee.class);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        // SET clause
+        StringBuilder jpql = new StringBuilder("UPDATE Employee e SET ");
+        String separator = "";
+        for (Map.Entry<String, Object> assignment : assignments.entrySet()) {
+            checkField(assignment.getKey(), UPDATABLE_FIELDS);
+            checkValue(employeeType, assignment.getKey(), assignment.getValue());
+            String parameter = "set_" + assignment.getKey();
+            jpql.append(separator).append("e.").append(assignment.getKey()).append(" = :").append(parameter);
+            parameters.put(parameter, assignment.getValue());
+            separator = ", ";
+        }
+        jpql.append(where(employeeType, filter, parameters));
+
+        // Execute the statement and return the affected row count
+        int affected = bind(entityManager.createQuery(jpql.toString()), parameters).executeUpdate();
+
+        // The bulk update bypasses the persistence context, so drop any stale entities
+        entityManager.clear();
+        return affected;
+    }
+
+    @Override
+    public int insertOutboxEvents(Map<String, Object> filter, String eventType, String payloadSuffix) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("eventType", eventType);
+        parameters.put("payloadSuffix", payloadSuffix);
+        parameters.put("createdAt", Instant.now());
+
+        // The payload starts with the id of each selected employee: {"id":42 + suffix
+        String jpql = "INSERT INTO EmployeeOutboxEvent (employeeId, eventType, payload, createdAt) "
+                + "SELECT e.id, :eventType, concat('{\"id\":', cast(e.id as String), :payloadSuffix), :createdAt "
+                + "FROM Employee e" + where(entityManager.getMetamodel().entity(Employee.class), filter, parameters);
+        return bind(entityManager.createQuery(jpql), parameters).executeUpdate();
+    }
+
+    /**
+     * Builds the WHERE clause of a bulk statement; every filter entry must match.
+     *
+     * @param employeeType The metamodel of Employee, to check the values against.
+     * @param filter       Field name to expected value; a collection value is matched with IN.
+     * @param parameters   Receives the values to bind.
+     * @return The WHERE clause, with a leading space.
+     */
+    private static String where(EntityType<Employee> employeeType, Map<String, Object> filter,
+                                Map<String, Object> parameters) {
+        // An empty filter would change the whole table, so refuse it
+        if (filter == null || filter.isEmpty()) {
+            throw new IllegalArgumentException("Bulk update requires at least one filter field");
+        }
+        StringBuilder where = new StringBuilder(" WHERE ");
+        String separator = "";
+        for (Map.Entry<String, Object> condition : filter.entrySet()) {
+            checkField(condition.getKey(), FILTER_FIELDS);
+            // "= null" never matches, so a null filter value is a client mistake
+            if (condition.getValue() == null) {
+                throw new IllegalArgumentException("Filter value of employee field " + condition.getKey() + " is null");
+            }
+            if (condition.getValue() instanceof Collection<?> values) {
+                for (Object value : values) {
+                    checkValue(employeeType, condition.getKey(), value);
+                }
+            } else {
+                checkValue(employeeType, condition.getKey(), condition.getValue());
+            }
+            String parameter = "where_" + condition.getKey();
+            where.append(separator).append("e.").append(condition.getKey())
+                    .append(condition.getValue() instanceof Collection<?> ? " IN :" : " = :").append(parameter);
+            parameters.put(parameter, condition.getValue());
+            separator = " AND ";
+        }
+        return where.toString();
+    }
+
+    private static Query bind(Query query, Map<String, Object> parameters) {
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+
+    private static void checkField(String field, Set<String> allowed) {
+        if (!allowed.contains(field)) {
+            throw new IllegalArgumentException("Unsupported employee field - " + field);
+        }
+    }
+
+    private static void checkValue(EntityType<Employee> employeeType, String field, Object value) {
+        Class<?> type = employeeType.getAttribute(field).getJavaType();
+        if (value == null ? type.isPrimitive() : !ClassUtils.resolvePrimitiveIfNecessary(type).isInstance(value)) {
+            throw new IllegalArgumentException("Employee field " + field + " needs a value of type "
+                    + ClassUtils.resolvePrimitiveIfNecessary(type).getSimpleName()
+                    + ", not " + (value == null ? "null" : value.getClass().getSimpleName()));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+// Define the package for the Data Access Object (DAO) helpers
+package com.luv2Code.springboot.cruddemo.dao;
+
+// Import necessary classes
+import com.luv2Code.springboot.cruddemo.entity.Employee;
+import jakarta.persistence.criteria.Expression;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Reusable query predicates for Employee searches.
+ * <p>
+ * Every predicate is a left-anchored LIKE ('value%'), so MySQL can answer it with a
+ * range scan on the matching (column, id) index instead of a full table scan.
+ * A null or blank value yields no restriction.
+ */
+public final class EmployeeSpecifications {
+
+    private EmployeeSpecifications() {
+    }
+
+    public static Specification<Employee> firstNameStartsWith(String prefix) {
+        return startsWith("firstName", prefix);
+    }
+
+    public static Specification<Employee> lastNameStartsWith(String prefix) {
+        return startsWith("lastName", prefix);
+    }
+
+    public static Specification<Employee> emailStartsWith(String prefix) {
+        return startsWith("email", prefix);
+    }
+
+    /**
+     * Restricts a keyset page to rows at or past the cursor value of the leading sort property.
+     * <p>
+     * Redundant with the keyset condition, but it gives the database a start key for the range scan.
+     *
+     * @param field     The leading sort property.
+     * @param value     Its value in the cursor, or null for no restriction.
+     * @param direction The sort direction of the property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Employee> sortKeyFrom(String field, Object value, Sort.Direction direction) {
+        return (root, query, criteriaBuilder) -> {
+            if (value == null) {
+                return null;
+            }
+            Expression<Comparable> path = root.get(field);
+            return direction.isAscending()
+                    ? criteriaBuilder.greaterThanOrEqualTo(path, (Comparable) value)
+                    : criteriaBuilder.lessThanOrEqualTo(path, (Comparable) value);
+        };
+    }
+
+    private static Specification<Employee> startsWith(String field, String prefix) {
+        return (root, query, criteriaBuilder) -> {
+            if (prefix == null || prefix.isBlank()) {
+                return null;
+            }
+            // Escape LIKE wildcards so user input is always matched literally
+            String escaped = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            return criteriaBuilder.like(root.get(field), escaped + "%", '\\');
+        };
+    }
+}
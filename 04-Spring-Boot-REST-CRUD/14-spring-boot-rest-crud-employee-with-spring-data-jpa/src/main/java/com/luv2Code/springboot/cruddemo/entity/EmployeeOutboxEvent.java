@@ -0,0 +1,113 @@
+// Define the package for the entity class
+package com.luv2Code.springboot.cruddemo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * The EmployeeOutboxEvent class represents a row of the "employee_outbox" table.
+ *
+ * A row is written in the same transaction as the employee change it describes, so an
+ * event exists if and only if the change was committed. The outbox relay later publishes
+ * pending rows in id order, waiting for gaps left by uncommitted transactions (see
+ * EmployeeOutboxRelay), and stamps them with publishedAt.
+ */
+@Entity
+@Table(name = "employee_outbox")
+public class EmployeeOutboxEvent {
+
+    /**
+     * Event type for an inserted or updated employee.
+     */
+    public static final String EMPLOYEE_SAVED = "EMPLOYEE_SAVED";
+
+    /**
+     * Event type for a deleted employee.
+     */
+    public static final String EMPLOYEE_DELETED = "EMPLOYEE_DELETED";
+
+    /**
+     * Event type for an employee changed by a set-based update; the payload holds the assigned fields.
+     */
+    public static final String EMPLOYEE_UPDATED = "EMPLOYEE_UPDATED";
+
+    // Assigned at insert, not at commit: a lower id may still commit after a higher one
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private long id;
+
+    // The affected employee
+    @Column(name = "employee_id")
+    private Integer employeeId;
+
+    @Column(name = "event_type")
+    private String eventType;
+
+    // JSON representation of the change
+    @Column(name = "payload")
+    private String payload;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    // Null until the relay has handed the event to the sink
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    /**
+     * Default no-arg constructor required by JPA.
+     */
+    public EmployeeOutboxEvent() {
+    }
+
+    /**
+     * Creates a pending event stamped with the current time.
+     *
+     * @param employeeId The affected employee.
+     * @param eventType  One of the EMPLOYEE_* constants.
+     * @param payload    JSON representation of the change.
+     */
+    public EmployeeOutboxEvent(Integer employeeId, String eventType, String payload) {
+        this.employeeId = employeeId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Integer getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeOutboxEvent{" +
+                "id=" + id +
+                ", employeeId=" + employeeId +
+                ", eventType='" + eventType + '\'' +
+                ", payload='" + payload + '\'' +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -0,0 +1,112 @@
+// Define the package for the health check classes
+package com.luv2Code.springboot.cruddemo.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves the last result of another HealthIndicator instead of running it on every request.
+ * <p>
+ * refresh() is called on a fixed schedule by CachingHealthContributorPostProcessor and runs the
+ * real check on a worker thread; health() only reads the latest snapshot, so a probe costs the
+ * same whether the database answers in a millisecond or not at all. At most one check per
+ * indicator is in flight: while it runs, further refreshes are skipped.
+ * <p>
+ * Every response carries the time of the check ("checkedAt"). A check found still running after
+ * the timeout by a later refresh is reported as DOWN, and a snapshot older than staleAfter (e.g.
+ * because the refresh threads are starved) is flagged with "stale": true.
+ */
+public class CachedHealthIndicator implements HealthIndicator {
+
+    // The result of one check and when it finished
+    private record Snapshot(Health health, Instant checkedAt) {
+    }
+
+    private final String name;
+
+    private final HealthIndicator delegate;
+
+    private final Executor worker;
+
+    private final Duration timeout;
+
+    private final Duration staleAfter;
+
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+
+    // Start of the check in flight and whether its timeout was reported; only meaningful while inFlight is set
+    private volatile long checkStartedAt;
+
+    private volatile boolean timeoutReported;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param name       The name of the indicator, used in messages.
+     * @param delegate   The indicator doing the real check.
+     * @param worker     Runs the checks.
+     * @param timeout    How long a check may run before the indicator reports DOWN.
+     * @param staleAfter The snapshot age from which responses are flagged as stale.
+     */
+    public CachedHealthIndicator(String name, HealthIndicator delegate, Executor worker,
+                                 Duration timeout, Duration staleAfter) {
+        this.name = name;
+        this.delegate = delegate;
+        this.worker = worker;
+        this.timeout = timeout;
+        this.staleAfter = staleAfter;
+        this.snapshot = new Snapshot(Health.unknown().withDetail("reason", "Not checked yet").build(), Instant.now());
+    }
+
+    @Override
+    public Health health() {
+        Snapshot current = snapshot;
+        Health.Builder builder = Health.status(current.health().getStatus())
+                .withDetails(current.health().getDetails())
+                .withDetail("checkedAt", current.checkedAt().toString());
+        if (Duration.between(current.checkedAt(), Instant.now()).compareTo(staleAfter) > 0) {
+            builder.withDetail("stale", true);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Starts a check unless one is still running; reports DOWN if that one exceeded the timeout.
+     */
+    void refresh() {
+        if (!inFlight.compareAndSet(false, true)) {
+            long runningNanos = System.nanoTime() - checkStartedAt;
+            if (runningNanos > timeout.toNanos() && !timeoutReported) {
+                timeoutReported = true;
+                snapshot = new Snapshot(Health.down()
+                        .withDetail("error", "Health check '" + name + "' still running after " + timeout)
+                        .build(), Instant.now());
+            }
+            return;
+        }
+        checkStartedAt = System.nanoTime();
+        timeoutReported = false;
+        try {
+            worker.execute(this::check);
+        } catch (RuntimeException e) {
+            // Rejected, e.g. during shutdown
+            inFlight.set(false);
+        }
+    }
+
+    private void check() {
+        try {
+            Health health = delegate.health();
+            snapshot = new Snapshot(health, Instant.now());
+        } catch (Exception e) {
+            snapshot = new Snapshot(Health.down(e).build(), Instant.now());
+        } finally {
+            inFlight.set(false);
+        }
+    }
+}
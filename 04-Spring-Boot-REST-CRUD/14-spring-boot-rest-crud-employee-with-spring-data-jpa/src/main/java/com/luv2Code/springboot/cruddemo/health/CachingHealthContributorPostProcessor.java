@@ -0,0 +1,119 @@
+// Define the package for the health check classes
+package com.luv2Code.springboot.cruddemo.health;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.availability.AvailabilityStateHealthIndicator;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.NamedContributor;
+import org.springframework.boot.actuate.health.PingHealthIndicator;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replaces every health indicator bean with a CachedHealthIndicator refreshed in the background.
+ * <p>
+ * Spring Boot builds the /actuator/health registry from the HealthContributor beans, so wrapping
+ * the beans is enough: the endpoint, its groups and the probes keep working unchanged, they just
+ * read snapshots. Members of composite contributors (e.g. one "db" check per DataSource when the
+ * read replica is configured) are wrapped one by one.
+ * <p>
+ * Each indicator is refreshed on its own schedule: "app.health.cache.interval.&lt;name&gt;" (the name
+ * shown by the endpoint, e.g. db or diskSpace) or "app.health.cache.default-interval". The
+ * liveness, readiness and ping indicators only read in-memory state and stay uncached, so
+ * availability changes (see WarmUpRunner) are visible immediately.
+ */
+public class CachingHealthContributorPostProcessor implements BeanPostProcessor, EnvironmentAware, DisposableBean {
+
+    private static final String[] NAME_SUFFIXES = {"healthcontributor", "healthindicator"};
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ExecutorService workers;
+
+    private Environment environment;
+
+    public CachingHealthContributorPostProcessor() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("health-schedule-"));
+        // One check in flight per indicator at most (see CachedHealthIndicator), so the pool stays small
+        this.workers = Executors.newCachedThreadPool(daemonThreads("health-check-"));
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HealthContributor contributor) {
+            return wrap(healthName(beanName), contributor);
+        }
+        return bean;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private HealthContributor wrap(String name, HealthContributor contributor) {
+        if (contributor instanceof CompositeHealthContributor composite) {
+            Map<String, HealthContributor> members = new LinkedHashMap<>();
+            for (NamedContributor<HealthContributor> member : composite) {
+                members.put(member.getName(), wrap(name, member.getContributor()));
+            }
+            return CompositeHealthContributor.fromMap(members);
+        }
+        if (!(contributor instanceof HealthIndicator indicator)
+                || contributor instanceof CachedHealthIndicator
+                || contributor instanceof AvailabilityStateHealthIndicator
+                || contributor instanceof PingHealthIndicator) {
+            return contributor;
+        }
+
+        Duration interval = environment.getProperty("app.health.cache.interval." + name, Duration.class,
+                environment.getProperty("app.health.cache.default-interval", Duration.class, Duration.ofSeconds(10)));
+        Duration timeout = environment.getProperty("app.health.cache.timeout", Duration.class, Duration.ofSeconds(5));
+        int staleAfterIntervals = environment.getProperty("app.health.cache.stale-after-intervals", Integer.class, 3);
+
+        CachedHealthIndicator cached = new CachedHealthIndicator(name, indicator, workers,
+                timeout, interval.multipliedBy(staleAfterIntervals));
+        scheduler.scheduleWithFixedDelay(cached::refresh, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        return cached;
+    }
+
+    /**
+     * The name Spring Boot gives the contributor: the bean name without its "HealthIndicator" suffix.
+     */
+    private static String healthName(String beanName) {
+        for (String suffix : NAME_SUFFIXES) {
+            if (beanName.length() > suffix.length() && beanName.toLowerCase().endsWith(suffix)) {
+                return beanName.substring(0, beanName.length() - suffix.length());
+            }
+        }
+        return beanName;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
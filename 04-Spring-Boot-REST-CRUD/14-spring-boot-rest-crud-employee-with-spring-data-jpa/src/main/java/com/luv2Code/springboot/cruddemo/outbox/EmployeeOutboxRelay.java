@@ -0,0 +1,201 @@
+// Define the package for the outbox components
+package com.luv2Code.springboot.cruddemo.outbox;
+
+import com.luv2Code.springboot.cruddemo.dao.EmployeeOutboxRepository;
+import com.luv2Code.springboot.cruddemo.entity.EmployeeOutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background relay that moves committed outbox events to the configured OutboxSink.
+ * <p>
+ * Each run reads the oldest pending events in id order, publishes them as one batch and
+ * then marks them as published. A failed batch is left pending and retried on the next
+ * run, which gives at-least-once delivery. Runs never overlap (fixed delay).
+ * Only one application instance should relay a given database.
+ * <p>
+ * Ids are assigned when an event is inserted, not when its transaction commits, so a lower
+ * id can become visible after a higher one. A batch therefore only extends up to the first
+ * missing id after the last published one. A missing id is waited for until
+ * "outbox.relay.gap-timeout" has passed; after that it is assumed to belong to a rolled-back
+ * transaction and is skipped. As long as no writing transaction stays open longer than the
+ * gap timeout, events reach the sink in commit order, and so the events of each employee
+ * (which row locks serialize) keep their order. An event committed even later is still
+ * published, because the relay reads every pending row, but after newer events; this is
+ * logged as a warning.
+ * <p>
+ * Metrics:
+ * <ul>
+ *   <li>employee.outbox.published - counter of delivered events (throughput)</li>
+ *   <li>employee.outbox.publish - timer of each batch delivery</li>
+ *   <li>employee.outbox.pending - gauge of events waiting to be delivered</li>
+ *   <li>employee.outbox.lag - gauge of the age in seconds of the oldest pending event</li>
+ * </ul>
+ */
+@Component
+public class EmployeeOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeOutboxRelay.class);
+
+    private final EmployeeOutboxRepository outboxRepository;
+
+    private final OutboxSink sink;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final Duration gapTimeout;
+
+    private final Counter publishedCounter;
+
+    private final Timer publishTimer;
+
+    // Gauges read these values, so metric scrapes never hit the database
+    private final AtomicLong pending = new AtomicLong();
+
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    // Only touched by relay(), whose runs never overlap
+    private long lastPublishedId = -1;
+
+    // First missing id of each gap -> when the relay first waited for it
+    private final NavigableMap<Long, Instant> gapsFirstSeen = new TreeMap<>();
+
+    public EmployeeOutboxRelay(EmployeeOutboxRepository outboxRepository,
+                               OutboxSink sink,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${outbox.relay.batch-size:100}") int batchSize,
+                               @Value("${outbox.relay.gap-timeout:5s}") Duration gapTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.gapTimeout = gapTimeout;
+
+        this.publishedCounter = Counter.builder("employee.outbox.published")
+                .description("Outbox events delivered to the sink")
+                .register(meterRegistry);
+        this.publishTimer = Timer.builder("employee.outbox.publish")
+                .description("Time to deliver one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("employee.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events waiting to be delivered")
+                .register(meterRegistry);
+        Gauge.builder("employee.outbox.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest undelivered outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relays pending events until the outbox is drained, a gap is reached or a batch fails.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        try {
+            if (lastPublishedId < 0) {
+                Long maxPublishedId = outboxRepository.findMaxPublishedId();
+                lastPublishedId = (maxPublishedId == null) ? 0 : maxPublishedId;
+            }
+
+            List<EmployeeOutboxEvent> published;
+            do {
+                published = relayBatch();
+                if (!published.isEmpty()) {
+                    // Only advance once the batch is committed as published
+                    lastPublishedId = Math.max(lastPublishedId, published.get(published.size() - 1).getId());
+                    gapsFirstSeen.headMap(lastPublishedId, true).clear();
+                }
+            } while (published.size() == batchSize);
+        } catch (RuntimeException e) {
+            // Leave the batch pending; it is retried on the next run
+            logger.warn("Outbox relay failed, will retry: {}", e.getMessage());
+        } finally {
+            // Also after a failure, so that the gauges show the growing backlog
+            try {
+                refreshGauges();
+            } catch (RuntimeException e) {
+                logger.warn("Could not refresh outbox gauges: {}", e.getMessage());
+            }
+        }
+    }
+
+    private List<EmployeeOutboxEvent> relayBatch() {
+        List<EmployeeOutboxEvent> published = transactionTemplate.execute(status -> {
+            List<EmployeeOutboxEvent> batch =
+                    publishableEvents(outboxRepository.findByPublishedAtIsNullOrderByIdAsc(Limit.of(batchSize)));
+            if (batch.isEmpty()) {
+                return batch;
+            }
+
+            // Deliver first, then mark: a crash in between causes a redelivery, never a loss
+            publishTimer.record(() -> sink.publish(batch));
+            outboxRepository.markPublished(batch.stream().map(EmployeeOutboxEvent::getId).toList(), Instant.now());
+
+            publishedCounter.increment(batch.size());
+            return batch;
+        });
+        return published == null ? List.of() : published;
+    }
+
+    /**
+     * Returns the leading pending events that can be published without overtaking an event
+     * whose transaction may still commit with a lower id.
+     *
+     * @param pendingEvents Pending events in id order.
+     * @return The events up to the first gap that is still waited for.
+     */
+    private List<EmployeeOutboxEvent> publishableEvents(List<EmployeeOutboxEvent> pendingEvents) {
+        long expectedId = lastPublishedId + 1;
+        for (int index = 0; index < pendingEvents.size(); index++) {
+            long id = pendingEvents.get(index).getId();
+            if (id < expectedId) {
+                logger.warn("Outbox event {} committed after its gap timed out; it is published after newer events", id);
+            } else if (id > expectedId && !gapTimedOut(expectedId)) {
+                return pendingEvents.subList(0, index);
+            }
+            expectedId = Math.max(expectedId, id + 1);
+        }
+        return pendingEvents;
+    }
+
+    /**
+     * Starts or continues waiting for a missing id.
+     *
+     * @return Whether the id has been missing for longer than the gap timeout.
+     */
+    private boolean gapTimedOut(long missingId) {
+        Instant now = Instant.now();
+        Instant firstSeen = gapsFirstSeen.computeIfAbsent(missingId, id -> now);
+        if (Duration.between(firstSeen, now).compareTo(gapTimeout) < 0) {
+            return false;
+        }
+        logger.debug("Outbox id {} still missing after {}, assuming a rolled-back transaction", missingId, gapTimeout);
+        return true;
+    }
+
+    private void refreshGauges() {
+        pending.set(outboxRepository.countByPublishedAtIsNull());
+        lagSeconds.set(outboxRepository.findFirstByPublishedAtIsNullOrderByIdAsc()
+                .map(event -> Duration.between(event.getCreatedAt(), Instant.now()).toSeconds())
+                .orElse(0L));
+    }
+}
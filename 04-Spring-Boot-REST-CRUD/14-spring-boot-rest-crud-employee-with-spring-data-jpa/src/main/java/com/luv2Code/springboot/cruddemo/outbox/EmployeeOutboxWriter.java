@@ -0,0 +1,89 @@
+// Define the package for the outbox components
+package com.luv2Code.springboot.cruddemo.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luv2Code.springboot.cruddemo.dao.EmployeeOutboxRepository;
+import com.luv2Code.springboot.cruddemo.dao.EmployeeRepository;
+import com.luv2Code.springboot.cruddemo.entity.Employee;
+import com.luv2Code.springboot.cruddemo.entity.EmployeeOutboxEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Records employee changes in the outbox table.
+ * <p>
+ * Every method requires an existing transaction (Propagation.MANDATORY): the outbox row
+ * must commit or roll back together with the employee change it describes.
+ * <p>
+ * Bulk changes are recorded with one INSERT ... SELECT over the employees they are about to
+ * change, so the caller must run it before its DELETE or UPDATE and compare the row counts.
+ * Under MySQL's default REPEATABLE READ, that SELECT share-locks the rows it reads, so no other
+ * change of those employees can commit between their event and the bulk change, and the events
+ * of each employee keep their order. Under READ COMMITTED it reads without locks, and a
+ * concurrent save could commit first with a later event.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class EmployeeOutboxWriter {
+
+    private final EmployeeOutboxRepository outboxRepository;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public EmployeeOutboxWriter(EmployeeOutboxRepository outboxRepository, EmployeeRepository employeeRepository,
+                                ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.employeeRepository = employeeRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Records an inserted or updated employee with its full state as payload.
+     *
+     * @param employee The saved employee.
+     */
+    public void employeeSaved(Employee employee) {
+        outboxRepository.save(new EmployeeOutboxEvent(
+                employee.getId(), EmployeeOutboxEvent.EMPLOYEE_SAVED, toJson(employee)));
+    }
+
+    /**
+     * Records employees about to be deleted, one event per existing employee, with {"id": ...}
+     * as payload. Ids that do not exist get no event.
+     *
+     * @param employeeIds The ids of the employees to delete.
+     * @return The number of events recorded.
+     */
+    public int employeesDeleted(Collection<Integer> employeeIds) {
+        return employeeRepository.insertOutboxEvents(Map.of("id", employeeIds), EmployeeOutboxEvent.EMPLOYEE_DELETED, "}");
+    }
+
+    /**
+     * Records a set-based update about to be applied, one event per matching employee with
+     * {"id": ..., "set": {assignments}} as payload, so that bulk changes are ordered per
+     * employee like every other event.
+     *
+     * @param filter      The filter of the bulk update.
+     * @param assignments The field assignments of the bulk update.
+     * @return The number of events recorded.
+     */
+    public int employeesUpdated(Map<String, Object> filter, Map<String, Object> assignments) {
+        return employeeRepository.insertOutboxEvents(filter, EmployeeOutboxEvent.EMPLOYEE_UPDATED,
+                ",\"set\":" + toJson(assignments) + "}");
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise outbox payload", e);
+        }
+    }
+}
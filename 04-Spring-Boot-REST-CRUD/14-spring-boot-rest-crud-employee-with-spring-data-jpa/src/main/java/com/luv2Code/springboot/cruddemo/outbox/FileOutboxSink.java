@@ -0,0 +1,72 @@
+// Define the package for the outbox components
+package com.luv2Code.springboot.cruddemo.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luv2Code.springboot.cruddemo.entity.EmployeeOutboxEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OutboxSink that appends every event as one JSON line to a local file.
+ * <p>
+ * The whole batch is written with a single write call and forced to disk before
+ * publish() returns, so a batch marked as published is never lost.
+ */
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path file;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param file         The file to append to; created if missing.
+     * @param objectMapper The mapper used to render each event.
+     */
+    public FileOutboxSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<EmployeeOutboxEvent> events) {
+        StringBuilder lines = new StringBuilder();
+        for (EmployeeOutboxEvent event : events) {
+            lines.append(toJson(event)).append('\n');
+        }
+
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append outbox events to " + file, e);
+        }
+    }
+
+    private String toJson(EmployeeOutboxEvent event) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("id", event.getId());
+        line.put("employeeId", event.getEmployeeId());
+        line.put("type", event.getEventType());
+        line.put("createdAt", event.getCreatedAt().toString());
+        line.put("payload", event.getPayload());
+        try {
+            return objectMapper.writeValueAsString(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise outbox event " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+// Define the package for the outbox components
+package com.luv2Code.springboot.cruddemo.outbox;
+
+import com.luv2Code.springboot.cruddemo.entity.EmployeeOutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of the events relayed from the employee outbox table.
+ * <p>
+ * The relay only marks a batch as published after publish() returns normally, so an
+ * implementation must either deliver the whole batch or throw. A batch may be delivered
+ * more than once (at-least-once), therefore consumers should de-duplicate on the event id.
+ */
+public interface OutboxSink {
+
+    /**
+     * Delivers a batch of events in the given order.
+     *
+     * @param events The events to deliver, ordered by id.
+     */
+    void publish(List<EmployeeOutboxEvent> events);
+}
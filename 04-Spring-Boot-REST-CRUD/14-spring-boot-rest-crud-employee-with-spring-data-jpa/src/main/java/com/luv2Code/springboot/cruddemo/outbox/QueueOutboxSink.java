@@ -0,0 +1,52 @@
+// Define the package for the outbox components
+package com.luv2Code.springboot.cruddemo.outbox;
+
+import com.luv2Code.springboot.cruddemo.entity.EmployeeOutboxEvent;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OutboxSink that hands events to an in-process bounded queue.
+ * <p>
+ * Stands in for a message broker: consumers inside the application take events from
+ * {@link #getQueue()}. When the queue stays full the batch fails and is retried later.
+ */
+public class QueueOutboxSink implements OutboxSink {
+
+    private final BlockingQueue<EmployeeOutboxEvent> queue;
+
+    private final long offerTimeoutMillis;
+
+    /**
+     * @param capacity           The maximum number of undelivered events held in memory.
+     * @param offerTimeoutMillis How long to wait for free space before failing the batch.
+     */
+    public QueueOutboxSink(int capacity, long offerTimeoutMillis) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+    }
+
+    @Override
+    public void publish(List<EmployeeOutboxEvent> events) {
+        for (EmployeeOutboxEvent event : events) {
+            try {
+                if (!queue.offer(event, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("Outbox queue is full, event " + event.getId() + " not delivered");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while publishing event " + event.getId(), e);
+            }
+        }
+    }
+
+    /**
+     * @return The queue consumers read the relayed events from.
+     */
+    public BlockingQueue<EmployeeOutboxEvent> getQueue() {
+        return queue;
+    }
+}
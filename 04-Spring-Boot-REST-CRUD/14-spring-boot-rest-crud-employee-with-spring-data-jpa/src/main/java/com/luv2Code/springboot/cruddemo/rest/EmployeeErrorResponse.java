@@ -0,0 +1,63 @@
+// Define the package for the error response class
+package com.luv2Code.springboot.cruddemo.rest;
+
+/**
+ * A custom error response class used to encapsulate error details
+ * for RESTful responses in the application.
+ *
+ * This class standardizes the structure of error messages sent back to clients.
+ */
+public class EmployeeErrorResponse {
+
+    // HTTP status code of the error
+    private int status;
+
+    // Detailed error message
+    private String message;
+
+    // Timestamp indicating when the error occurred
+    private long timeStamp;
+
+    /**
+     * Default constructor.
+     */
+    public EmployeeErrorResponse() {
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param status    The HTTP status code associated with the error.
+     * @param message   The error message.
+     * @param timeStamp The timestamp of when the error occurred.
+     */
+    public EmployeeErrorResponse(int status, String message, long timeStamp) {
+        this.status = status;
+        this.message = message;
+        this.timeStamp = timeStamp;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public long getTimeStamp() {
+        return timeStamp;
+    }
+
+    public void setTimeStamp(long timeStamp) {
+        this.timeStamp = timeStamp;
+    }
+}
@@ -0,0 +1,20 @@
+// Define the package for the custom exception class
+package com.luv2Code.springboot.cruddemo.rest;
+
+/**
+ * A custom exception class used for handling cases where no employee matches a request.
+ *
+ * This class extends the {@link RuntimeException}, making it an unchecked exception.
+ * It is translated into an HTTP 404 response by {@link EmployeeRestExceptionHandler}.
+ */
+public class EmployeeNotFoundException extends RuntimeException {
+
+    /**
+     * Constructor that accepts a message string.
+     *
+     * @param message The error message describing why the exception occurred.
+     */
+    public EmployeeNotFoundException(String message) {
+        super(message);
+    }
+}
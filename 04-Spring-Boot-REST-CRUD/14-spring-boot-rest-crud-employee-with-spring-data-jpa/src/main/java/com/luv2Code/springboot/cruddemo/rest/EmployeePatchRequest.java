@@ -0,0 +1,41 @@
+// Define the package for the request body class
+package com.luv2Code.springboot.cruddemo.rest;
+
+import java.util.Map;
+
+/**
+ * Request body for the bulk PATCH /api/employees endpoint.
+ * <p>
+ * Example:
+ * <pre>
+ * {
+ *   "filter": { "lastName": "Doe", "id": [1, 2, 3] },
+ *   "set":    { "email": "doe@luv2code.com" }
+ * }
+ * </pre>
+ * Filter entries are combined with AND; a JSON array value is matched with IN.
+ */
+public class EmployeePatchRequest {
+
+    // Field name to expected value
+    private Map<String, Object> filter;
+
+    // Field name to new value
+    private Map<String, Object> set;
+
+    public Map<String, Object> getFilter() {
+        return filter;
+    }
+
+    public void setFilter(Map<String, Object> filter) {
+        this.filter = filter;
+    }
+
+    public Map<String, Object> getSet() {
+        return set;
+    }
+
+    public void setSet(Map<String, Object> set) {
+        this.set = set;
+    }
+}
@@ -6,9 +6,18 @@ package com.luv2Code.springboot.cruddemo.rest;
 import com.luv2Code.springboot.cruddemo.entity.Employee;
 import com.luv2Code.springboot.cruddemo.service.EmployeeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.web.bind.annotation.*;
 
+import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * REST Controller for managing Employee-related endpoints.
@@ -23,6 +32,15 @@ import java.util.List;
 @RequestMapping("/api")
 public class EmployeeRestController {
 
+    // Properties the search endpoint may sort on; each one has a (column, id) index
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "firstName", "lastName", "email");
+
+    // Upper bound for the search page size
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    // MySQL error ER_PARSE_ERROR, also raised for a malformed boolean mode search expression
+    private static final int MYSQL_PARSE_ERROR = 1064;
+
     // Define a field for the EmployeeService
     private EmployeeService employeeService;
 
@@ -53,6 +71,136 @@ public class EmployeeRestController {
         return employeeService.findAll();
     }
 
+    /**
+     * Endpoint to search employees, e.g. GET /api/employees/search?lastName=Gu&sort=lastName&limit=20
+     * <p>
+     * Name and email filters are prefix matches. Paging is keyset based: pass the
+     * "nextAfter"/"nextAfterId" values of the previous response as "after"/"afterId".
+     * When "q" is given, a MySQL FULLTEXT search is run instead and results are ordered
+     * by relevance (no further paging); it cannot be combined with the other parameters
+     * except "limit", and its quotes and parentheses must be balanced.
+     *
+     * @param firstName Optional first name prefix.
+     * @param lastName  Optional last name prefix.
+     * @param email     Optional email prefix.
+     * @param q         Optional free-text query.
+     * @param sort      The property to sort on (id, firstName, lastName or email), lastName by default.
+     * @param direction The sort direction (asc or desc), asc by default.
+     * @param after     Sort key value of the last row of the previous page (required with afterId unless sort is id).
+     * @param afterId   ID of the last row of the previous page (required with after).
+     * @param limit     The page size, at most 100.
+     * @return One page of matching employees and the cursor for the next page.
+     */
+    @GetMapping("/employees/search")
+    public EmployeeSearchPage searchEmployees(@RequestParam(required = false) String firstName,
+                                              @RequestParam(required = false) String lastName,
+                                              @RequestParam(required = false) String email,
+                                              @RequestParam(required = false) String q,
+                                              @RequestParam(required = false) String sort,
+                                              @RequestParam(required = false) String direction,
+                                              @RequestParam(required = false) String after,
+                                              @RequestParam(required = false) Integer afterId,
+                                              @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+
+        // Free-text path: relevance ordered, single page
+        if (q != null && !q.isBlank()) {
+            if (firstName != null || lastName != null || email != null || sort != null || direction != null
+                    || after != null || afterId != null) {
+                throw new IllegalArgumentException("q cannot be combined with firstName, lastName, email, sort, "
+                        + "direction, after or afterId");
+            }
+            checkFullTextQuery(q);
+            try {
+                return new EmployeeSearchPage(employeeService.fullTextSearch(q, limit), null, null);
+            } catch (InvalidDataAccessResourceUsageException e) {
+                // Operator sequences MySQL still rejects as a syntax error; anything else (e.g. a
+                // missing FULLTEXT index) stays a server error
+                if (!isSyntaxError(e)) {
+                    throw e;
+                }
+                throw new IllegalArgumentException("Malformed search expression - " + q, e);
+            }
+        }
+        if (sort == null) {
+            sort = "lastName";
+        }
+
+        if (!SORTABLE_FIELDS.contains(sort)) {
+            throw new IllegalArgumentException("Unsupported sort field - " + sort);
+        }
+
+        // Always finish the sort with the unique id so the keyset is unambiguous
+        Sort.Direction sortDirection = (direction == null) ? Sort.Direction.ASC : Sort.Direction.fromString(direction);
+        Sort order = "id".equals(sort)
+                ? Sort.by(sortDirection, "id")
+                : Sort.by(sortDirection, sort).and(Sort.by(sortDirection, "id"));
+
+        // A cursor needs the sort key too, except when sorting on the id alone
+        if (after != null && afterId == null) {
+            throw new IllegalArgumentException("after requires afterId");
+        }
+        if (afterId != null && after == null && !"id".equals(sort)) {
+            throw new IllegalArgumentException("afterId requires after when sorting on " + sort);
+        }
+
+        // Rebuild the keyset position from the cursor of the previous page
+        ScrollPosition position = ScrollPosition.keyset();
+        if (afterId != null) {
+            Map<String, Object> keys = new HashMap<>();
+            if (!"id".equals(sort)) {
+                keys.put(sort, after);
+            }
+            keys.put("id", afterId);
+            position = ScrollPosition.forward(keys);
+        }
+
+        Window<Employee> window = employeeService.search(firstName, lastName, email, order, position, limit);
+
+        // Hand out the cursor of the last row when another page exists
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            Object nextAfter = "id".equals(sort) ? null : last.getKeys().get(sort);
+            return new EmployeeSearchPage(window.getContent(), nextAfter, (Integer) last.getKeys().get("id"));
+        }
+
+        return new EmployeeSearchPage(window.getContent(), null, null);
+    }
+
+    /**
+     * Checks the parts of the MySQL boolean mode syntax that fail the query instead of being
+     * ignored: double quotes (phrases) and parentheses (groups) must be balanced.
+     *
+     * @param q The free-text query.
+     */
+    private static void checkFullTextQuery(String q) {
+        boolean inPhrase = false;
+        int depth = 0;
+        for (char c : q.toCharArray()) {
+            if (c == '"') {
+                inPhrase = !inPhrase;
+            } else if (!inPhrase && c == '(') {
+                depth++;
+            } else if (!inPhrase && c == ')' && --depth < 0) {
+                break;
+            }
+        }
+        if (inPhrase || depth != 0) {
+            throw new IllegalArgumentException("Unbalanced quotes or parentheses in q - " + q);
+        }
+    }
+
+    private static boolean isSyntaxError(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getErrorCode() == MYSQL_PARSE_ERROR) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Endpoint to retrieve a specific employee by their ID.
      * <p>
@@ -132,24 +280,69 @@ public class EmployeeRestController {
      * It is used to delete a specific employee record from the database by its ID.
      * <p>
      * The @PathVariable annotation binds the value from the URI to the method parameter.
+     * One INSERT ... SELECT records the outbox event and one DELETE statement removes the
+     * employee; neither loads it first.
      *
      * @param employeeId The ID of the employee to be deleted, provided in the URI.
      * @return A confirmation message indicating the deleted employee's ID.
      */
     @DeleteMapping("/employees/{employeeId}")
     public String deleteEmployee(@PathVariable int employeeId) {
-        // Retrieve the employee from the database using the service layer.
-        Employee dbEmployee = employeeService.findById(employeeId);
+        // Delete without a prior lookup; the affected count doubles as the existence check.
+        int deleted = employeeService.deleteAllByIds(List.of(employeeId));
 
-        // Check if the employee exists; if not, throw a runtime exception.
-        if (dbEmployee == null) {
-            throw new RuntimeException("Employee ID not found - " + employeeId);
+        // Nothing was deleted, so the employee did not exist.
+        if (deleted == 0) {
+            throw new EmployeeNotFoundException("Employee ID not found - " + employeeId);
         }
 
-        // Delegate the delete operation to the service layer.
-        employeeService.deleteById(employeeId);
-
         // Return a confirmation message to the client.
         return "Deleted Employee ID - " + employeeId;
     }
+
+    /**
+     * Endpoint to delete several employees at once, e.g. DELETE /api/employees?ids=1,2,3
+     * <p>
+     * The existing employees are removed with one DELETE statement (plus one INSERT ... SELECT for
+     * their outbox events). Deleting an ID twice is harmless, so the call is idempotent; a 404 is
+     * returned only when none of the IDs exist.
+     *
+     * @param ids The IDs of the employees to delete.
+     * @return The number of deleted employees under the "affected" key.
+     */
+    @DeleteMapping("/employees")
+    public Map<String, Integer> deleteEmployees(@RequestParam List<Integer> ids) {
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one employee ID is required");
+        }
+
+        int deleted = employeeService.deleteAllByIds(ids);
+
+        if (deleted == 0) {
+            throw new EmployeeNotFoundException("Employee IDs not found - " + ids);
+        }
+
+        return Map.of("affected", deleted);
+    }
+
+    /**
+     * Endpoint to update all employees matching a filter, e.g. PATCH /api/employees
+     * with a body of {"filter": {"lastName": "Doe"}, "set": {"email": "doe@luv2code.com"}}.
+     * <p>
+     * The update is applied with set-based statements, without loading any employee; a 404 is
+     * returned when nothing matched.
+     *
+     * @param patchRequest The filter and the field assignments.
+     * @return The number of updated employees under the "affected" key.
+     */
+    @PatchMapping("/employees")
+    public Map<String, Integer> patchEmployees(@RequestBody EmployeePatchRequest patchRequest) {
+        int updated = employeeService.updateMatching(patchRequest.getFilter(), patchRequest.getSet());
+
+        if (updated == 0) {
+            throw new EmployeeNotFoundException("No employee matches filter - " + patchRequest.getFilter());
+        }
+
+        return Map.of("affected", updated);
+    }
 }
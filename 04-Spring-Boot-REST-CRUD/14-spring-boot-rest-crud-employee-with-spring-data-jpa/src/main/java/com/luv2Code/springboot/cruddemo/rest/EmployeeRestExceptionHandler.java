@@ -0,0 +1,59 @@
+// Define the package for the exception handler
+package com.luv2Code.springboot.cruddemo.rest;
+
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+/**
+ * Global exception handler for the Employee REST API.
+ * <p>
+ * The @ControllerAdvice annotation applies these handlers to all controllers.
+ */
+@ControllerAdvice
+public class EmployeeRestExceptionHandler {
+
+    /**
+     * Exception handler for EmployeeNotFoundException.
+     *
+     * @param exception The exception object.
+     * @return A ResponseEntity containing the error response and HTTP 404 status.
+     */
+    @ExceptionHandler
+    public ResponseEntity<EmployeeErrorResponse> handleException(EmployeeNotFoundException exception) {
+        return buildResponse(exception, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Exception handler for invalid bulk requests (empty ID list, unknown field, missing filter).
+     *
+     * @param exception The exception object.
+     * @return A ResponseEntity containing the error response and HTTP 400 status.
+     */
+    @ExceptionHandler
+    public ResponseEntity<EmployeeErrorResponse> handleException(IllegalArgumentException exception) {
+        return buildResponse(exception, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Exception handler for bulk changes that collided with a concurrent change of the same employees.
+     *
+     * @param exception The exception object.
+     * @return A ResponseEntity containing the error response and HTTP 409 status.
+     */
+    @ExceptionHandler
+    public ResponseEntity<EmployeeErrorResponse> handleException(ConcurrencyFailureException exception) {
+        return buildResponse(exception, HttpStatus.CONFLICT);
+    }
+
+    private ResponseEntity<EmployeeErrorResponse> buildResponse(Exception exception, HttpStatus status) {
+        // Create an EmployeeErrorResponse object with error details
+        EmployeeErrorResponse errorResponse =
+                new EmployeeErrorResponse(status.value(), exception.getMessage(), System.currentTimeMillis());
+
+        // Return the error response as a ResponseEntity
+        return new ResponseEntity<>(errorResponse, status);
+    }
+}
@@ -0,0 +1,42 @@
+// Define the package for the response body class
+package com.luv2Code.springboot.cruddemo.rest;
+
+import com.luv2Code.springboot.cruddemo.entity.Employee;
+
+import java.util.List;
+
+/**
+ * Response body for GET /api/employees/search.
+ * <p>
+ * Holds one page of employees and, when more rows exist, the keyset cursor
+ * ("nextAfter" and "nextAfterId") to pass back as "after"/"afterId" for the next page.
+ */
+public class EmployeeSearchPage {
+
+    // The employees on this page
+    private List<Employee> content;
+
+    // Sort key value of the last row; null when this is the last page
+    private Object nextAfter;
+
+    // ID of the last row; null when this is the last page
+    private Integer nextAfterId;
+
+    public EmployeeSearchPage(List<Employee> content, Object nextAfter, Integer nextAfterId) {
+        this.content = content;
+        this.nextAfter = nextAfter;
+        this.nextAfterId = nextAfterId;
+    }
+
+    public List<Employee> getContent() {
+        return content;
+    }
+
+    public Object getNextAfter() {
+        return nextAfter;
+    }
+
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+}
@@ -1,8 +1,13 @@
 package com.luv2Code.springboot.cruddemo.service;
 
 import com.luv2Code.springboot.cruddemo.entity.Employee;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface EmployeeService {
 
@@ -13,4 +18,13 @@ public interface EmployeeService {
     Employee save(Employee employee);
 
     void deleteById(int id);
+
+    int deleteAllByIds(Collection<Integer> ids);
+
+    int updateMatching(Map<String, Object> filter, Map<String, Object> assignments);
+
+    Window<Employee> search(String firstName, String lastName, String email,
+                            Sort sort, ScrollPosition position, int limit);
+
+    List<Employee> fullTextSearch(String text, int limit);
 }
@@ -4,18 +4,35 @@ package com.luv2Code.springboot.cruddemo.service;
 // Import necessary classes and annotations
 import com.luv2Code.springboot.cruddemo.dao.EmployeeRepository;
 import com.luv2Code.springboot.cruddemo.entity.Employee;
+import com.luv2Code.springboot.cruddemo.outbox.EmployeeOutboxWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static com.luv2Code.springboot.cruddemo.dao.EmployeeSpecifications.emailStartsWith;
+import static com.luv2Code.springboot.cruddemo.dao.EmployeeSpecifications.firstNameStartsWith;
+import static com.luv2Code.springboot.cruddemo.dao.EmployeeSpecifications.lastNameStartsWith;
+import static com.luv2Code.springboot.cruddemo.dao.EmployeeSpecifications.sortKeyFrom;
+
 /**
  * Service implementation class for EmployeeService.
  * <p>
  * This class provides the business logic for managing employees by delegating
  * data access operations to the repository layer. The @Service annotation marks this
  * class as a Spring-managed service component.
+ * <p>
+ * Every mutation also records an outbox event in the same transaction, see EmployeeOutboxWriter.
  */
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
@@ -23,6 +40,9 @@ public class EmployeeServiceImpl implements EmployeeService {
     // Define a field for the EmployeeRepository to handle data access operations
     private EmployeeRepository employeeRepository;
 
+    // Records each change for downstream consumers
+    private EmployeeOutboxWriter outboxWriter;
+
     /**
      * Constructor for injecting the EmployeeRepository dependency.
      * <p>
@@ -30,10 +50,12 @@ public class EmployeeServiceImpl implements EmployeeService {
      * provided by Spring.
      *
      * @param employeeRepository The EmployeeRepository instance to be injected.
+     * @param outboxWriter       The EmployeeOutboxWriter instance to be injected.
      */
     @Autowired
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EmployeeOutboxWriter outboxWriter) {
         this.employeeRepository = employeeRepository;
+        this.outboxWriter = outboxWriter;
     }
 
     /**
@@ -44,6 +66,7 @@ public class EmployeeServiceImpl implements EmployeeService {
      * @return A list of Employee objects.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Employee> findAll() {
         return employeeRepository.findAll();
     }
@@ -58,6 +81,7 @@ public class EmployeeServiceImpl implements EmployeeService {
      * @return The Employee object with the specified ID.
      */
     @Override
+    @Transactional(readOnly = true)
     public Employee findById(int id) {
         // Use Optional to handle the potential absence of an employee
         Optional<Employee> result = employeeRepository.findById(id);
@@ -81,8 +105,11 @@ public class EmployeeServiceImpl implements EmployeeService {
      * @return The Employee object after it has been saved or updated.
      */
     @Override
+    @Transactional
     public Employee save(Employee employee) {
-        return employeeRepository.save(employee);
+        Employee savedEmployee = employeeRepository.save(employee);
+        outboxWriter.employeeSaved(savedEmployee);
+        return savedEmployee;
     }
 
     /**
@@ -93,7 +120,110 @@ public class EmployeeServiceImpl implements EmployeeService {
      * @param id The ID of the employee to delete.
      */
     @Override
+    @Transactional
     public void deleteById(int id) {
-        employeeRepository.deleteById(id);
+        deleteAllByIds(List.of(id));
+    }
+
+    /**
+     * Deletes all employees with the given IDs.
+     * <p>
+     * Two statements, whatever the number of IDs: one INSERT ... SELECT records a deletion event
+     * per existing employee, then one DELETE removes them; IDs that do not exist are simply not
+     * counted. No employee and no ID list is loaded.
+     *
+     * @param ids The IDs of the employees to delete.
+     * @return The number of employees deleted.
+     */
+    @Override
+    @Transactional
+    public int deleteAllByIds(Collection<Integer> ids) {
+        // Events first: once deleted, the rows are gone from the SELECT
+        int recorded = outboxWriter.employeesDeleted(ids);
+        int deleted = employeeRepository.deleteAllByIdIn(ids);
+        checkEventsRecorded(recorded, deleted);
+        return deleted;
+    }
+
+    /**
+     * Updates all employees matching the filter with the given field assignments.
+     * <p>
+     * Two statements, whatever the number of matching employees: one INSERT ... SELECT records
+     * an update event per matching employee, then one UPDATE applies the assignments. No
+     * employee is loaded into memory.
+     *
+     * @param filter      Field name to expected value; a collection value is matched with IN.
+     * @param assignments Field name to new value.
+     * @return The number of employees updated.
+     */
+    @Override
+    @Transactional
+    public int updateMatching(Map<String, Object> filter, Map<String, Object> assignments) {
+        // Events first: the assignments may change which rows the filter matches
+        int recorded = outboxWriter.employeesUpdated(filter, assignments);
+        int updated = employeeRepository.updateMatching(filter, assignments);
+        checkEventsRecorded(recorded, updated);
+        return updated;
+    }
+
+    /**
+     * The events and the change select the same rows; the counts only differ when another
+     * transaction changed those rows in between, e.g. under READ COMMITTED. (Under MySQL's default
+     * REPEATABLE READ the INSERT ... SELECT share-locks the rows it reads, so they cannot change.)
+     * Rolling back then keeps the outbox exact.
+     */
+    private static void checkEventsRecorded(int recorded, int changed) {
+        if (recorded != changed) {
+            throw new ConcurrencyFailureException("Employees changed concurrently (" + recorded
+                    + " events recorded, " + changed + " rows changed); retry the request");
+        }
+    }
+
+    /**
+     * Searches employees by name/email prefixes using keyset (seek) paging.
+     * <p>
+     * Instead of OFFSET, each page continues from the sort key of the last row of the
+     * previous page, so deep pages cost the same as the first one. The leading sort property is
+     * also bounded by its cursor value ("lastName >= ?"), so that the database can start a range
+     * scan on the (column, id) index; not every optimizer does so for the OR-expanded keyset
+     * condition alone (H2 walks the index from the start).
+     *
+     * @param firstName Optional first name prefix.
+     * @param lastName  Optional last name prefix.
+     * @param email     Optional email prefix.
+     * @param sort      The sort order; must end with a unique property such as "id".
+     * @param position  Where to continue from; ScrollPosition.keyset() for the first page.
+     * @param limit     The page size.
+     * @return A window of matching employees and the position of each row.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Window<Employee> search(String firstName, String lastName, String email,
+                                   Sort sort, ScrollPosition position, int limit) {
+        Specification<Employee> specification = Specification.where(firstNameStartsWith(firstName))
+                .and(lastNameStartsWith(lastName))
+                .and(emailStartsWith(email));
+
+        if (position instanceof KeysetScrollPosition keyset && !keyset.isInitial()) {
+            Sort.Order leading = sort.iterator().next();
+            specification = specification.and(
+                    sortKeyFrom(leading.getProperty(), keyset.getKeys().get(leading.getProperty()), leading.getDirection()));
+        }
+
+        return employeeRepository.findBy(specification,
+                query -> query.sortBy(sort).limit(limit).scroll(position));
+    }
+
+    /**
+     * Free-text search over first name, last name and email.
+     *
+     * @param text  The search expression (MySQL boolean mode syntax).
+     * @param limit The maximum number of results.
+     * @return The matching employees, most relevant first.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Employee> fullTextSearch(String text, int limit) {
+        return employeeRepository.fullTextSearch(text, limit);
     }
 }
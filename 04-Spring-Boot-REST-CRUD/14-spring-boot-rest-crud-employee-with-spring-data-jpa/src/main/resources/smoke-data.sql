@@ -0,0 +1,8 @@
+-- Seed employees of the "smoke" profile (same rows as the employee_directory script)
+-- The ids are left to the identity column, so the rows get 1 to 5 in this order
+INSERT INTO employee (first_name, last_name, email) VALUES
+    ('Leslie', 'Andrews', 'leslie@luv2code.com'),
+    ('Emma', 'Baumgarten', 'emma@luv2code.com'),
+    ('Avani', 'Gupta', 'avani@luv2code.com'),
+    ('Yuri', 'Petrov', 'yuri@luv2code.com'),
+    ('Juan', 'Vega', 'juan@luv2code.com');
@@ -0,0 +1,128 @@
+package com.luv2Code.springboot.cruddemo.rest;
+
+import com.luv2Code.springboot.cruddemo.dao.EmployeeOutboxRepository;
+import com.luv2Code.springboot.cruddemo.dao.EmployeeRepository;
+import com.luv2Code.springboot.cruddemo.entity.Employee;
+import com.luv2Code.springboot.cruddemo.entity.EmployeeOutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the bulk DELETE and PATCH endpoints against the in-memory H2 database of the "smoke"
+ * profile and checks the outbox events they record.
+ */
+@SpringBootTest(properties = "app.warmup.enabled=false")
+@ActiveProfiles("smoke")
+@AutoConfigureMockMvc
+class EmployeeBulkChangesTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@Autowired
+	private EmployeeOutboxRepository outboxRepository;
+
+	@Test
+	void deleteRecordsOneEventPerDeletedEmployee() throws Exception {
+		List<Integer> ids = saveEmployees("Deleted", 2);
+
+		mockMvc.perform(delete("/api/employees").param("ids", ids.get(0) + "," + ids.get(1) + ",999999"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.affected").value(2));
+
+		assertThat(employeeRepository.findAllById(ids)).isEmpty();
+		assertThat(events(EmployeeOutboxEvent.EMPLOYEE_DELETED, ids))
+				.containsExactly("{\"id\":" + ids.get(0) + "}", "{\"id\":" + ids.get(1) + "}");
+
+		// Nothing left to delete, and no event for it
+		mockMvc.perform(delete("/api/employees/" + ids.get(0)))
+				.andExpect(status().isNotFound());
+		assertThat(events(EmployeeOutboxEvent.EMPLOYEE_DELETED, ids)).hasSize(2);
+	}
+
+	@Test
+	void patchRecordsOneEventPerUpdatedEmployee() throws Exception {
+		List<Integer> ids = saveEmployees("Patched", 3);
+
+		// The assignment changes the filtered column, so the events must be selected before the update
+		mockMvc.perform(patch("/api/employees").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"filter\": {\"lastName\": \"Patched\"}, \"set\": {\"lastName\": \"Renamed\"}}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.affected").value(3));
+
+		assertThat(employeeRepository.findAllById(ids)).extracting(Employee::getLastName).containsOnly("Renamed");
+		assertThat(events(EmployeeOutboxEvent.EMPLOYEE_UPDATED, ids)).containsExactlyElementsOf(ids.stream()
+				.map(id -> "{\"id\":" + id + ",\"set\":{\"lastName\":\"Renamed\"}}")
+				.toList());
+
+		mockMvc.perform(patch("/api/employees").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"filter\": {\"lastName\": \"Patched\"}, \"set\": {\"email\": \"x@luv2code.com\"}}"))
+				.andExpect(status().isNotFound());
+		assertThat(events(EmployeeOutboxEvent.EMPLOYEE_UPDATED, ids)).hasSize(3);
+	}
+
+	@Test
+	void rejectsValuesOfTheWrongType() throws Exception {
+		List<Integer> ids = saveEmployees("Typed", 1);
+
+		// Request body -> expected error message
+		Map<String, String> requests = Map.of(
+				"{\"filter\": {\"lastName\": \"Typed\"}, \"set\": {\"email\": 42}}",
+				"Employee field email needs a value of type String, not Integer",
+				"{\"filter\": {\"lastName\": \"Typed\"}, \"set\": {\"firstName\": [\"a\"]}}",
+				"Employee field firstName needs a value of type String, not ArrayList",
+				"{\"filter\": {\"id\": \"" + ids.get(0) + "\"}, \"set\": {\"email\": \"x@luv2code.com\"}}",
+				"Employee field id needs a value of type Integer, not String",
+				"{\"filter\": {\"id\": [" + ids.get(0) + ", \"two\"]}, \"set\": {\"email\": \"x@luv2code.com\"}}",
+				"Employee field id needs a value of type Integer, not String",
+				"{\"filter\": {\"lastName\": null}, \"set\": {\"email\": \"x@luv2code.com\"}}",
+				"Filter value of employee field lastName is null",
+				"{\"filter\": {\"salary\": 1}, \"set\": {\"email\": \"x@luv2code.com\"}}",
+				"Unsupported employee field - salary");
+		for (Map.Entry<String, String> request : requests.entrySet()) {
+			mockMvc.perform(patch("/api/employees").contentType(MediaType.APPLICATION_JSON).content(request.getKey()))
+					.andExpect(status().isBadRequest())
+					.andExpect(jsonPath("$.message").value(request.getValue()));
+		}
+
+		// Nothing was changed or recorded
+		assertThat(employeeRepository.findAllById(ids)).extracting(Employee::getEmail).containsOnly("typed1@luv2code.com");
+		assertThat(events(EmployeeOutboxEvent.EMPLOYEE_UPDATED, ids)).isEmpty();
+	}
+
+	private List<Integer> saveEmployees(String lastName, int count) {
+		return Stream.iterate(1, i -> i + 1).limit(count)
+				.map(i -> employeeRepository.save(new Employee("First" + i, lastName, lastName.toLowerCase() + i + "@luv2code.com")))
+				.map(Employee::getId)
+				.toList();
+	}
+
+	/**
+	 * The payloads of the events of the given type about the given employees, in outbox order.
+	 */
+	private List<String> events(String eventType, List<Integer> employeeIds) {
+		return outboxRepository.findAll().stream()
+				.filter(event -> event.getEventType().equals(eventType) && employeeIds.contains(event.getEmployeeId()))
+				.sorted((left, right) -> Long.compare(left.getId(), right.getId()))
+				.map(EmployeeOutboxEvent::getPayload)
+				.toList();
+	}
+}
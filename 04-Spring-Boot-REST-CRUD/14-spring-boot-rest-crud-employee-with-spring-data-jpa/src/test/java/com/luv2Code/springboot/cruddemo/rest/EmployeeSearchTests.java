@@ -0,0 +1,56 @@
+package com.luv2Code.springboot.cruddemo.rest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the parameter validation of GET /api/employees/search against the seed employees of
+ * the "smoke" profile. The FULLTEXT query itself needs MySQL and is not run here.
+ */
+@SpringBootTest(properties = "app.warmup.enabled=false")
+@ActiveProfiles("smoke")
+@AutoConfigureMockMvc
+class EmployeeSearchTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void searchesByPrefix() throws Exception {
+		mockMvc.perform(get("/api/employees/search").param("lastName", "Gu"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].lastName").value("Gupta"));
+
+		// A blank q is no free-text search
+		mockMvc.perform(get("/api/employees/search").param("q", " ").param("lastName", "Gu"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].lastName").value("Gupta"));
+	}
+
+	@Test
+	void rejectsQueryTextCombinedWithOtherParameters() throws Exception {
+		for (String parameter : new String[]{"firstName", "lastName", "email", "sort", "direction", "after", "afterId"}) {
+			mockMvc.perform(get("/api/employees/search").param("q", "gupta").param(parameter, "1"))
+					.andExpect(status().isBadRequest())
+					.andExpect(jsonPath("$.message").value(startsWith("q cannot be combined")));
+		}
+	}
+
+	@Test
+	void rejectsUnbalancedQueryText() throws Exception {
+		for (String q : new String[]{"\"avani gupta", "+(gupta -avani", "gupta)(", "\"(\" )"}) {
+			mockMvc.perform(get("/api/employees/search").param("q", q))
+					.andExpect(status().isBadRequest())
+					.andExpect(jsonPath("$.message").value(startsWith("Unbalanced quotes or parentheses")));
+		}
+	}
+}
@@ -0,0 +1,23 @@
+-- Outbox table for employee change events
+
+USE `employee_directory`;
+
+--
+-- Table structure for table `employee_outbox`
+--
+-- Rows are inserted in the same transaction as the employee change and
+-- relayed in id order; `published_at` stays NULL until the relay delivered them.
+--
+
+DROP TABLE IF EXISTS `employee_outbox`;
+
+CREATE TABLE `employee_outbox` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `employee_id` int DEFAULT NULL,
+  `event_type` varchar(45) NOT NULL,
+  `payload` text NOT NULL,
+  `created_at` timestamp(6) NOT NULL,
+  `published_at` timestamp(6) NULL DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_employee_outbox_pending` (`published_at`, `id`)
+) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=latin1;
@@ -0,0 +1,21 @@
+-- Indexes backing GET /api/employees/search
+
+USE `employee_directory`;
+
+--
+-- Prefix filters and keyset paging
+--
+-- Each index ends with the primary key, so "WHERE col LIKE 'x%' ORDER BY col, id"
+-- and the keyset condition "(col, id) > (?, ?)" are answered by one range scan
+-- without a filesort.
+--
+
+CREATE INDEX `idx_employee_first_name_id` ON `employee` (`first_name`, `id`);
+CREATE INDEX `idx_employee_last_name_id` ON `employee` (`last_name`, `id`);
+CREATE INDEX `idx_employee_email_id` ON `employee` (`email`, `id`);
+
+--
+-- Free-text search (the "q" parameter)
+--
+
+CREATE FULLTEXT INDEX `ft_employee_name_email` ON `employee` (`first_name`, `last_name`, `email`);
@@ -3,16 +3,16 @@ package com.luv2Code.springboot.cruddemo.security;
 
 // Import necessary Spring Security classes and annotations
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.provisioning.JdbcUserDetailsManager;
-import org.springframework.security.provisioning.UserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 
 /**
  * Security configuration class for the application.
@@ -24,36 +24,24 @@ import javax.sql.DataSource;
 public class DemoSecurityConfig {
 
     /**
-     * Configures a JDBC-based UserDetailsManager for managing user credentials and roles.
+     * Configures the UserDetailsService used to authenticate users from the database.
      * <p>
-     * This setup integrates Spring Security with a database for authentication and authorization.
-     * Custom SQL queries are provided to retrieve user information and roles.
+     * The member and all of their roles are read with a single joined query instead of
+     * the two queries JdbcUserDetailsManager would run, and the result is cached briefly
+     * so repeated authentications of the same user do not hit the database at all.
      *
-     * @param dataSource The DataSource object used to access the database.
-     *                   It is automatically configured by Spring Boot.
-     * @return An instance of JdbcUserDetailsManager for database-based authentication.
+     * @param dataSource      The DataSource object used to access the database.
+     *                        It is automatically configured by Spring Boot.
+     * @param cacheTtl        How long a loaded user stays cached.
+     * @param cacheMaxEntries Upper bound on the number of cached users.
+     * @return A caching, single-query UserDetailsService.
      */
     @Bean
-    public UserDetailsManager userDetailsManager(DataSource dataSource) {
-        // Create a JdbcUserDetailsManager with the provided DataSource
-        JdbcUserDetailsManager jdbcUserDetailsManager = new JdbcUserDetailsManager(dataSource);
-
-        // Define the query to fetch user details (username, password, and active status)
-        jdbcUserDetailsManager.setUsersByUsernameQuery(
-                "SELECT user_id, pw, active " + // Select columns for user details
-                        "FROM members " +      // From the "members" table
-                        "WHERE user_id = ?"    // Where the user_id matches the given parameter
-        );
-
-        // Define the query to fetch user roles
-        jdbcUserDetailsManager.setAuthoritiesByUsernameQuery(
-                "SELECT * " +                 // Select all columns (adjust for specific schema)
-                        "FROM roles " +       // From the "roles" table
-                        "WHERE user_id = ?"   // Where the user_id matches the given parameter
-        );
-
-        // Return the configured JdbcUserDetailsManager
-        return jdbcUserDetailsManager;
+    public CachingUserDetailsService userDetailsService(
+            DataSource dataSource,
+            @Value("${app.security.user-cache.ttl:60s}") Duration cacheTtl,
+            @Value("${app.security.user-cache.max-entries:1000}") int cacheMaxEntries) {
+        return new CachingUserDetailsService(new JoinedJdbcUserDetailsService(dataSource), cacheTtl, cacheMaxEntries);
     }
 
     /**
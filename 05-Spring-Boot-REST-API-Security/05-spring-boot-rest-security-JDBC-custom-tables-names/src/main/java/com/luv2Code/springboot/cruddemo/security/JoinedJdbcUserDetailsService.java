@@ -0,0 +1,78 @@
+// Define the package for the security configuration
+package com.luv2Code.springboot.cruddemo.security;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * UserDetailsService that loads a member and all of their roles with one joined query.
+ * <p>
+ * JdbcUserDetailsManager runs one query for the user and a second one for the authorities,
+ * i.e. two round trips per login. Here both come back in a single result set: one row per role,
+ * each repeating the member columns. Only the needed columns are selected, and the statement
+ * text never changes, so the driver's prepared statement cache can reuse it (see the
+ * "cachePrepStmts" settings in application.properties).
+ */
+public class JoinedJdbcUserDetailsService implements UserDetailsService {
+
+    private static final String USER_WITH_ROLES_QUERY =
+            "SELECT m.user_id, m.pw, m.active, r.role " +
+                    "FROM members m " +
+                    "LEFT JOIN roles r ON r.user_id = m.user_id " +
+                    "WHERE m.user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JoinedJdbcUserDetailsService(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails user = jdbcTemplate.query(USER_WITH_ROLES_QUERY, resultSet -> {
+            String userId = null;
+            String password = null;
+            boolean active = false;
+            List<GrantedAuthority> authorities = new ArrayList<>();
+
+            while (resultSet.next()) {
+                if (userId == null) {
+                    userId = resultSet.getString(1);
+                    password = resultSet.getString(2);
+                    active = resultSet.getBoolean(3);
+                }
+                String role = resultSet.getString(4);
+                if (role != null) {
+                    authorities.add(new SimpleGrantedAuthority(role));
+                }
+            }
+
+            if (userId == null) {
+                return null;
+            }
+            // Same rule as JdbcUserDetailsManager: a user without any role cannot log in
+            if (authorities.isEmpty()) {
+                throw new UsernameNotFoundException("User " + username + " has no GrantedAuthority");
+            }
+            return User.withUsername(userId)
+                    .password(password)
+                    .disabled(!active)
+                    .authorities(authorities)
+                    .build();
+        }, username);
+
+        if (user == null) {
+            throw new UsernameNotFoundException("User " + username + " not found");
+        }
+        return user;
+    }
+}
@@ -0,0 +1,146 @@
+package com.luv2Code.springboot.cruddemo.security;
+
+import com.luv2Code.springboot.cruddemo.security.CachingUserDetailsService.UserDetailsChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the expiry, invalidation and copying rules of CachingUserDetailsService.
+ */
+class CachingUserDetailsServiceTests {
+
+	private static final Duration TIME_TO_LIVE = Duration.ofSeconds(60);
+
+	private final MutableClock clock = new MutableClock();
+
+	// Usernames passed to the database, in call order
+	private final List<String> loads = new ArrayList<>();
+
+	private final UserDetailsService database = username -> {
+		loads.add(username);
+		if (username.equals("nobody")) {
+			throw new UsernameNotFoundException("User nobody not found");
+		}
+		return User.withUsername(username).password("{bcrypt}hash-" + loads.size()).roles("EMPLOYEE").build();
+	};
+
+	private final CachingUserDetailsService service = new CachingUserDetailsService(database, TIME_TO_LIVE, 2, clock);
+
+	@Test
+	void servesFromTheCacheUntilTheTimeToLiveEnds() {
+		assertThat(service.loadUserByUsername("john").getPassword()).isEqualTo("{bcrypt}hash-1");
+
+		clock.advance(TIME_TO_LIVE.minusMillis(1));
+		assertThat(service.loadUserByUsername("john").getPassword()).isEqualTo("{bcrypt}hash-1");
+		assertThat(loads).containsExactly("john");
+
+		clock.advance(Duration.ofMillis(1));
+		assertThat(service.loadUserByUsername("john").getPassword()).isEqualTo("{bcrypt}hash-2");
+		assertThat(loads).containsExactly("john", "john");
+	}
+
+	@Test
+	void evictsOnUserDetailsChangedEvent() {
+		// The @EventListener method is only called when the service is a bean
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.registerBean(CachingUserDetailsService.class, () -> service);
+			context.refresh();
+
+			service.loadUserByUsername("john");
+			service.loadUserByUsername("mary");
+
+			// One user
+			context.publishEvent(new UserDetailsChangedEvent("john"));
+			service.loadUserByUsername("john");
+			service.loadUserByUsername("mary");
+			assertThat(loads).containsExactly("john", "mary", "john");
+
+			// Everyone
+			context.publishEvent(new UserDetailsChangedEvent(null));
+			service.loadUserByUsername("john");
+			service.loadUserByUsername("mary");
+			assertThat(loads).containsExactly("john", "mary", "john", "john", "mary");
+		}
+	}
+
+	@Test
+	void handsOutCopies() {
+		UserDetails first = service.loadUserByUsername("john");
+		// What ProviderManager does after a successful authentication
+		((CredentialsContainer) first).eraseCredentials();
+		assertThat(first.getPassword()).isNull();
+
+		UserDetails second = service.loadUserByUsername("john");
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getPassword()).isEqualTo("{bcrypt}hash-1");
+		assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_EMPLOYEE");
+		assertThat(loads).containsExactly("john");
+	}
+
+	@Test
+	void staysWithinMaxEntries() {
+		service.loadUserByUsername("john");
+		service.loadUserByUsername("mary");
+
+		// Full with live entries: the third user is loaded every time
+		service.loadUserByUsername("susan");
+		service.loadUserByUsername("susan");
+		assertThat(loads).containsExactly("john", "mary", "susan", "susan");
+
+		// Expired entries make room again
+		clock.advance(TIME_TO_LIVE);
+		service.loadUserByUsername("susan");
+		service.loadUserByUsername("susan");
+		assertThat(loads).containsExactly("john", "mary", "susan", "susan", "susan");
+	}
+
+	@Test
+	void doesNotCacheUnknownUsers() {
+		assertThatThrownBy(() -> service.loadUserByUsername("nobody")).isInstanceOf(UsernameNotFoundException.class);
+		assertThatThrownBy(() -> service.loadUserByUsername("nobody")).isInstanceOf(UsernameNotFoundException.class);
+		assertThat(loads).containsExactly("nobody", "nobody");
+	}
+
+	/**
+	 * A clock that only moves when told to.
+	 */
+	private static final class MutableClock extends Clock {
+
+		private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
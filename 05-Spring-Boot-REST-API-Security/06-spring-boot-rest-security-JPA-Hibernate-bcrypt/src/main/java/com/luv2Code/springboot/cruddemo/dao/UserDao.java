@@ -5,4 +5,6 @@ import com.luv2Code.springboot.cruddemo.entity.User;
 public interface UserDao {
 
     User findByUserName(String userName);
+
+    int updatePassword(String userName, String encodedPassword);
 }
@@ -8,6 +8,7 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Implementation of the UserDAO interface using JPA.
@@ -80,4 +81,25 @@ public class UserDaoImpl implements UserDao {
         // Return the result (either a User object or null)
         return user;
     }
+
+    /**
+     * Replaces the stored password hash of a user.
+     * <p>
+     * Runs as a single JPQL UPDATE, so the User entity and its roles are not loaded again.
+     *
+     * @param userName        The user whose password hash is replaced.
+     * @param encodedPassword The new, already encoded password hash.
+     * @return The number of updated rows (0 if the user does not exist).
+     */
+    @Override
+    @Transactional
+    public int updatePassword(String userName, String encodedPassword) {
+        return entityManager.createQuery(
+                        "UPDATE User " +
+                                "SET password = :pPassword " +
+                                "WHERE userName = :pUserName")
+                .setParameter("pPassword", encodedPassword)
+                .setParameter("pUserName", userName)
+                .executeUpdate();
+    }
 }
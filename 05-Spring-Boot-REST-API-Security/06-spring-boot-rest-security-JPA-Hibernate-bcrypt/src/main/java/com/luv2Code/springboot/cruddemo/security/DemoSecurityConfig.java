@@ -4,6 +4,8 @@ package com.luv2Code.springboot.cruddemo.security;
 // Import necessary Spring Security classes and annotations
 
 import com.luv2Code.springboot.cruddemo.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -11,7 +13,13 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.time.Duration;
+import java.util.Map;
 
 
 /**
@@ -26,16 +34,39 @@ public class DemoSecurityConfig {
     // Define beans for password encoding and authentication.
 
     /**
-     * Provides a BCrypt password encoder bean.
+     * Provides the password encoder bean.
+     * <p>
+     * New hashes are written as "{bcrypt}..." with a strength calibrated at startup so one hash
+     * takes about the configured target latency on this machine. Older hashes without the
+     * "{bcrypt}" prefix (like the seed data) are still checked with BCrypt, and report that
+     * they need an upgrade, so the authentication provider rehashes them on the next login.
      * <p>
-     * This bean is used to hash and verify user passwords securely.
-     * BCrypt adds a unique salt to each password and is resistant to brute-force attacks.
+     * All hashing runs on a bounded dedicated thread pool (see BoundedPasswordEncoder).
      *
-     * @return A BCryptPasswordEncoder instance.
+     * @param targetLatency  The time one hash should take.
+     * @param minStrength    The lowest BCrypt strength ever used for new hashes.
+     * @param maxStrength    The highest BCrypt strength ever used for new hashes.
+     * @param hashThreads    Number of hashing threads (0 = one per CPU core).
+     * @param queueCapacity  Number of hashing requests that may wait for a thread.
+     * @param waitTimeout    Longest time a login waits for its hash.
+     * @return A delegating BCrypt encoder running on the hashing pool.
      */
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.security.password.target-latency:250ms}") Duration targetLatency,
+            @Value("${app.security.password.min-strength:10}") int minStrength,
+            @Value("${app.security.password.max-strength:14}") int maxStrength,
+            @Value("${app.security.password.hash-threads:0}") int hashThreads,
+            @Value("${app.security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password.wait-timeout:5s}") Duration waitTimeout) {
+        int strength = BCryptStrengthCalibrator.calibrate(targetLatency, minStrength, maxStrength);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+
+        DelegatingPasswordEncoder delegatingEncoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        // Stored hashes without an "{id}" prefix are plain BCrypt hashes
+        delegatingEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(delegatingEncoder, hashThreads, queueCapacity, waitTimeout);
     }
 
     /**
@@ -46,56 +77,116 @@ public class DemoSecurityConfig {
      * with a custom `UserService`, which implements `UserDetailsService` to fetch user credentials
      * and roles from a data source.
      * <p>
-     * Password validation is performed using the `BCryptPasswordEncoder` for secure password storage
-     * and verification.
+     * Password validation is performed using the calibrated BCrypt `passwordEncoder`. When a stored
+     * hash is weaker than the current strength, the provider rehashes the presented password after a
+     * successful login and stores it through the `UserService` (a `UserDetailsPasswordService`).
      *
-     * @param userService The custom `UserService` implementation that provides user data and roles.
-     *                    This service is responsible for fetching user details from the database or another source.
+     * @param userService     The custom `UserService` implementation that provides user data and roles.
+     *                        This service is responsible for fetching user details from the database or another source.
+     * @param passwordEncoder The password encoder used to verify and rehash passwords.
      * @return A fully configured `DaoAuthenticationProvider` instance ready for use in authentication processes.
      */
     @Bean
-    public DaoAuthenticationProvider authenticationProvider(UserService userService) {
+    public DaoAuthenticationProvider authenticationProvider(UserService userService, PasswordEncoder passwordEncoder) {
         // Create an instance of DaoAuthenticationProvider
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
 
         // Set the custom UserDetailsService to load user data from the UserService
         authProvider.setUserDetailsService(userService);
 
-        // Set the password encoder to BCryptPasswordEncoder for hashing and validating passwords
-        authProvider.setPasswordEncoder(passwordEncoder());
+        // Set the password encoder for hashing and validating passwords
+        authProvider.setPasswordEncoder(passwordEncoder);
+
+        // Store upgraded hashes after a successful login
+        authProvider.setUserDetailsPasswordService(userService);
 
         // Return the configured authentication provider
         return authProvider;
     }
 
 
+    /**
+     * Compiles the role-based access rules into a single AuthorizationManager.
+     * <p>
+     * The rules are the same as a chain of requestMatchers(method, path).hasRole(role) calls,
+     * but are matched through a method + path trie and checked with a role bit mask.
+     * Requests matched by no rule, including all other actuator endpoints, are denied.
+     *
+     * @param roleIndex The index assigning each role a bit of the role mask.
+     * @return The compiled authorization rules.
+     */
+    @Bean
+    public CompiledAuthorizationManager employeeAuthorizationManager(RoleIndex roleIndex) {
+        return CompiledAuthorizationManager.builder(roleIndex)
+                // Allow only users with the EMPLOYEE role to access GET endpoints for employees
+                .rule(HttpMethod.GET, "/api/employees", "EMPLOYEE")
+                .rule(HttpMethod.GET, "/api/employees/**", "EMPLOYEE")
+                // Allow only users with the MANAGER role to create or update employees
+                .rule(HttpMethod.POST, "/api/employees", "MANAGER")
+                .rule(HttpMethod.PUT, "/api/employees", "MANAGER")
+                // Allow only users with the ADMIN role to delete employees
+                .rule(HttpMethod.DELETE, "/api/employees/**", "ADMIN")
+                // Every user may check that the application is up; only details-free status is shown
+                .rule(HttpMethod.GET, "/actuator/health", "EMPLOYEE")
+                // Only users with the ADMIN role may read metrics such as auth.throttle.*
+                .rule(HttpMethod.GET, "/actuator/metrics/**", "ADMIN")
+                .build();
+    }
+
+    /**
+     * Token buckets limiting authentication attempts per client IP and per username.
+     *
+     * @param ipCapacity             Failed attempts one IP may make in a burst.
+     * @param ipRefillInterval       Time after which an IP regains one attempt.
+     * @param usernameCapacity       Failed attempts one username may receive in a burst.
+     * @param usernameRefillInterval Time after which a username regains one attempt.
+     * @param maxKeys                Upper bound on the tracked IPs and on the tracked usernames.
+     * @param stripes                Number of independently locked LRU maps per key type.
+     * @param meterRegistry          Registry receiving the auth.throttle.* metrics.
+     * @return The shared login throttle.
+     */
+    @Bean
+    public LoginThrottle loginThrottle(
+            @Value("${app.security.login-throttle.ip.capacity:20}") int ipCapacity,
+            @Value("${app.security.login-throttle.ip.refill-interval:3s}") Duration ipRefillInterval,
+            @Value("${app.security.login-throttle.username.capacity:5}") int usernameCapacity,
+            @Value("${app.security.login-throttle.username.refill-interval:30s}") Duration usernameRefillInterval,
+            @Value("${app.security.login-throttle.max-keys:100000}") int maxKeys,
+            @Value("${app.security.login-throttle.stripes:64}") int stripes,
+            MeterRegistry meterRegistry) {
+        return new LoginThrottle(
+                new LoginThrottle.Limit(ipCapacity, ipRefillInterval),
+                new LoginThrottle.Limit(usernameCapacity, usernameRefillInterval),
+                maxKeys, stripes, meterRegistry);
+    }
+
     /**
      * Configures security filters and authorization rules for the application.
      * <p>
      * This method defines the security behavior for various API endpoints, enabling HTTP Basic Authentication
      * and applying role-based access control. CSRF protection is disabled to simplify API interactions.
      *
-     * @param httpSecurity A Spring Security object for configuring HTTP security settings.
+     * @param httpSecurity                 A Spring Security object for configuring HTTP security settings.
+     * @param employeeAuthorizationManager The compiled role-based access rules.
+     * @param loginThrottle                Limits authentication attempts before any password hashing.
      * @return A configured SecurityFilterChain that defines the security behavior.
      * @throws Exception If an error occurs during configuration.
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity httpSecurity) throws Exception {
-        // Configure authorization rules for HTTP requests
+    public SecurityFilterChain filterChain(HttpSecurity httpSecurity,
+                                           CompiledAuthorizationManager employeeAuthorizationManager,
+                                           LoginThrottle loginThrottle) throws Exception {
+        // Evaluate every request against the compiled rule table
         httpSecurity.authorizeHttpRequests(auth -> auth
-                // Allow only users with the EMPLOYEE role to access GET endpoints for employees
-                .requestMatchers(HttpMethod.GET, "/api/employees").hasRole("EMPLOYEE")
-                .requestMatchers(HttpMethod.GET, "/api/employees/**").hasRole("EMPLOYEE")
-                // Allow only users with the MANAGER role to create or update employees
-                .requestMatchers(HttpMethod.POST, "/api/employees").hasRole("MANAGER")
-                .requestMatchers(HttpMethod.PUT, "/api/employees").hasRole("MANAGER")
-                // Allow only users with the ADMIN role to delete employees
-                .requestMatchers(HttpMethod.DELETE, "/api/employees/**").hasRole("ADMIN")
+                .anyRequest().access(employeeAuthorizationManager)
         );
 
         // Configure HTTP Basic Authentication for verifying user identity
         httpSecurity.httpBasic(Customizer.withDefaults());
 
+        // Reject over-limit credentials before BasicAuthenticationFilter hashes the password
+        httpSecurity.addFilterBefore(LoginThrottlingFilter.forHttpBasic(loginThrottle), BasicAuthenticationFilter.class);
+
         // Disable CSRF protection for stateless REST APIs
         httpSecurity.csrf(csrf -> csrf.disable());
 
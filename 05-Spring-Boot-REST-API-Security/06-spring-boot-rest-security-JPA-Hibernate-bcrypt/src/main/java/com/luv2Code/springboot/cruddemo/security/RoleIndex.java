@@ -0,0 +1,58 @@
+// Define the package for the security configuration
+package com.luv2Code.springboot.cruddemo.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns every authority name (e.g. "ROLE_EMPLOYEE") a bit in a 64-bit mask.
+ * <p>
+ * A user's roles are turned into a mask once, when the user is loaded, and an access rule
+ * is turned into a mask once, when the rule table is compiled. Checking a rule is then a
+ * single AND instead of a scan over the user's GrantedAuthority collection.
+ */
+@Component
+public class RoleIndex {
+
+    // At most 64 distinct authorities fit into a long
+    private static final int MAX_ROLES = Long.SIZE;
+
+    private final Map<String, Long> bits = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextBit = new AtomicInteger();
+
+    /**
+     * Returns the bit of an authority, assigning the next free bit on first use.
+     *
+     * @param authority The authority name, including the "ROLE_" prefix.
+     * @return A mask with exactly one bit set.
+     */
+    public long bitOf(String authority) {
+        return bits.computeIfAbsent(authority, name -> {
+            int bit = nextBit.getAndIncrement();
+            if (bit >= MAX_ROLES) {
+                throw new IllegalStateException("More than " + MAX_ROLES + " distinct roles, cannot index " + name);
+            }
+            return 1L << bit;
+        });
+    }
+
+    /**
+     * Combines the bits of all given authorities.
+     *
+     * @param authorities The authorities of a user.
+     * @return The role mask of the user.
+     */
+    public long maskOf(Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0L;
+        for (GrantedAuthority authority : authorities) {
+            mask |= bitOf(authority.getAuthority());
+        }
+        return mask;
+    }
+}
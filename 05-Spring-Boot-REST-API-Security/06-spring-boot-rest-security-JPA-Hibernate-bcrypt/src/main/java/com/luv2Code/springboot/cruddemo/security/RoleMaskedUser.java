@@ -0,0 +1,30 @@
+// Define the package for the security configuration
+package com.luv2Code.springboot.cruddemo.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Spring Security User that also carries its role mask (see {@link RoleIndex}).
+ * <p>
+ * The mask is computed once when the user is loaded and travels with the principal of the
+ * Authentication, so the authorization check never has to walk the authorities again.
+ */
+public class RoleMaskedUser extends User {
+
+    private final long roleMask;
+
+    public RoleMaskedUser(String username, String password,
+                          Collection<? extends GrantedAuthority> authorities, long roleMask) {
+        super(username, password, authorities);
+        this.roleMask = roleMask;
+    }
+
+    public long getRoleMask() {
+        return roleMask;
+    }
+
+    // equals/hashCode are inherited from User and rely on the username only
+}
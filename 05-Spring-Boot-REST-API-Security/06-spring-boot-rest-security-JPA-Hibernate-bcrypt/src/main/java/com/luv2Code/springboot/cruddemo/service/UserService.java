@@ -1,9 +1,10 @@
 package com.luv2Code.springboot.cruddemo.service;
 
 import com.luv2Code.springboot.cruddemo.entity.User;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
-public interface UserService extends UserDetailsService {
+public interface UserService extends UserDetailsService, UserDetailsPasswordService {
 
     User findByUserName(String userName);
 }
@@ -0,0 +1,105 @@
+package com.luv2Code.springboot.cruddemo.security;
+
+import com.luv2Code.springboot.cruddemo.entity.Role;
+import com.luv2Code.springboot.cruddemo.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Starts the application on an in-memory H2 database and checks who may read the actuator
+ * endpoints exposed in application.properties.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:users;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		// Cheap hashes, the calibration is not under test here
+		"app.security.password.min-strength=4",
+		"app.security.password.max-strength=4"
+})
+@AutoConfigureMockMvc
+class ActuatorAccessTests {
+
+	private static final String PASSWORD = "test123";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@BeforeEach
+	void createUsers() {
+		transactionTemplate.executeWithoutResult(status -> {
+			if (entityManager.createQuery("FROM User", User.class).getResultList().isEmpty()) {
+				Role employee = new Role("ROLE_EMPLOYEE");
+				Role admin = new Role("ROLE_ADMIN");
+				entityManager.persist(new User("john", passwordEncoder.encode(PASSWORD), true, List.of(employee)));
+				entityManager.persist(new User("susan", passwordEncoder.encode(PASSWORD), true, List.of(employee, admin)));
+			}
+		});
+	}
+
+	@Test
+	void adminReadsTheLoginThrottleMeters() throws Exception {
+		// One successful login, so auth.throttle.allowed has counted something
+		mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, basic("susan")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.names", hasItem("auth.throttle.allowed")))
+				.andExpect(jsonPath("$.names", hasItem("auth.throttle.rejected")))
+				.andExpect(jsonPath("$.names", hasItem("auth.throttle.tracked.keys")));
+
+		mockMvc.perform(get("/actuator/metrics/auth.throttle.allowed").header(HttpHeaders.AUTHORIZATION, basic("susan")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.measurements[0].statistic").value("COUNT"))
+				.andExpect(jsonPath("$.measurements[0].value").value(greaterThan(0.0)));
+
+		mockMvc.perform(get("/actuator/metrics/auth.throttle.tracked.keys").param("tag", "scope:ip")
+						.header(HttpHeaders.AUTHORIZATION, basic("susan")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.measurements[0].value").value(greaterThan(0.0)));
+	}
+
+	@Test
+	void employeeOnlySeesHealth() throws Exception {
+		mockMvc.perform(get("/actuator/health").header(HttpHeaders.AUTHORIZATION, basic("john")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("UP"));
+		mockMvc.perform(get("/actuator/metrics/auth.throttle.allowed").header(HttpHeaders.AUTHORIZATION, basic("john")))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void anonymousSeesNothing() throws Exception {
+		mockMvc.perform(get("/actuator/health"))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/metrics"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	private static String basic(String username) {
+		return "Basic " + HttpHeaders.encodeBasicAuth(username, PASSWORD, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,74 @@
+package com.luv2Code.springboot.cruddemo.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.function.IntToLongFunction;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks how BCryptStrengthCalibrator turns timed hashes into a strength.
+ */
+class BCryptStrengthCalibratorTests {
+
+	private static final Duration TARGET = Duration.ofMillis(250);
+
+	@Test
+	void picksTheStrongestStrengthWhoseMedianFits() {
+		// Strength -> timed hashes in ms; one slow outlier at 11 and one fast outlier at 12
+		HashTimes times = new HashTimes(Map.of(
+				11, LongStream.of(100, 900, 100, 100),
+				12, LongStream.of(260, 200, 260, 260)));
+
+		assertThat(BCryptStrengthCalibrator.calibrate(TARGET, 10, 14, times)).isEqualTo(11);
+		// Strength 10 is the minimum and is never timed; each decision stops at a majority of 3
+		assertThat(times.timed).containsExactly(11, 11, 11, 11, 12, 12, 12, 12);
+	}
+
+	@Test
+	void staysWithinTheBounds() {
+		HashTimes fast = new HashTimes(Map.of(11, LongStream.of(1, 1, 1), 12, LongStream.of(1, 1, 1)));
+		assertThat(BCryptStrengthCalibrator.calibrate(TARGET, 10, 12, fast)).isEqualTo(12);
+
+		HashTimes slow = new HashTimes(Map.of(11, LongStream.of(999, 999, 999)));
+		assertThat(BCryptStrengthCalibrator.calibrate(TARGET, 10, 14, slow)).isEqualTo(10);
+
+		assertThatThrownBy(() -> BCryptStrengthCalibrator.calibrate(TARGET, 3, 10)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> BCryptStrengthCalibrator.calibrate(TARGET, 12, 11)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void timesRealHashes() {
+		assertThat(BCryptStrengthCalibrator.calibrate(Duration.ofNanos(1), 4, 6)).isEqualTo(4);
+		assertThat(BCryptStrengthCalibrator.calibrate(Duration.ofMinutes(1), 4, 6)).isEqualTo(6);
+	}
+
+	/**
+	 * Hands out fixed hash times per strength and records which strengths were timed.
+	 */
+	private static final class HashTimes implements IntToLongFunction {
+
+		private final Map<Integer, PrimitiveIterator.OfLong> millis;
+
+		private final List<Integer> timed = new ArrayList<>();
+
+		HashTimes(Map<Integer, LongStream> millis) {
+			this.millis = new HashMap<>();
+			millis.forEach((strength, times) -> this.millis.put(strength, times.iterator()));
+		}
+
+		@Override
+		public long applyAsLong(int strength) {
+			timed.add(strength);
+			return Duration.ofMillis(millis.get(strength).nextLong()).toNanos();
+		}
+	}
+}
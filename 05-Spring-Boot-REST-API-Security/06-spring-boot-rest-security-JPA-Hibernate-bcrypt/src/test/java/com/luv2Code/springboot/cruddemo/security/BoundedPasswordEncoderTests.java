@@ -0,0 +1,174 @@
+package com.luv2Code.springboot.cruddemo.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Checks the hashing pool of BoundedPasswordEncoder and the "{bcrypt}" setup of DemoSecurityConfig.
+ */
+class BoundedPasswordEncoderTests {
+
+	private static final String PASSWORD = "test123";
+
+	@Test
+	void delegatesOnTheHashingThreads() {
+		List<String> calls = new ArrayList<>();
+		PasswordEncoder delegate = new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				calls.add("encode " + rawPassword + " on " + Thread.currentThread().getName());
+				return "hash";
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				calls.add("matches " + rawPassword + " " + encodedPassword + " on " + Thread.currentThread().getName());
+				return true;
+			}
+
+			@Override
+			public boolean upgradeEncoding(String encodedPassword) {
+				calls.add("upgradeEncoding " + encodedPassword + " on " + Thread.currentThread().getName());
+				return true;
+			}
+		};
+
+		try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(5))) {
+			assertThat(encoder.encode(PASSWORD)).isEqualTo("hash");
+			assertThat(encoder.matches(PASSWORD, "hash")).isTrue();
+			assertThat(encoder.upgradeEncoding("hash")).isTrue();
+		}
+		assertThat(calls).containsExactly(
+				"encode test123 on password-hash-1",
+				"matches test123 hash on password-hash-1",
+				"upgradeEncoding hash on " + Thread.currentThread().getName());
+	}
+
+	@Test
+	void rejectsChecksBeyondTheQueue() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		PasswordEncoder blocking = new BlockingEncoder(running, release);
+
+		// Two request threads that wait for their checks
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+		try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, Duration.ofSeconds(10))) {
+			// One check on the only hashing thread, one waiting in the queue
+			CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> encoder.matches(PASSWORD, "hash"), callers);
+			running.await();
+			AtomicReference<Thread> queuedCaller = new AtomicReference<>();
+			CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> {
+				queuedCaller.set(Thread.currentThread());
+				return encoder.matches(PASSWORD, "hash");
+			}, callers);
+			// The caller waits for its result once the task is queued
+			await().until(() -> queuedCaller.get() != null && queuedCaller.get().getState() == Thread.State.TIMED_WAITING);
+
+			assertThatThrownBy(() -> encoder.matches(PASSWORD, "hash"))
+					.isInstanceOf(AuthenticationServiceException.class)
+					.hasMessageContaining("Too many concurrent password checks");
+
+			release.countDown();
+			assertThat(first.get()).isTrue();
+			assertThat(queued.get()).isTrue();
+		} finally {
+			callers.shutdownNow();
+		}
+	}
+
+	@Test
+	void givesUpAfterTheTimeout() {
+		CountDownLatch release = new CountDownLatch(1);
+		try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+				new BlockingEncoder(new CountDownLatch(1), release), 1, 1, Duration.ofMillis(50))) {
+			assertThatThrownBy(() -> encoder.matches(PASSWORD, "hash"))
+					.isInstanceOf(AuthenticationServiceException.class)
+					.hasMessageContaining("timed out");
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void upgradesLegacyAndWeakerHashesToBcryptPrefix() {
+		try (BoundedPasswordEncoder encoder = new DemoSecurityConfig().passwordEncoder(
+				Duration.ofMillis(1), 5, 5, 1, 4, Duration.ofSeconds(5))) {
+			// Seed data hashes have no "{bcrypt}" prefix, older ones may have a lower strength
+			String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+			String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD);
+			String current = encoder.encode(PASSWORD);
+
+			assertThat(current).startsWith("{bcrypt}$2a$05$");
+			assertThat(encoder.matches(PASSWORD, legacy)).isTrue();
+			assertThat(encoder.matches(PASSWORD, weaker)).isTrue();
+			assertThat(encoder.matches(PASSWORD, current)).isTrue();
+			assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+			assertThat(encoder.upgradeEncoding(weaker)).isTrue();
+			assertThat(encoder.upgradeEncoding(current)).isFalse();
+
+			// A login with the legacy hash stores a current one
+			AtomicReference<String> stored = new AtomicReference<>();
+			DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+			provider.setUserDetailsService(username -> User.withUsername(username).password(legacy).roles("EMPLOYEE").build());
+			provider.setPasswordEncoder(encoder);
+			provider.setUserDetailsPasswordService((UserDetails user, String newPassword) -> {
+				stored.set(newPassword);
+				return User.withUserDetails(user).password(newPassword).build();
+			});
+			provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("john", PASSWORD));
+
+			assertThat(stored.get()).startsWith("{bcrypt}$2a$05$");
+			assertThat(encoder.matches(PASSWORD, stored.get())).isTrue();
+		}
+	}
+
+	/**
+	 * Blocks every check until released.
+	 */
+	private static final class BlockingEncoder implements PasswordEncoder {
+
+		private final CountDownLatch running;
+
+		private final CountDownLatch release;
+
+		BlockingEncoder(CountDownLatch running, CountDownLatch release) {
+			this.running = running;
+			this.release = release;
+		}
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			running.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.luv2Code.springboot.cruddemo.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the rule table of DemoSecurityConfig as compiled by CompiledAuthorizationManager.
+ */
+class CompiledAuthorizationManagerTests {
+
+	private static final Authentication ANONYMOUS = new AnonymousAuthenticationToken(
+			"key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+	private static final Authentication EMPLOYEE = user("ROLE_EMPLOYEE");
+
+	private static final Authentication ADMIN = user("ROLE_EMPLOYEE", "ROLE_MANAGER", "ROLE_ADMIN");
+
+	private final CompiledAuthorizationManager manager = new DemoSecurityConfig().employeeAuthorizationManager(new RoleIndex());
+
+	@Test
+	void grantsMatchingRole() {
+		assertThat(isGranted(EMPLOYEE, "GET", "/api/employees")).isTrue();
+		assertThat(isGranted(EMPLOYEE, "GET", "/api/employees/1")).isTrue();
+		assertThat(isGranted(ADMIN, "DELETE", "/api/employees/1")).isTrue();
+	}
+
+	@Test
+	void deniesMissingRole() {
+		assertThat(isGranted(EMPLOYEE, "POST", "/api/employees")).isFalse();
+		assertThat(isGranted(EMPLOYEE, "DELETE", "/api/employees/1")).isFalse();
+		assertThat(isGranted(ANONYMOUS, "GET", "/api/employees")).isFalse();
+	}
+
+	@Test
+	void deniesRequestsMatchedByNoRule() {
+		assertThat(isGranted(ADMIN, "GET", "/actuator/env")).isFalse();
+		assertThat(isGranted(ADMIN, "POST", "/actuator/metrics")).isFalse();
+		assertThat(isGranted(ADMIN, "PATCH", "/api/employees")).isFalse();
+	}
+
+	@Test
+	void grantsActuatorEndpointsByRole() {
+		assertThat(isGranted(EMPLOYEE, "GET", "/actuator/health")).isTrue();
+		assertThat(isGranted(ANONYMOUS, "GET", "/actuator/health")).isFalse();
+		assertThat(isGranted(ADMIN, "GET", "/actuator/metrics")).isTrue();
+		assertThat(isGranted(ADMIN, "GET", "/actuator/metrics/auth.throttle.allowed")).isTrue();
+		assertThat(isGranted(EMPLOYEE, "GET", "/actuator/metrics/auth.throttle.allowed")).isFalse();
+		assertThat(isGranted(ANONYMOUS, "GET", "/actuator/metrics")).isFalse();
+	}
+
+	@Test
+	void matchesDecodedPath() {
+		// "%65" is "e": the rule for "/api/employees/**" must apply, not "no rule"
+		assertThat(isGranted(EMPLOYEE, "DELETE", "/api/%65mployees/1")).isFalse();
+		assertThat(isGranted(ADMIN, "DELETE", "/api/%65mployees/1")).isTrue();
+		assertThat(isGranted(EMPLOYEE, "GET", "/api/%65mployees")).isTrue();
+		// ";" parameters are not part of the matched segment
+		assertThat(isGranted(EMPLOYEE, "DELETE", "/api/employees;v=1/1")).isFalse();
+		assertThat(isGranted(ADMIN, "DELETE", "/api/employees;v=1/1")).isTrue();
+		// "//" is merged, as by the servlet container
+		assertThat(isGranted(EMPLOYEE, "DELETE", "/api//employees/1")).isFalse();
+		assertThat(isGranted(EMPLOYEE, "GET", "//api/employees")).isTrue();
+	}
+
+	@Test
+	void deniesDotSegments() {
+		assertThat(isGranted(ADMIN, "GET", "/api/employees/../../actuator/env")).isFalse();
+		assertThat(isGranted(ADMIN, "GET", "/api/employees/%2e%2e/%2e%2e/actuator/env")).isFalse();
+		assertThat(isGranted(ADMIN, "GET", "/api/employees/./1")).isFalse();
+	}
+
+	@Test
+	void agreesWithPathPattern() {
+		String[] paths = {"/", "/api", "/api/employees", "/api/employees/", "/api/employees/1", "/api/employees/1/x",
+				"/api/employee", "/api/employeesX", "/API/employees", "/api/%65mployees/7"};
+		for (String path : paths) {
+			boolean employeesMatch = PathPatternParser.defaultInstance.parse("/api/employees")
+					.matches(PathContainer.parsePath(path))
+					|| PathPatternParser.defaultInstance.parse("/api/employees/**").matches(PathContainer.parsePath(path));
+			assertThat(isGranted(EMPLOYEE, "GET", path)).as(path).isEqualTo(employeesMatch);
+		}
+	}
+
+	private boolean isGranted(Authentication user, String method, String uri) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+		AuthorizationDecision decision = manager.check(() -> user, new RequestAuthorizationContext(request));
+		assertThat(decision).as("%s %s", method, uri).isNotNull();
+		return decision.isGranted();
+	}
+
+	private static Authentication user(String... roles) {
+		return UsernamePasswordAuthenticationToken.authenticated("user", "n/a", AuthorityUtils.createAuthorityList(roles));
+	}
+}
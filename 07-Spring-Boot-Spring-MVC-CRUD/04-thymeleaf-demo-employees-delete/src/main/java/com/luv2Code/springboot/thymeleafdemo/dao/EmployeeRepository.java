@@ -4,9 +4,16 @@ package com.luv2Code.springboot.thymeleafdemo.dao;
 // Import necessary classes
 
 import com.luv2Code.springboot.thymeleafdemo.model.Employee;
+import com.luv2Code.springboot.thymeleafdemo.model.EmployeeRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Employee entity.
@@ -40,4 +47,27 @@ public interface EmployeeRepository extends JpaRepository<Employee, Integer> {
      * www.luv2code.com/query-methods
      */
     List<Employee> findAllByOrderByLastNameAsc();
+
+    /**
+     * One page of the employees ordered by last name.
+     * <p>
+     * Runs a LIMIT/OFFSET query for the page plus a COUNT query for the total number of pages.
+     * A sort passed in the Pageable (e.g. by id) is appended to the ORDER BY as a tie-breaker.
+     *
+     * @param pageable The page number and page size.
+     * @return The requested page of employees.
+     */
+    Page<Employee> findAllByOrderByLastNameAsc(Pageable pageable);
+
+    /**
+     * Streams all employees ordered by last name as read-only rows.
+     * <p>
+     * A fetch size of Integer.MIN_VALUE makes MySQL Connector/J stream the result set row by row
+     * instead of loading it into memory. The stream holds an open cursor: it must be consumed
+     * inside a transaction and closed afterwards.
+     *
+     * @return A stream of EmployeeRow projections.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    Stream<EmployeeRow> streamAllByOrderByLastNameAsc();
 }
@@ -5,11 +5,20 @@ package com.luv2Code.springboot.thymeleafdemo.service;
 
 import com.luv2Code.springboot.thymeleafdemo.dao.EmployeeRepository;
 import com.luv2Code.springboot.thymeleafdemo.model.Employee;
+import com.luv2Code.springboot.thymeleafdemo.model.EmployeeRow;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service implementation class for EmployeeService.
@@ -23,6 +32,10 @@ public class EmployeeServiceImpl implements EmployeeService {
     // Define a field for the EmployeeRepository to handle data access operations
     private EmployeeRepository employeeRepository;
 
+    // Bumped after every change of the employee data; seeded with the start time so that
+    // versions (and the ETags built from them) are not reused after a restart
+    private final AtomicLong dataVersion = new AtomicLong(System.currentTimeMillis());
+
     /**
      * Constructor for injecting the EmployeeRepository dependency.
      * <p>
@@ -48,6 +61,48 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employeeRepository.findAllByOrderByLastNameAsc();
     }
 
+    /**
+     * Retrieves one page of employees ordered by last name (ties broken by ID).
+     *
+     * @param page The zero-based page number.
+     * @param size The number of employees per page.
+     * @return The requested page of Employee objects.
+     */
+    @Override
+    public Page<Employee> findPage(int page, int size) {
+        return employeeRepository.findAllByOrderByLastNameAsc(PageRequest.of(page, size, Sort.by("id")));
+    }
+
+    /**
+     * Streams all employees ordered by last name to the given consumer.
+     * <p>
+     * The rows are read from an open database cursor while the consumer iterates, so the
+     * consumer must finish its work before returning; the cursor is closed afterwards.
+     *
+     * @param consumer Receives an iterator over all employee rows.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Iterator<EmployeeRow>> consumer) {
+        try (Stream<EmployeeRow> rows = employeeRepository.streamAllByOrderByLastNameAsc()) {
+            consumer.accept(rows.iterator());
+        }
+    }
+
+    /**
+     * Returns the current version of the employee data.
+     * <p>
+     * The value changes whenever an employee is saved or deleted through this service,
+     * so it can key caches of rendered employee lists. Changes made directly in the
+     * database, bypassing this service, are not detected.
+     *
+     * @return The current data version.
+     */
+    @Override
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
     /**
      * Retrieves an employee by their ID.
      * <p>
@@ -82,7 +137,11 @@ public class EmployeeServiceImpl implements EmployeeService {
      */
     @Override
     public Employee save(Employee employee) {
-        return employeeRepository.save(employee);
+        Employee savedEmployee = employeeRepository.save(employee);
+
+        // Bump the version only after the repository has committed the change
+        dataVersion.incrementAndGet();
+        return savedEmployee;
     }
 
     /**
@@ -95,5 +154,8 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     public void deleteById(int id) {
         employeeRepository.deleteById(id);
+
+        // Bump the version only after the repository has committed the change
+        dataVersion.incrementAndGet();
     }
 }
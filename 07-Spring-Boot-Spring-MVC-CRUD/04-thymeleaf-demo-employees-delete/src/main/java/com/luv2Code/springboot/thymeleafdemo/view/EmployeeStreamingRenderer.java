@@ -0,0 +1,90 @@
+// Define the package for the view helpers
+package com.luv2Code.springboot.thymeleafdemo.view;
+
+import com.luv2Code.springboot.thymeleafdemo.service.EmployeeService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Renders the complete employee directory ("employees/list-employees-all") while it is read.
+ * <p>
+ * The template iterates over a database cursor instead of a loaded List, and Thymeleaf writes
+ * straight into the response. Each filled buffer goes out as an HTTP chunk, so the browser gets
+ * the page head and the first rows right away, and the server only ever holds one buffer and the
+ * current row, however many employees there are.
+ */
+@Component
+public class EmployeeStreamingRenderer {
+
+    private static final String ALL_EMPLOYEES_TEMPLATE = "employees/list-employees-all";
+
+    // Size of the chunks sent to the browser
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final EmployeeService employeeService;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final ApplicationContext applicationContext;
+
+    /**
+     * Constructor for injecting the dependencies.
+     *
+     * @param employeeService    The service streaming the employee rows.
+     * @param templateEngine     The Spring Boot configured Thymeleaf engine.
+     * @param applicationContext The context used to evaluate Spring EL expressions in the template.
+     */
+    @Autowired
+    public EmployeeStreamingRenderer(EmployeeService employeeService, SpringTemplateEngine templateEngine,
+                                     ApplicationContext applicationContext) {
+        this.employeeService = employeeService;
+        this.templateEngine = templateEngine;
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * Streams the page listing all employees into the response.
+     *
+     * @param request  The current request.
+     * @param response The response to write the page to.
+     * @throws IOException If writing to the client fails.
+     */
+    public void render(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.TEXT_HTML_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        // No Content-Length: the servlet container switches to chunked transfer encoding
+        response.setBufferSize(BUFFER_SIZE);
+
+        WebContext context = new WebContext(
+                JakartaServletWebApplication.buildApplication(request.getServletContext())
+                        .buildExchange(request, response),
+                request.getLocale());
+        context.setVariable(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                new ThymeleafEvaluationContext(applicationContext, null));
+
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        // The cursor is only open inside the callback, so the whole template is processed there
+        employeeService.streamAll(employees -> {
+            context.setVariable("employees", employees);
+            templateEngine.process(ALL_EMPLOYEES_TEMPLATE, context, writer);
+        });
+
+        writer.flush();
+    }
+}
@@ -0,0 +1,121 @@
+// Define the package for the security configuration
+package com.luv2Code.demomvcsecurity.security;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caching decorator for a UserDetailsService.
+ * <p>
+ * Keeps each loaded user for a short time-to-live so repeated logins (or HTTP Basic requests)
+ * skip the database. A fresh copy is handed out on every call, because Spring Security erases
+ * the password of the returned object after a successful authentication.
+ * <p>
+ * Whoever changes a password, a role or the active flag must invalidate the entry, either by
+ * calling {@link #evict(String)} / {@link #evictAll()} or by publishing a {@link UserDetailsChangedEvent}.
+ * Without that, the change becomes visible after the time-to-live at the latest.
+ * <p>
+ * Spring Security's own UserCache (DaoAuthenticationProvider.setUserCache) is not used because it
+ * caches the very instance it authenticated. ProviderManager then erases the password of that
+ * instance, so the next authentication from the cache fails its password check and falls back to
+ * the database: with HTTP Basic, every request would still load the user. Switching credential
+ * erasure off for the whole application would avoid that, at the price of keeping every password
+ * hash in the security context. Its bundled implementation, SpringCacheBasedUserCache, also needs
+ * a Spring Cache, and the ConcurrentMapCache Spring Boot falls back to has neither a time-to-live
+ * nor a size bound.
+ */
+public class CachingUserDetailsService implements UserDetailsService {
+
+    private final UserDetailsService delegate;
+
+    private final Duration timeToLive;
+
+    private final int maxEntries;
+
+    private final Clock clock;
+
+    private final Map<String, CachedUser> cache = new ConcurrentHashMap<>();
+
+    public CachingUserDetailsService(UserDetailsService delegate, Duration timeToLive, int maxEntries) {
+        this(delegate, timeToLive, maxEntries, Clock.systemUTC());
+    }
+
+    CachingUserDetailsService(UserDetailsService delegate, Duration timeToLive, int maxEntries, Clock clock) {
+        this.delegate = delegate;
+        this.timeToLive = timeToLive;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        long now = clock.millis();
+        CachedUser cached = cache.get(username);
+        if (cached == null || cached.expiresAt() <= now) {
+            UserDetails loaded = delegate.loadUserByUsername(username);
+            cached = new CachedUser(User.withUserDetails(loaded).build(), now + timeToLive.toMillis());
+            store(username, cached, now);
+        }
+        // Hand out a copy so credential erasure never touches the cached instance
+        return User.withUserDetails(cached.user()).build();
+    }
+
+    /**
+     * Drops the cached entry of one user.
+     *
+     * @param username The user whose details changed.
+     */
+    public void evict(String username) {
+        cache.remove(username);
+    }
+
+    /**
+     * Drops every cached entry.
+     */
+    public void evictAll() {
+        cache.clear();
+    }
+
+    /**
+     * Invalidation hook for code that does not hold a reference to this service.
+     *
+     * @param event The change notification; a null username clears the whole cache.
+     */
+    @EventListener
+    public void onUserDetailsChanged(UserDetailsChangedEvent event) {
+        if (event.username() == null) {
+            evictAll();
+        } else {
+            evict(event.username());
+        }
+    }
+
+    private void store(String username, CachedUser cached, long now) {
+        if (cache.size() >= maxEntries) {
+            cache.values().removeIf(entry -> entry.expiresAt() <= now);
+        }
+        // Still full: serve from the database instead of growing without bound
+        if (cache.size() < maxEntries) {
+            cache.put(username, cached);
+        }
+    }
+
+    private record CachedUser(UserDetails user, long expiresAt) {
+    }
+
+    /**
+     * Event announcing that the stored details of a user changed.
+     *
+     * @param username The changed user, or null when all users may have changed.
+     */
+    public record UserDetailsChangedEvent(String username) {
+    }
+}
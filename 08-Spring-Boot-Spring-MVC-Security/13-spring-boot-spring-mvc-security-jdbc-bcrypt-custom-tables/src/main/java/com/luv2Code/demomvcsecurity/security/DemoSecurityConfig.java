@@ -1,15 +1,15 @@
 // Define the package where the security configuration resides
 package com.luv2Code.demomvcsecurity.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.LogoutConfigurer;
-import org.springframework.security.provisioning.JdbcUserDetailsManager;
-import org.springframework.security.provisioning.UserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 
 /**
  * Security configuration class for managing user authentication and authorization.
@@ -20,30 +20,24 @@ import javax.sql.DataSource;
 public class DemoSecurityConfig {
 
     /**
-     * Configures JDBC authentication using the provided data source.
-     * Spring Security will use this configuration to authenticate users from the database.
+     * Configures the UserDetailsService used to authenticate users from the database.
+     * <p>
+     * The member and all of their roles are read with a single joined query instead of
+     * the two queries JdbcUserDetailsManager would run, and the result is cached briefly
+     * so repeated authentications of the same user do not hit the database at all.
      *
-     * @param dataSource The database source for authentication (Auto-configured by Spring Boot).
-     * @return A JdbcUserDetailsManager instance that retrieves user details from the database.
+     * @param dataSource      The DataSource object used to access the database.
+     *                        It is automatically configured by Spring Boot.
+     * @param cacheTtl        How long a loaded user stays cached.
+     * @param cacheMaxEntries Upper bound on the number of cached users.
+     * @return A caching, single-query UserDetailsService.
      */
     @Bean
-    public UserDetailsManager userDetailsManager(DataSource dataSource) {
-        // Create an instance of JdbcUserDetailsManager and set the data source
-        JdbcUserDetailsManager jdbcUserDetailsManager = new JdbcUserDetailsManager(dataSource);
-
-        // Define the SQL query to retrieve user details (username, password, and status)
-        jdbcUserDetailsManager.setUsersByUsernameQuery(
-                "SELECT user_id, pw, active " +
-                        "FROM members " +
-                        "WHERE user_id=?");
-
-        // Define the SQL query to retrieve user roles/authorities
-        jdbcUserDetailsManager.setAuthoritiesByUsernameQuery(
-                "SELECT user_id, role " +
-                        "FROM roles " +
-                        "WHERE user_id=?");
-
-        return jdbcUserDetailsManager; // Return the configured JdbcUserDetailsManager
+    public CachingUserDetailsService userDetailsService(
+            DataSource dataSource,
+            @Value("${app.security.user-cache.ttl:60s}") Duration cacheTtl,
+            @Value("${app.security.user-cache.max-entries:1000}") int cacheMaxEntries) {
+        return new CachingUserDetailsService(new JoinedJdbcUserDetailsService(dataSource), cacheTtl, cacheMaxEntries);
     }
 
     /**
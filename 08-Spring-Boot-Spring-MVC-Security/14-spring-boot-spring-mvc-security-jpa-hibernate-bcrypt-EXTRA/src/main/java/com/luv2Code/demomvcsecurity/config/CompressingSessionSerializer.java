@@ -0,0 +1,51 @@
+// Define the package for the configuration classes
+package com.luv2Code.demomvcsecurity.config;
+
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Serializes session attributes with Java serialization wrapped in a fast deflate stream.
+ * <p>
+ * The security context stored in every session is mostly repeated class and field names,
+ * which deflate shrinks to a fraction of the raw Java serialization size.
+ */
+public class CompressingSessionSerializer implements Serializer<Object>, Deserializer<Object> {
+
+    private final DefaultSerializer serializer = new DefaultSerializer();
+
+    private final DefaultDeserializer deserializer;
+
+    /**
+     * @param classLoader The class loader used to resolve attribute classes on read.
+     */
+    public CompressingSessionSerializer(ClassLoader classLoader) {
+        this.deserializer = new DefaultDeserializer(classLoader);
+    }
+
+    @Override
+    public void serialize(Object object, OutputStream outputStream) throws IOException {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            DeflaterOutputStream deflaterStream = new DeflaterOutputStream(outputStream, deflater);
+            serializer.serialize(object, deflaterStream);
+            deflaterStream.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public Object deserialize(InputStream inputStream) throws IOException {
+        return deserializer.deserialize(new InflaterInputStream(inputStream));
+    }
+}
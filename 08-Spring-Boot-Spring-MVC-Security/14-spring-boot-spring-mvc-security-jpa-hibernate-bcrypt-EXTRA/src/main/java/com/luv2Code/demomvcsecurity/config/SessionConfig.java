@@ -0,0 +1,96 @@
+// Define the package for the configuration classes
+package com.luv2Code.demomvcsecurity.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.session.jdbc.config.annotation.SpringSessionDataSource;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration of the external HTTP session store.
+ * <p>
+ * Spring Boot auto-configures Spring Session JDBC because it is on the classpath; this class only
+ * points it at a dedicated embedded H2 file database ("app.session.datasource.*"), so sessions
+ * survive a restart. The sessions themselves are kept on disk: the heap only holds the sessions of
+ * the requests in progress and H2's page cache, which the CACHE_SIZE setting of the URL bounds
+ * independently of the number of sessions (see scripts/SessionStoreBenchmark.java). Pointing
+ * "app.session.datasource.url" at MySQL moves that cache out of the JVM as well. Spring Session
+ * JDBC already loads each attribute lazily on first access, writes only changed attributes and
+ * deletes expired sessions on the "spring.session.jdbc.cleanup-cron" schedule. Another store
+ * (e.g. Redis) can be plugged in by replacing the spring-session-jdbc dependency.
+ * <p>
+ * Declaring a second DataSource turns off Spring Boot's DataSource auto-configuration, so the
+ * application (MySQL) DataSource is declared here as well and marked @Primary for JPA.
+ */
+@Configuration
+public class SessionConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(@Qualifier("dataSourceProperties") DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * The embedded database holding the SPRING_SESSION tables.
+     */
+    @Bean
+    @SpringSessionDataSource
+    public DataSource sessionDataSource(@Value("${app.session.datasource.url}") String url,
+                                        @Value("${app.session.datasource.username}") String username,
+                                        @Value("${app.session.datasource.password}") String password) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+    }
+
+    /**
+     * Session writes run in local transactions on the session database, independent of JPA.
+     * <p>
+     * Spring Session picks this bean up by its name. It is deliberately not a PlatformTransactionManager
+     * bean, which would replace the JPA transaction manager that Spring Boot auto-configures.
+     */
+    @Bean("springSessionTransactionOperations")
+    public TransactionOperations springSessionTransactionOperations(@SpringSessionDataSource DataSource sessionDataSource) {
+        return new TransactionTemplate(new DataSourceTransactionManager(sessionDataSource));
+    }
+
+    /**
+     * Converts session attributes to and from compressed bytes (see CompressingSessionSerializer).
+     */
+    @Bean("springSessionConversionService")
+    public ConversionService springSessionConversionService() {
+        CompressingSessionSerializer serializer = new CompressingSessionSerializer(getClass().getClassLoader());
+
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(Object.class, byte[].class, new SerializingConverter(serializer));
+        conversionService.addConverter(byte[].class, Object.class, new DeserializingConverter(serializer));
+        return conversionService;
+    }
+}
@@ -0,0 +1,94 @@
+// Define the package for the security configuration
+package com.luv2Code.demomvcsecurity.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks the BCrypt strength (log2 of the number of rounds) that fits a hashing latency budget.
+ * <p>
+ * Starting at the minimum, each candidate strength is timed with several hashes and kept if the
+ * median hash fits the budget; the first candidate that does not ends the search. The median
+ * ignores the odd hash slowed down by a GC pause or a busy neighbour, which a single timed hash
+ * would extrapolate into a wrong cost. The result depends on the CPU the application starts on,
+ * which is exactly the point.
+ */
+public final class BCryptStrengthCalibrator {
+
+    // Cheapest strength BCrypt accepts; used only to warm up the JIT before measuring
+    private static final int WARM_UP_STRENGTH = 4;
+
+    private static final int WARM_UP_HASHES = 10;
+
+    // Hashes timed per candidate strength; odd, so the median is one of them
+    private static final int SAMPLES = 5;
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    /**
+     * Measures the local hashing speed and returns the strongest cost within the budget.
+     *
+     * @param targetLatency The hashing time one login may spend.
+     * @param minStrength   Lower bound, kept even if the machine is slower than the budget.
+     * @param maxStrength   Upper bound (BCrypt allows at most 31).
+     * @return The calibrated strength.
+     */
+    public static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        checkBounds(minStrength, maxStrength);
+        BCryptPasswordEncoder warmUp = new BCryptPasswordEncoder(WARM_UP_STRENGTH);
+        for (int i = 0; i < WARM_UP_HASHES; i++) {
+            warmUp.encode(SAMPLE_PASSWORD);
+        }
+        return calibrate(targetLatency, minStrength, maxStrength, BCryptStrengthCalibrator::timeHash);
+    }
+
+    /**
+     * @param hashNanos Times one hash at the given strength.
+     */
+    static int calibrate(Duration targetLatency, int minStrength, int maxStrength, IntToLongFunction hashNanos) {
+        checkBounds(minStrength, maxStrength);
+        long targetNanos = targetLatency.toNanos();
+        int strength = minStrength;
+        while (strength < maxStrength && medianFits(strength + 1, targetNanos, hashNanos)) {
+            strength++;
+        }
+        return strength;
+    }
+
+    /**
+     * Whether the median of SAMPLES hashes at the strength takes at most the target time.
+     * Stops as soon as a majority of the samples is on one side, which decides the median.
+     */
+    private static boolean medianFits(int strength, long targetNanos, IntToLongFunction hashNanos) {
+        int majority = SAMPLES / 2 + 1;
+        int fitting = 0;
+        int exceeding = 0;
+        while (fitting < majority && exceeding < majority) {
+            if (hashNanos.applyAsLong(strength) <= targetNanos) {
+                fitting++;
+            } else {
+                exceeding++;
+            }
+        }
+        return fitting == majority;
+    }
+
+    private static long timeHash(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return System.nanoTime() - start;
+    }
+
+    private static void checkBounds(int minStrength, int maxStrength) {
+        if (minStrength < WARM_UP_STRENGTH || maxStrength > 31 || minStrength > maxStrength) {
+            throw new IllegalArgumentException(
+                    "BCrypt strength bounds must satisfy 4 <= min <= max <= 31, got " + minStrength + ".." + maxStrength);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+// Define the package for the security configuration
+package com.luv2Code.demomvcsecurity.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * AuthorizationManager that evaluates a precompiled "method + path -> role" table.
+ * <p>
+ * The rules are compiled once into a trie per HTTP method keyed by path segment, so a lookup
+ * costs one step per segment of the request path instead of one matcher per rule. Each rule's
+ * roles are compiled into a bit mask (see {@link RoleIndex}), and the user's mask comes from
+ * {@link RoleMaskedUser}, so the role check is a single AND.
+ * <p>
+ * Patterns support literal segments, "*" for exactly one segment and a trailing "**" for any
+ * number of segments (including none), i.e. the subset of PathPattern syntax used by the rule
+ * tables; patterns are checked with PathPatternParser when the table is built. As with
+ * requestMatchers(...), the first declared rule that matches wins.
+ * <p>
+ * Rules are matched against the decoded path within the application, with ";" parameters
+ * removed (see {@link UrlPathHelper#getPathWithinApplication}), never against the raw request
+ * URI: "/api/%65mployees/1" is checked as "/api/employees/1". Paths with "." or ".." segments
+ * are denied, since the servlet container would resolve them to a different resource. Requests
+ * matched by no rule are denied, as by requestMatchers(...) without anyRequest(), unless
+ * {@link Builder#anyRequestAuthenticated()} is set.
+ */
+public final class CompiledAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final int NO_RULE = Integer.MAX_VALUE;
+
+    // Shared decisions, so the hot path does not allocate
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    // Decodes the request URI and removes ";" parameters, as Spring MVC's path lookup does
+    private static final UrlPathHelper URL_PATH_HELPER = UrlPathHelper.defaultInstance;
+
+    private final RoleIndex roleIndex;
+
+    private final Map<String, Node> rootsByMethod;
+
+    // Rules declared without a method
+    private final Node anyMethodRoot;
+
+    // Required role mask of each rule, indexed by declaration order
+    private final long[] ruleMasks;
+
+    // Whether requests matched by no rule are granted to authenticated users; otherwise they are denied
+    private final boolean fallbackRequiresAuthentication;
+
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    private CompiledAuthorizationManager(Builder builder) {
+        this.roleIndex = builder.roleIndex;
+        this.rootsByMethod = new HashMap<>();
+        this.anyMethodRoot = new Node();
+        this.ruleMasks = new long[builder.rules.size()];
+        this.fallbackRequiresAuthentication = builder.anyRequestAuthenticated;
+
+        for (int index = 0; index < builder.rules.size(); index++) {
+            Rule rule = builder.rules.get(index);
+            Node root = rule.method == null
+                    ? anyMethodRoot
+                    : rootsByMethod.computeIfAbsent(rule.method.name(), method -> new Node());
+            // Rejects malformed patterns as PathPatternParser does for requestMatchers(...)
+            PathPatternParser.defaultInstance.parse(rule.pattern);
+            root.insert(segments(rule.pattern), 0, index);
+
+            long mask = 0L;
+            for (String role : rule.roles) {
+                mask |= roleIndex.bitOf("ROLE_" + role);
+            }
+            ruleMasks[index] = mask;
+        }
+    }
+
+    /**
+     * @param roleIndex The index used to compute role masks of users and rules.
+     * @return A builder for the rule table.
+     */
+    public static Builder builder(RoleIndex roleIndex) {
+        return new Builder(roleIndex);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        HttpServletRequest request = context.getRequest();
+        String[] segments = segments(pathWithinApplication(request));
+        if (hasDotSegment(segments)) {
+            return DENIED;
+        }
+
+        // First declared rule matching the path, for this method or for any method
+        int rule = NO_RULE;
+        Node methodRoot = rootsByMethod.get(request.getMethod());
+        if (methodRoot != null) {
+            rule = methodRoot.match(segments, 0);
+        }
+        rule = Math.min(rule, anyMethodRoot.match(segments, 0));
+
+        if (rule == NO_RULE) {
+            // Deny by default; never abstain, which would let an unlisted path through
+            if (!fallbackRequiresAuthentication) {
+                return DENIED;
+            }
+            return isAuthenticated(authentication.get()) ? GRANTED : DENIED;
+        }
+
+        Authentication user = authentication.get();
+        if (!isAuthenticated(user)) {
+            return DENIED;
+        }
+        return (roleMask(user) & ruleMasks[rule]) != 0 ? GRANTED : DENIED;
+    }
+
+    private boolean isAuthenticated(Authentication user) {
+        return user != null && user.isAuthenticated() && !trustResolver.isAnonymous(user);
+    }
+
+    private long roleMask(Authentication user) {
+        if (user.getPrincipal() instanceof RoleMaskedUser maskedUser) {
+            return maskedUser.getRoleMask(roleIndex);
+        }
+        // Principals from other sources (e.g. remember-me) are masked on the fly
+        return roleIndex.maskOf(user.getAuthorities());
+    }
+
+    /**
+     * Returns the decoded, normalized path of the request within the application.
+     */
+    private static String pathWithinApplication(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        // Most URIs need no decoding: skip UrlPathHelper, which copies the URI several times
+        if (uri.indexOf('%') < 0 && uri.indexOf(';') < 0 && !uri.contains("//") && uri.startsWith(contextPath)) {
+            return uri.substring(contextPath.length());
+        }
+        return URL_PATH_HELPER.getPathWithinApplication(request);
+    }
+
+    private static boolean hasDotSegment(String[] segments) {
+        for (String segment : segments) {
+            if (segment.equals(".") || segment.equals("..")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] segments(String path) {
+        String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/", -1);
+    }
+
+    /**
+     * One path segment position in the trie.
+     */
+    private static final class Node {
+
+        private final Map<String, Node> literals = new HashMap<>();
+
+        private Node wildcard;
+
+        // Rule whose pattern ends exactly here
+        private int endRule = NO_RULE;
+
+        // Rule whose pattern ends here with "/**"
+        private int catchAllRule = NO_RULE;
+
+        void insert(String[] pattern, int position, int rule) {
+            if (position == pattern.length) {
+                endRule = Math.min(endRule, rule);
+                return;
+            }
+            String segment = pattern[position];
+            if (segment.equals("**")) {
+                if (position != pattern.length - 1) {
+                    throw new IllegalArgumentException("\"**\" is only supported as the last segment");
+                }
+                catchAllRule = Math.min(catchAllRule, rule);
+            } else if (segment.equals("*")) {
+                if (wildcard == null) {
+                    wildcard = new Node();
+                }
+                wildcard.insert(pattern, position + 1, rule);
+            } else if (segment.contains("*") || segment.contains("?") || segment.contains("{")) {
+                throw new IllegalArgumentException("Only literal, \"*\" and trailing \"**\" segments are supported: " + segment);
+            } else {
+                literals.computeIfAbsent(segment, key -> new Node()).insert(pattern, position + 1, rule);
+            }
+        }
+
+        int match(String[] path, int position) {
+            int best = catchAllRule;
+            if (position == path.length) {
+                return Math.min(best, endRule);
+            }
+            Node literal = literals.get(path[position]);
+            if (literal != null) {
+                best = Math.min(best, literal.match(path, position + 1));
+            }
+            if (wildcard != null) {
+                best = Math.min(best, wildcard.match(path, position + 1));
+            }
+            return best;
+        }
+    }
+
+    private record Rule(HttpMethod method, String pattern, String[] roles) {
+    }
+
+    /**
+     * Collects the rule table in declaration order.
+     */
+    public static final class Builder {
+
+        private final RoleIndex roleIndex;
+
+        private final List<Rule> rules = new ArrayList<>();
+
+        private boolean anyRequestAuthenticated;
+
+        private Builder(RoleIndex roleIndex) {
+            this.roleIndex = roleIndex;
+        }
+
+        /**
+         * Equivalent of requestMatchers(method, pattern).hasAnyRole(roles).
+         */
+        public Builder rule(HttpMethod method, String pattern, String... roles) {
+            rules.add(new Rule(method, pattern, roles));
+            return this;
+        }
+
+        /**
+         * Equivalent of requestMatchers(pattern).hasAnyRole(roles) for every HTTP method.
+         */
+        public Builder rule(String pattern, String... roles) {
+            return rule(null, pattern, roles);
+        }
+
+        /**
+         * Equivalent of anyRequest().authenticated() for requests matched by no rule; without it
+         * they are denied.
+         */
+        public Builder anyRequestAuthenticated() {
+            this.anyRequestAuthenticated = true;
+            return this;
+        }
+
+        public CompiledAuthorizationManager build() {
+            return new CompiledAuthorizationManager(this);
+        }
+    }
+}
@@ -2,15 +2,24 @@
 package com.luv2Code.demomvcsecurity.security;
 
 import com.luv2Code.demomvcsecurity.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.LogoutConfigurer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
 import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
 
 /**
  * Security configuration class for managing user authentication and authorization.
@@ -21,16 +30,39 @@ public class DemoSecurityConfig {
 
 
     /**
-     * Provides a BCrypt password encoder bean.
+     * Provides the password encoder bean.
      * <p>
-     * This bean is used to hash and verify user passwords securely.
-     * BCrypt adds a unique salt to each password and is resistant to brute-force attacks.
+     * New hashes are written as "{bcrypt}..." with a strength calibrated at startup so one hash
+     * takes about the configured target latency on this machine. Older hashes without the
+     * "{bcrypt}" prefix (like the seed data) are still checked with BCrypt, and report that
+     * they need an upgrade, so the authentication provider rehashes them on the next login.
+     * <p>
+     * All hashing runs on a bounded dedicated thread pool (see BoundedPasswordEncoder).
      *
-     * @return A BCryptPasswordEncoder instance.
+     * @param targetLatency  The time one hash should take.
+     * @param minStrength    The lowest BCrypt strength ever used for new hashes.
+     * @param maxStrength    The highest BCrypt strength ever used for new hashes.
+     * @param hashThreads    Number of hashing threads (0 = one per CPU core).
+     * @param queueCapacity  Number of hashing requests that may wait for a thread.
+     * @param waitTimeout    Longest time a login waits for its hash.
+     * @return A delegating BCrypt encoder running on the hashing pool.
      */
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.security.password.target-latency:250ms}") Duration targetLatency,
+            @Value("${app.security.password.min-strength:10}") int minStrength,
+            @Value("${app.security.password.max-strength:14}") int maxStrength,
+            @Value("${app.security.password.hash-threads:0}") int hashThreads,
+            @Value("${app.security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password.wait-timeout:5s}") Duration waitTimeout) {
+        int strength = BCryptStrengthCalibrator.calibrate(targetLatency, minStrength, maxStrength);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+
+        DelegatingPasswordEncoder delegatingEncoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        // Stored hashes without an "{id}" prefix are plain BCrypt hashes
+        delegatingEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(delegatingEncoder, hashThreads, queueCapacity, waitTimeout);
     }
 
     /**
@@ -41,49 +73,102 @@ public class DemoSecurityConfig {
      * with a custom `UserService`, which implements `UserDetailsService` to fetch user credentials
      * and roles from a data source.
      * <p>
-     * Password validation is performed using the `BCryptPasswordEncoder` for secure password storage
-     * and verification.
+     * Password validation is performed using the calibrated BCrypt `passwordEncoder`. When a stored
+     * hash is weaker than the current strength, the provider rehashes the presented password after a
+     * successful login and stores it through the `UserService` (a `UserDetailsPasswordService`).
      *
-     * @param userService The custom `UserService` implementation that provides user data and roles.
-     *                    This service is responsible for fetching user details from the database or another source.
+     * @param userService     The custom `UserService` implementation that provides user data and roles.
+     *                        This service is responsible for fetching user details from the database or another source.
+     * @param passwordEncoder The password encoder used to verify and rehash passwords.
      * @return A fully configured `DaoAuthenticationProvider` instance ready for use in authentication processes.
      */
     @Bean
-    public DaoAuthenticationProvider authenticationProvider(UserService userService) {
+    public DaoAuthenticationProvider authenticationProvider(UserService userService, PasswordEncoder passwordEncoder) {
         // Create an instance of DaoAuthenticationProvider
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
 
         // Set the custom UserDetailsService to load user data from the UserService
         authProvider.setUserDetailsService(userService);
 
-        // Set the password encoder to BCryptPasswordEncoder for hashing and validating passwords
-        authProvider.setPasswordEncoder(passwordEncoder());
+        // Set the password encoder for hashing and validating passwords
+        authProvider.setPasswordEncoder(passwordEncoder);
+
+        // Store upgraded hashes after a successful login
+        authProvider.setUserDetailsPasswordService(userService);
 
         // Return the configured authentication provider
         return authProvider;
     }
 
 
+    /**
+     * Compiles the role-based access rules into a single AuthorizationManager.
+     * <p>
+     * The rules are matched through a path trie and checked with a role bit mask instead of
+     * evaluating one request matcher after the other.
+     *
+     * @param roleIndex The index assigning each role a bit of the role mask.
+     * @return The compiled authorization rules.
+     */
+    @Bean
+    public CompiledAuthorizationManager pageAuthorizationManager(RoleIndex roleIndex) {
+        return CompiledAuthorizationManager.builder(roleIndex)
+                .rule("/", "EMPLOYEE") // Home page is accessible to users with the EMPLOYEE role
+                .rule("/leaders/**", "MANAGER") // "leaders" pages accessible only to MANAGERS
+                .rule("/systems/**", "ADMIN") // "systems" pages accessible only to ADMINS
+                .anyRequestAuthenticated() // Any other request must be authenticated
+                .build();
+    }
+
+    /**
+     * Token buckets limiting authentication attempts per client IP and per username.
+     *
+     * @param ipCapacity             Failed attempts one IP may make in a burst.
+     * @param ipRefillInterval       Time after which an IP regains one attempt.
+     * @param usernameCapacity       Failed attempts one username may receive in a burst.
+     * @param usernameRefillInterval Time after which a username regains one attempt.
+     * @param maxKeys                Upper bound on the tracked IPs and on the tracked usernames.
+     * @param stripes                Number of independently locked LRU maps per key type.
+     * @param meterRegistry          Registry receiving the auth.throttle.* metrics.
+     * @return The shared login throttle.
+     */
+    @Bean
+    public LoginThrottle loginThrottle(
+            @Value("${app.security.login-throttle.ip.capacity:20}") int ipCapacity,
+            @Value("${app.security.login-throttle.ip.refill-interval:3s}") Duration ipRefillInterval,
+            @Value("${app.security.login-throttle.username.capacity:5}") int usernameCapacity,
+            @Value("${app.security.login-throttle.username.refill-interval:30s}") Duration usernameRefillInterval,
+            @Value("${app.security.login-throttle.max-keys:100000}") int maxKeys,
+            @Value("${app.security.login-throttle.stripes:64}") int stripes,
+            MeterRegistry meterRegistry) {
+        return new LoginThrottle(
+                new LoginThrottle.Limit(ipCapacity, ipRefillInterval),
+                new LoginThrottle.Limit(usernameCapacity, usernameRefillInterval),
+                maxKeys, stripes, meterRegistry);
+    }
+
     /**
      * Defines the security filter chain for handling authentication and authorization.
      *
-     * @param httpSecurity The security configuration for HTTP requests.
+     * @param httpSecurity              The security configuration for HTTP requests.
+     * @param pageAuthorizationManager  The compiled role-based access rules.
+     * @param loginThrottle             Limits login attempts before any password hashing.
      * @return A configured SecurityFilterChain object that defines security rules.
      * @throws Exception If an error occurs during configuration.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity,
+                                                   CompiledAuthorizationManager pageAuthorizationManager,
+                                                   LoginThrottle loginThrottle) throws Exception {
 
         httpSecurity
-                // Define authorization rules for different endpoints
+                // Evaluate every request against the compiled rule table
+                // (the login and logout URLs are still permitted first by permitAll() below)
                 .authorizeHttpRequests(
                         matcherRegistry ->
                                 matcherRegistry
-                                        .requestMatchers("/").hasRole("EMPLOYEE") // Home page is accessible to users with the EMPLOYEE role
-                                        .requestMatchers("/leaders/**").hasRole("MANAGER") // "leaders" pages accessible only to MANAGERS
-                                        .requestMatchers("/systems/**").hasRole("ADMIN") // "systems" pages accessible only to ADMINS
-                                        .anyRequest() // Any other request must be authenticated
-                                        .authenticated()
+                                        .anyRequest()
+                                        .access(pageAuthorizationManager)
                 )
                 // Configure the login form settings
                 .formLogin(
@@ -100,6 +185,13 @@ public class DemoSecurityConfig {
                         handlingConfigurer.accessDeniedPage("/access-denied") // Redirect users to the "access-denied" page if they lack permissions
                 );
 
+        // Reject over-limit login form submissions before the password is hashed
+        httpSecurity.addFilterBefore(
+                LoginThrottlingFilter.forFormLogin(loginThrottle,
+                        AntPathRequestMatcher.antMatcher(HttpMethod.POST, "/authenticateTheUser"),
+                        "username"),
+                UsernamePasswordAuthenticationFilter.class);
+
         // Build and return the security configuration
         return httpSecurity.build();
     }
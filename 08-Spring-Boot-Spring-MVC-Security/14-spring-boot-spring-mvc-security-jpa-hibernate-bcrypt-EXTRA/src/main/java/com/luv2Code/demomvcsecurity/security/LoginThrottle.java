@@ -0,0 +1,279 @@
+// Define the package for the security configuration
+package com.luv2Code.demomvcsecurity.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets limiting authentication attempts per client IP and per username.
+ * <p>
+ * Every attempt takes one token from the bucket of its IP and one from the bucket of its username
+ * <em>before</em> the password is hashed; an attempt finding either bucket empty is rejected without
+ * any BCrypt work. A successful login gives its tokens back, so only failed attempts drain a bucket
+ * and legitimate HTTP Basic clients, which authenticate on every request, are not slowed down.
+ * <p>
+ * Each bucket is a single AtomicLong holding its "theoretical arrival time" (the GCRA form of a
+ * token bucket), so taking or returning a token is one lock-free compare-and-set. The buckets live in
+ * striped, size-bounded LRU maps: a stripe lock is held only to look a bucket up, and the least
+ * recently used buckets are dropped once a stripe is full, which keeps memory bounded under an
+ * attack spraying random usernames or addresses.
+ */
+public class LoginThrottle {
+
+    /**
+     * Which limit rejected an attempt.
+     */
+    public enum Scope {
+        IP, USERNAME
+    }
+
+    private final BucketTable ipBuckets;
+
+    private final BucketTable usernameBuckets;
+
+    private final LongSupplier nanoClock;
+
+    private final Counter allowedCounter;
+
+    private final Counter ipRejectedCounter;
+
+    private final Counter usernameRejectedCounter;
+
+    /**
+     * @param ipLimit       Burst size and refill interval of the per-IP buckets.
+     * @param usernameLimit Burst size and refill interval of the per-username buckets.
+     * @param maxKeys       Upper bound on the number of buckets kept for each of the two tables.
+     * @param stripes       Number of independently locked LRU maps per table.
+     * @param meterRegistry Registry receiving the throttling metrics.
+     */
+    public LoginThrottle(Limit ipLimit, Limit usernameLimit, int maxKeys, int stripes, MeterRegistry meterRegistry) {
+        this(ipLimit, usernameLimit, maxKeys, stripes, meterRegistry, System::nanoTime);
+    }
+
+    LoginThrottle(Limit ipLimit, Limit usernameLimit, int maxKeys, int stripes,
+                  MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.ipBuckets = new BucketTable(ipLimit, maxKeys, stripes);
+        this.usernameBuckets = new BucketTable(usernameLimit, maxKeys, stripes);
+        this.nanoClock = nanoClock;
+
+        this.allowedCounter = Counter.builder("auth.throttle.allowed")
+                .description("Authentication attempts let through to the password check")
+                .register(meterRegistry);
+        this.ipRejectedCounter = Counter.builder("auth.throttle.rejected")
+                .description("Authentication attempts rejected before the password check")
+                .tag("scope", "ip")
+                .register(meterRegistry);
+        this.usernameRejectedCounter = Counter.builder("auth.throttle.rejected")
+                .description("Authentication attempts rejected before the password check")
+                .tag("scope", "username")
+                .register(meterRegistry);
+        Gauge.builder("auth.throttle.tracked.keys", this, throttle -> throttle.ipBuckets.size())
+                .description("Client addresses currently tracked by the login throttle")
+                .tag("scope", "ip")
+                .register(meterRegistry);
+        Gauge.builder("auth.throttle.tracked.keys", this, throttle -> throttle.usernameBuckets.size())
+                .description("Usernames currently tracked by the login throttle")
+                .tag("scope", "username")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token for an authentication attempt.
+     *
+     * @param ip       The client address.
+     * @param username The submitted username, or null if the attempt carries none.
+     * @return null if the attempt may proceed, otherwise the limit that rejected it.
+     */
+    public Rejection tryAcquire(String ip, String username) {
+        long now = nanoClock.getAsLong();
+
+        Bucket ipBucket = ipBuckets.get(ip);
+        long ipWait = ipBucket.tryTake(now);
+        if (ipWait > 0) {
+            ipRejectedCounter.increment();
+            return new Rejection(Scope.IP, Duration.ofNanos(ipWait));
+        }
+
+        if (username != null) {
+            long usernameWait = usernameBuckets.get(normalize(username)).tryTake(now);
+            if (usernameWait > 0) {
+                // The attempt does not happen, so it must not cost the IP anything either
+                ipBucket.giveBack(now);
+                usernameRejectedCounter.increment();
+                return new Rejection(Scope.USERNAME, Duration.ofNanos(usernameWait));
+            }
+        }
+
+        allowedCounter.increment();
+        return null;
+    }
+
+    /**
+     * Returns the tokens of a successful login, so only failures count against the limits.
+     *
+     * @param event The success event published by the AuthenticationManager.
+     */
+    @EventListener
+    public void onAuthenticationSuccess(AuthenticationSuccessEvent event) {
+        long now = nanoClock.getAsLong();
+        if (event.getAuthentication().getDetails() instanceof WebAuthenticationDetails details
+                && details.getRemoteAddress() != null) {
+            ipBuckets.giveBack(details.getRemoteAddress(), now);
+        }
+        usernameBuckets.giveBack(normalize(event.getAuthentication().getName()), now);
+    }
+
+    private static String normalize(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Size of a bucket and the time it takes to regain one token.
+     *
+     * @param capacity       Number of attempts allowed in a burst.
+     * @param refillInterval Time after which one more attempt becomes available.
+     */
+    public record Limit(int capacity, Duration refillInterval) {
+
+        public Limit {
+            if (capacity < 1 || refillInterval.isNegative() || refillInterval.isZero()) {
+                throw new IllegalArgumentException("A login throttle limit needs a positive capacity and refill interval");
+            }
+        }
+    }
+
+    /**
+     * Outcome of a rejected attempt.
+     *
+     * @param scope      The limit that was exhausted.
+     * @param retryAfter Time until the next attempt would be accepted.
+     */
+    public record Rejection(Scope scope, Duration retryAfter) {
+    }
+
+    /**
+     * One token bucket in GCRA form.
+     * <p>
+     * "tat" is the time at which the bucket would be full again. Taking a token moves it one
+     * interval into the future; the bucket is empty when it lies more than a full burst ahead.
+     */
+    private static final class Bucket {
+
+        private final long intervalNanos;
+
+        private final long burstNanos;
+
+        private final AtomicLong tat;
+
+        private Bucket(Limit limit, long now) {
+            this.intervalNanos = limit.refillInterval().toNanos();
+            this.burstNanos = intervalNanos * limit.capacity();
+            this.tat = new AtomicLong(now);
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise the nanoseconds until one is available.
+         */
+        private long tryTake(long now) {
+            while (true) {
+                long current = tat.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long excess = next - now - burstNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        private void giveBack(long now) {
+            while (true) {
+                long current = tat.get();
+                if (current <= now) {
+                    return; // already full
+                }
+                if (tat.compareAndSet(current, Math.max(now, current - intervalNanos))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Buckets keyed by IP or username, spread over independently locked LRU maps.
+     */
+    private final class BucketTable {
+
+        private final Limit limit;
+
+        private final Map<String, Bucket>[] stripes;
+
+        @SuppressWarnings("unchecked")
+        private BucketTable(Limit limit, int maxKeys, int stripeCount) {
+            this.limit = limit;
+            this.stripes = new Map[stripeCount];
+            int perStripe = Math.max(1, maxKeys / stripeCount);
+            for (int i = 0; i < stripeCount; i++) {
+                // Access-ordered LinkedHashMap: the eldest entry is the least recently used one
+                stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                        return size() > perStripe;
+                    }
+                };
+            }
+        }
+
+        private Bucket get(String key) {
+            Map<String, Bucket> stripe = stripeFor(key);
+            synchronized (stripe) {
+                Bucket bucket = stripe.get(key);
+                if (bucket == null) {
+                    bucket = new Bucket(limit, nanoClock.getAsLong());
+                    stripe.put(key, bucket);
+                }
+                return bucket;
+            }
+        }
+
+        private void giveBack(String key, long now) {
+            Map<String, Bucket> stripe = stripeFor(key);
+            Bucket bucket;
+            synchronized (stripe) {
+                bucket = stripe.get(key);
+            }
+            if (bucket != null) {
+                bucket.giveBack(now);
+            }
+        }
+
+        private int size() {
+            int size = 0;
+            for (Map<String, Bucket> stripe : stripes) {
+                synchronized (stripe) {
+                    size += stripe.size();
+                }
+            }
+            return size;
+        }
+
+        private Map<String, Bucket> stripeFor(String key) {
+            int hash = key.hashCode();
+            hash ^= (hash >>> 16); // spread the high bits like HashMap does
+            return stripes[Math.floorMod(hash, stripes.length)];
+        }
+    }
+}
@@ -0,0 +1,107 @@
+// Define the package for the security configuration
+package com.luv2Code.demomvcsecurity.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Servlet filter that applies the LoginThrottle to every request carrying credentials.
+ * <p>
+ * It runs in the security filter chain right before the authentication filter, so a rejected
+ * attempt never reaches the DaoAuthenticationProvider and costs no password hashing. Rejected
+ * attempts get "429 Too Many Requests" with a Retry-After header.
+ */
+public class LoginThrottlingFilter extends OncePerRequestFilter {
+
+    private final LoginThrottle loginThrottle;
+
+    private final RequestMatcher attemptMatcher;
+
+    private final Function<HttpServletRequest, String> usernameExtractor;
+
+    private LoginThrottlingFilter(LoginThrottle loginThrottle, RequestMatcher attemptMatcher,
+                                  Function<HttpServletRequest, String> usernameExtractor) {
+        this.loginThrottle = loginThrottle;
+        this.attemptMatcher = attemptMatcher;
+        this.usernameExtractor = usernameExtractor;
+    }
+
+    /**
+     * Throttles requests authenticating through an "Authorization: Basic ..." header.
+     *
+     * @param loginThrottle The shared token buckets.
+     * @return The filter to place before the BasicAuthenticationFilter.
+     */
+    public static LoginThrottlingFilter forHttpBasic(LoginThrottle loginThrottle) {
+        return new LoginThrottlingFilter(loginThrottle,
+                request -> basicCredentials(request) != null,
+                LoginThrottlingFilter::basicUsername);
+    }
+
+    /**
+     * Throttles submissions of a login form.
+     *
+     * @param loginThrottle   The shared token buckets.
+     * @param loginMatcher    Matches the login processing request (e.g. POST /authenticateTheUser).
+     * @param usernameParam   Name of the form field holding the username.
+     * @return The filter to place before the UsernamePasswordAuthenticationFilter.
+     */
+    public static LoginThrottlingFilter forFormLogin(LoginThrottle loginThrottle, RequestMatcher loginMatcher,
+                                                     String usernameParam) {
+        return new LoginThrottlingFilter(loginThrottle, loginMatcher,
+                request -> request.getParameter(usernameParam));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!attemptMatcher.matches(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // getRemoteAddr() is the direct peer; behind a proxy enable server.forward-headers-strategy
+        LoginThrottle.Rejection rejection =
+                loginThrottle.tryAcquire(request.getRemoteAddr(), usernameExtractor.apply(request));
+        if (rejection != null) {
+            long retryAfterSeconds = Math.max(1, (rejection.retryAfter().toMillis() + 999) / 1000);
+            // Written directly: an error dispatch would run through the security chain again
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Too many login attempts, please retry later");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static String basicCredentials(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header == null || header.length() < 6 || !header.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return null;
+        }
+        return header.substring(6).trim();
+    }
+
+    private static String basicUsername(HttpServletRequest request) {
+        try {
+            String decoded = new String(Base64.getDecoder().decode(basicCredentials(request)), StandardCharsets.UTF_8);
+            int colon = decoded.indexOf(':');
+            return colon < 0 ? null : decoded.substring(0, colon);
+        } catch (IllegalArgumentException e) {
+            // Malformed header: BasicAuthenticationFilter rejects it, only the IP limit applies
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+// Define the package for the security configuration
+package com.luv2Code.demomvcsecurity.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.io.Serial;
+import java.util.Collection;
+
+/**
+ * Spring Security User that also carries its role mask (see {@link RoleIndex}).
+ * <p>
+ * The mask is computed once when the user is loaded and travels with the principal of the
+ * Authentication, so the authorization check never has to walk the authorities again.
+ * <p>
+ * The mask is not serialized with the user. RoleIndex assigns bits in the order roles are
+ * first seen, which differs between JVMs, so a principal restored from the session store
+ * after a restart (or on another instance) recomputes its mask from the authority names the
+ * first time it is checked.
+ */
+public class RoleMaskedUser extends User {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Null after deserialization; replaced when checked against another RoleIndex
+    private transient volatile Mask mask;
+
+    public RoleMaskedUser(String username, String password,
+                          Collection<? extends GrantedAuthority> authorities, RoleIndex roleIndex) {
+        super(username, password, authorities);
+        this.mask = new Mask(roleIndex, roleIndex.maskOf(getAuthorities()));
+    }
+
+    /**
+     * @param roleIndex The index the caller's rule masks were compiled with.
+     * @return The role mask of this user in that index.
+     */
+    public long getRoleMask(RoleIndex roleIndex) {
+        Mask current = mask;
+        if (current == null || current.roleIndex() != roleIndex) {
+            // Racing threads compute the same value, so the last write may win
+            current = new Mask(roleIndex, roleIndex.maskOf(getAuthorities()));
+            mask = current;
+        }
+        return current.bits();
+    }
+
+    // equals/hashCode are inherited from User and rely on the username only
+
+    private record Mask(RoleIndex roleIndex, long bits) {
+    }
+}
@@ -1,9 +1,10 @@
 package com.luv2Code.demomvcsecurity.service;
 
 import com.luv2Code.demomvcsecurity.entity.User;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
-public interface UserService extends UserDetailsService {
+public interface UserService extends UserDetailsService, UserDetailsPasswordService {
 
     User findByUserName(String userName);
 }
@@ -4,6 +4,8 @@ import com.luv2Code.demomvcsecurity.dao.RoleDao;
 import com.luv2Code.demomvcsecurity.dao.UserDao;
 import com.luv2Code.demomvcsecurity.entity.Role;
 import com.luv2Code.demomvcsecurity.entity.User;
+import com.luv2Code.demomvcsecurity.security.RoleIndex;
+import com.luv2Code.demomvcsecurity.security.RoleMaskedUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -11,19 +13,22 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.List;
 
 @Service // Marks this class as a Spring service component, enabling dependency injection
 public class UserServiceImpl implements UserService {
 
     private UserDao userDao; // DAO for user-related database operations
     private RoleDao roleDao; // DAO for role-related database operations
+    private RoleIndex roleIndex; // Assigns each role a bit of the user's role mask
 
     @Autowired
-    public UserServiceImpl(UserDao userDao, RoleDao roleDao) {
+    public UserServiceImpl(UserDao userDao, RoleDao roleDao, RoleIndex roleIndex) {
         this.userDao = userDao; // Injects the UserDao dependency
         this.roleDao = roleDao; // Injects the RoleDao dependency
+        this.roleIndex = roleIndex; // Injects the RoleIndex dependency
     }
 
     /**
@@ -41,13 +46,15 @@ public class UserServiceImpl implements UserService {
      * Maps a collection of Role entities to a collection of GrantedAuthority objects.
      *
      * @param roles the roles to map
-     * @return a collection of GrantedAuthority objects
+     * @return a list of GrantedAuthority objects
      */
-    private Collection<? extends GrantedAuthority> mapRolesToAuthorities(Collection<Role> roles) {
-        return roles
-                .stream() // Converts the roles collection to a stream
-                .map(role -> new SimpleGrantedAuthority(role.getName())) // Maps each Role to a SimpleGrantedAuthority
-                .collect(Collectors.toList()); // Collects the results into a list
+    private List<GrantedAuthority> mapRolesToAuthorities(Collection<Role> roles) {
+        // Presized list filled in a single pass
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (Role role : roles) {
+            authorities.add(new SimpleGrantedAuthority(role.getName())); // Maps each Role to a SimpleGrantedAuthority
+        }
+        return authorities;
     }
 
     /**
@@ -67,12 +74,32 @@ public class UserServiceImpl implements UserService {
             throw new UsernameNotFoundException("Invalid Username or Password");
         }
 
-        // Return a UserDetails implementation provided by Spring Security
-        return new org.springframework.security.core.userdetails.User(
+        // Granted authorities (roles), also compiled into a bit mask once per authentication
+        List<GrantedAuthority> authorities = mapRolesToAuthorities(user.getRoles());
+
+        // Return a UserDetails implementation that carries the role mask
+        return new RoleMaskedUser(
                 user.getUserName(), // Username
                 user.getPassword(), // Password
-                mapRolesToAuthorities(user.getRoles()) // Granted authorities (roles)
+                authorities,
+                roleIndex // Computes the role mask checked by CompiledAuthorizationManager
         );
     }
-}
 
+    /**
+     * Stores a rehashed password after a successful login.
+     * <p>
+     * Called by the DaoAuthenticationProvider when the stored hash is weaker than the current
+     * password encoder settings.
+     *
+     * @param user        the authenticated user
+     * @param newPassword the password re-encoded with the current settings
+     * @return the user details carrying the new password hash
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userDao.updatePassword(user.getUsername(), newPassword); // Persists the new hash
+
+        return new RoleMaskedUser(user.getUsername(), newPassword, user.getAuthorities(), roleIndex);
+    }
+}
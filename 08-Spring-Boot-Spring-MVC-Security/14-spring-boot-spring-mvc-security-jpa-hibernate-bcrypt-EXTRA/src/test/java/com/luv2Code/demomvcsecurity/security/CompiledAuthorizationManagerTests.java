@@ -0,0 +1,68 @@
+package com.luv2Code.demomvcsecurity.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the page rules of DemoSecurityConfig as compiled by CompiledAuthorizationManager.
+ */
+class CompiledAuthorizationManagerTests {
+
+	private static final Authentication ANONYMOUS = new AnonymousAuthenticationToken(
+			"key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+	private static final Authentication EMPLOYEE = user("ROLE_EMPLOYEE");
+
+	private static final Authentication MANAGER = user("ROLE_EMPLOYEE", "ROLE_MANAGER");
+
+	private final CompiledAuthorizationManager manager = new DemoSecurityConfig().pageAuthorizationManager(new RoleIndex());
+
+	@Test
+	void grantsMatchingRole() {
+		assertThat(isGranted(EMPLOYEE, "/")).isTrue();
+		assertThat(isGranted(MANAGER, "/leaders")).isTrue();
+		assertThat(isGranted(EMPLOYEE, "/leaders")).isFalse();
+		assertThat(isGranted(MANAGER, "/systems")).isFalse();
+	}
+
+	@Test
+	void requiresAuthenticationForRequestsMatchedByNoRule() {
+		assertThat(isGranted(ANONYMOUS, "/actuator/metrics")).isFalse();
+		assertThat(isGranted(EMPLOYEE, "/actuator/metrics")).isTrue();
+	}
+
+	@Test
+	void matchesDecodedPath() {
+		// "%65" is "e": the MANAGER rule for "/leaders/**" must apply, not the authenticated-only fallback
+		assertThat(isGranted(EMPLOYEE, "/l%65aders")).isFalse();
+		assertThat(isGranted(EMPLOYEE, "/l%65aders/list")).isFalse();
+		assertThat(isGranted(MANAGER, "/l%65aders")).isTrue();
+		assertThat(isGranted(EMPLOYEE, "/syst%65ms;jsessionid=1")).isFalse();
+		assertThat(isGranted(EMPLOYEE, "//leaders")).isFalse();
+	}
+
+	@Test
+	void deniesDotSegments() {
+		assertThat(isGranted(MANAGER, "/leaders/../systems")).isFalse();
+		assertThat(isGranted(MANAGER, "/leaders/%2e%2e/systems")).isFalse();
+	}
+
+	private boolean isGranted(Authentication user, String uri) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		AuthorizationDecision decision = manager.check(() -> user, new RequestAuthorizationContext(request));
+		assertThat(decision).as(uri).isNotNull();
+		return decision.isGranted();
+	}
+
+	private static Authentication user(String... roles) {
+		return UsernamePasswordAuthenticationToken.authenticated("user", "n/a", AuthorityUtils.createAuthorityList(roles));
+	}
+}
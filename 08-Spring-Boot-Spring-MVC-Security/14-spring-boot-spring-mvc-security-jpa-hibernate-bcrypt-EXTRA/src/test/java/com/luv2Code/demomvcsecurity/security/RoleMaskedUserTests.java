@@ -0,0 +1,67 @@
+package com.luv2Code.demomvcsecurity.security;
+
+import com.luv2Code.demomvcsecurity.config.CompressingSessionSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a RoleMaskedUser restored from the session store is authorized by its role names,
+ * not by the bit positions of the JVM that stored it.
+ */
+class RoleMaskedUserTests {
+
+	@Test
+	void recomputesTheMaskAfterDeserialization() throws IOException {
+		RoleIndex storingIndex = new RoleIndex();
+		storingIndex.bitOf("ROLE_MANAGER");
+		storingIndex.bitOf("ROLE_EMPLOYEE");
+		RoleMaskedUser stored = new RoleMaskedUser("john", "n/a",
+				AuthorityUtils.createAuthorityList("ROLE_EMPLOYEE"), storingIndex);
+		assertThat(stored.getRoleMask(storingIndex)).isEqualTo(0b10L);
+
+		// A restarted application sees the roles in another order: EMPLOYEE gets bit 0, MANAGER bit 1
+		RoleIndex restartedIndex = new RoleIndex();
+		CompiledAuthorizationManager manager = new DemoSecurityConfig().pageAuthorizationManager(restartedIndex);
+		RoleMaskedUser restored = (RoleMaskedUser) roundTrip(stored);
+
+		assertThat(restored.getRoleMask(restartedIndex)).isEqualTo(restartedIndex.bitOf("ROLE_EMPLOYEE"));
+		assertThat(isGranted(manager, restored, "/")).isTrue();
+		assertThat(isGranted(manager, restored, "/leaders")).isFalse();
+	}
+
+	@Test
+	void followsTheIndexItIsCheckedAgainst() {
+		RoleIndex first = new RoleIndex();
+		RoleMaskedUser user = new RoleMaskedUser("mary", "n/a",
+				AuthorityUtils.createAuthorityList("ROLE_EMPLOYEE", "ROLE_MANAGER"), first);
+		RoleIndex second = new RoleIndex();
+		second.bitOf("ROLE_ADMIN");
+
+		assertThat(user.getRoleMask(second)).isEqualTo(second.bitOf("ROLE_EMPLOYEE") | second.bitOf("ROLE_MANAGER"));
+		assertThat(user.getRoleMask(first)).isEqualTo(first.bitOf("ROLE_EMPLOYEE") | first.bitOf("ROLE_MANAGER"));
+	}
+
+	// Writes and reads the user the way the session store does
+	private static Object roundTrip(Object object) throws IOException {
+		CompressingSessionSerializer serializer = new CompressingSessionSerializer(RoleMaskedUserTests.class.getClassLoader());
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		serializer.serialize(object, bytes);
+		return serializer.deserialize(new ByteArrayInputStream(bytes.toByteArray()));
+	}
+
+	private static boolean isGranted(CompiledAuthorizationManager manager, RoleMaskedUser user, String uri) {
+		Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(user, "n/a", user.getAuthorities());
+		return manager.check(() -> authentication, new RequestAuthorizationContext(new MockHttpServletRequest("GET", uri)))
+				.isGranted();
+	}
+}
@@ -0,0 +1,40 @@
+// Define the package for the configuration classes
+package com.luv2code.cruddemo.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource that sends read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * The decision is made when a physical connection is fetched. It must therefore be wrapped in a
+ * LazyConnectionDataSourceProxy, so that the connection is only fetched once the transaction
+ * manager has published the read-only flag of the current @Transactional(readOnly = true) method.
+ * While the ReplicaLagMonitor reports the replica as unhealthy, reads fall back to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Lookup key of the primary (read/write) pool.
+     */
+    public static final String PRIMARY = "primary";
+
+    /**
+     * Lookup key of the replica (read-only) pool.
+     */
+    public static final String REPLICA = "replica";
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isReplicaUsable()) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+}
@@ -9,9 +9,9 @@ import com.luv2code.cruddemo.entity.InstructorDetail;
 import com.luv2code.cruddemo.entity.Student;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -74,6 +74,7 @@ public class AppDAOImpl implements AppDAO {
      * @return The Instructor entity if found, or null if not found.
      */
     @Override
+    @Transactional(readOnly = true)
     public Instructor findInstructorById(int id) {
         // Retrieve the Instructor entity from the persistence context
         return entityManager.find(Instructor.class, id);
@@ -86,6 +87,7 @@ public class AppDAOImpl implements AppDAO {
      * @return The InstructorDetail entity if found, or null if not found.
      */
     @Override
+    @Transactional(readOnly = true)
     public InstructorDetail findInstructorDetailById(int id) {
         // Retrieve the InstructorDetail entity from the persistence context
         return entityManager.find(InstructorDetail.class, id);
@@ -100,6 +102,7 @@ public class AppDAOImpl implements AppDAO {
      * @return A list of courses associated with the given instructor ID.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Course> findCoursesByInstructorId(int id) {
         // Create a TypedQuery to fetch courses for the given instructor ID
         TypedQuery<Course> typedQuery = entityManager.createQuery(
@@ -121,6 +124,7 @@ public class AppDAOImpl implements AppDAO {
      * @return The Instructor object, including the list of associated courses.
      */
     @Override
+    @Transactional(readOnly = true)
     public Instructor findInstructorByIdJoinFetch(int id) {
         // Create a TypedQuery to fetch the instructor with his/her detail and their courses using JOIN FETCH
         TypedQuery<Instructor> typedQuery = entityManager.createQuery(
@@ -143,6 +147,7 @@ public class AppDAOImpl implements AppDAO {
      * @return The Course object if found; otherwise, returns null.
      */
     @Override
+    @Transactional(readOnly = true)
     public Course findCourseById(int id) {
         // Use the EntityManager to find the Course entity by its ID
         return entityManager.find(Course.class, id);
@@ -159,6 +164,7 @@ public class AppDAOImpl implements AppDAO {
      * @return The Course entity along with its associated reviews if found; otherwise, null.
      */
     @Override
+    @Transactional(readOnly = true)
     public Course findCourseAndReviewsByCourseId(int id) {
         // Create a TypedQuery to fetch the Course and associated reviews using a JOIN FETCH
         TypedQuery<Course> typedQuery = entityManager.createQuery(
@@ -187,6 +193,7 @@ public class AppDAOImpl implements AppDAO {
      * @return The Course entity along with its associated students if found; otherwise, null.
      */
     @Override
+    @Transactional(readOnly = true)
     public Course findCourseAndStudentsByCourseId(int id) {
         // Create a TypedQuery to fetch the Course and associated students using a JOIN FETCH
         TypedQuery<Course> typedQuery = entityManager.createQuery(
@@ -215,6 +222,7 @@ public class AppDAOImpl implements AppDAO {
      * @return The Student entity along with its associated courses if found; otherwise, null.
      */
     @Override
+    @Transactional(readOnly = true)
     public Student findStudentAndCoursesByStudentId(int id) {
         // Create a TypedQuery to fetch the Student and associated courses using a JOIN FETCH
         TypedQuery<Student> typedQuery = entityManager.createQuery(
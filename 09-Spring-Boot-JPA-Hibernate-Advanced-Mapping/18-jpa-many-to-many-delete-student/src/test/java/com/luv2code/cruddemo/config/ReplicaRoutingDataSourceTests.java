@@ -0,0 +1,173 @@
+package com.luv2code.cruddemo.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+/**
+ * Routes transactions between two in-memory H2 databases that stand in for the primary and the replica.
+ * <p>
+ * H2 has no "SHOW REPLICA STATUS", so the lag is supplied by the test; the probe still runs on the replica.
+ */
+class ReplicaRoutingDataSourceTests {
+
+	private final AtomicReference<Long> lagSeconds = new AtomicReference<>(0L);
+
+	// Set to make the probe hang until it is counted down
+	private volatile CountDownLatch hangingProbe;
+
+	private JdbcTemplate replica;
+
+	private ReplicaLagMonitor monitor;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private TransactionTemplate readOnly;
+
+	private TransactionTemplate readWrite;
+
+	@BeforeEach
+	void setUp() {
+		DataSource primaryDataSource = database("primary");
+		DataSource replicaDataSource = database("replica");
+		replica = new JdbcTemplate(replicaDataSource);
+
+		monitor = new ReplicaLagMonitor(replicaDataSource, 5, 20, 200) {
+			@Override
+			protected Long readLagSeconds(JdbcTemplate replica) {
+				CountDownLatch latch = hangingProbe;
+				if (latch != null) {
+					try {
+						latch.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				replica.queryForObject("SELECT name FROM server", String.class);
+				return lagSeconds.get();
+			}
+		};
+		monitor.afterPropertiesSet();
+
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(monitor);
+		routing.setTargetDataSources(Map.of(
+				ReplicaRoutingDataSource.PRIMARY, primaryDataSource,
+				ReplicaRoutingDataSource.REPLICA, replicaDataSource));
+		routing.setDefaultTargetDataSource(primaryDataSource);
+		routing.afterPropertiesSet();
+		DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		readWrite = new TransactionTemplate(transactionManager);
+	}
+
+	@AfterEach
+	void tearDown() {
+		CountDownLatch latch = hangingProbe;
+		if (latch != null) {
+			latch.countDown();
+		}
+		monitor.destroy();
+	}
+
+	@Test
+	void routesReadOnlyTransactionsToTheReplica() {
+		awaitReplicaUsable(true);
+
+		assertThat(readOnlyServer()).isEqualTo("replica");
+		assertThat(readWriteServer()).isEqualTo("primary");
+		assertThat(server()).isEqualTo("primary");
+	}
+
+	@Test
+	void fallsBackToThePrimaryWhileTheReplicaLags() {
+		awaitReplicaUsable(true);
+
+		lagSeconds.set(60L);
+		awaitReplicaUsable(false);
+		assertThat(readOnlyServer()).isEqualTo("primary");
+
+		lagSeconds.set(1L);
+		awaitReplicaUsable(true);
+		assertThat(readOnlyServer()).isEqualTo("replica");
+
+		// Replication stopped
+		lagSeconds.set(null);
+		awaitReplicaUsable(false);
+		assertThat(readOnlyServer()).isEqualTo("primary");
+	}
+
+	@Test
+	void fallsBackToThePrimaryWhenTheProbeFails() {
+		awaitReplicaUsable(true);
+
+		// The replica comes back empty, so the probe query fails
+		replica.execute("SHUTDOWN");
+		awaitReplicaUsable(false);
+
+		assertThat(readOnlyServer()).isEqualTo("primary");
+	}
+
+	@Test
+	void routingDoesNotWaitForAHangingProbe() {
+		awaitReplicaUsable(true);
+
+		CountDownLatch latch = new CountDownLatch(1);
+		hangingProbe = latch;
+		awaitReplicaUsable(false);
+
+		assertTimeout(Duration.ofMillis(500), () -> assertThat(readOnlyServer()).isEqualTo("primary"));
+
+		hangingProbe = null;
+		latch.countDown();
+		awaitReplicaUsable(true);
+		assertThat(readOnlyServer()).isEqualTo("replica");
+	}
+
+	private String readOnlyServer() {
+		return readOnly.execute(status -> server());
+	}
+
+	private String readWriteServer() {
+		return readWrite.execute(status -> server());
+	}
+
+	private String server() {
+		return jdbcTemplate.queryForObject("SELECT name FROM server", String.class);
+	}
+
+	private void awaitReplicaUsable(boolean usable) {
+		await().atMost(Duration.ofSeconds(5)).until(() -> monitor.isReplicaUsable() == usable);
+	}
+
+	/**
+	 * Creates an in-memory database whose "server" table holds its name.
+	 */
+	private static DataSource database(String name) {
+		DataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE server (name VARCHAR(20))");
+		jdbcTemplate.update("INSERT INTO server VALUES (?)", name);
+		return dataSource;
+	}
+}
@@ -3,15 +3,22 @@ package com.luv2Code.springboot.thymeleafdemo.controller;
 
 import com.luv2Code.springboot.thymeleafdemo.model.Employee;
 import com.luv2Code.springboot.thymeleafdemo.service.EmployeeService;
+import com.luv2Code.springboot.thymeleafdemo.view.EmployeeStreamingRenderer;
+import com.luv2Code.springboot.thymeleafdemo.view.EmployeeTableCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.io.IOException;
 
 /**
  * Controller class for handling Employee-related requests.
@@ -19,13 +26,26 @@ import java.util.List;
 @Controller
 public class EmployeeController {
 
+    // Default and maximum number of employees shown on one page of the list
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     // Injecting the EmployeeService to interact with the service layer
     private EmployeeService employeeService;
 
-    // Constructor-based dependency injection for EmployeeService
+    // Cache of the rendered employee table
+    private EmployeeTableCache employeeTableCache;
+
+    // Renders the page listing all employees while streaming them from the database
+    private EmployeeStreamingRenderer employeeStreamingRenderer;
+
+    // Constructor-based dependency injection for the service and the view helpers
     @Autowired
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, EmployeeTableCache employeeTableCache,
+                              EmployeeStreamingRenderer employeeStreamingRenderer) {
         this.employeeService = employeeService;
+        this.employeeTableCache = employeeTableCache;
+        this.employeeStreamingRenderer = employeeStreamingRenderer;
     }
 
     /**
@@ -109,23 +129,61 @@ public class EmployeeController {
 
 
     /**
-     * Display the list of employees.
+     * Display one page of the list of employees.
+     * <p>
+     * The employee table is taken from the EmployeeTableCache, so an unchanged page is neither
+     * queried nor rendered again. The ETag only changes when the employee data changes, which lets
+     * the browser revalidate with If-None-Match and receive "304 Not Modified" without a body.
      *
-     * @param model The model to pass data to the view.
-     * @return The Thymeleaf template "employees/list-employees".
+     * @param page       The zero-based page number.
+     * @param size       The number of employees per page (at most MAX_PAGE_SIZE).
+     * @param model      The model to pass data to the view.
+     * @param webRequest The current request, used for the conditional request check.
+     * @param request    The current servlet request, needed to render the table fragment.
+     * @param response   The current servlet response.
+     * @return The Thymeleaf template "employees/list-employees", or null if the client copy is still valid.
      */
     @GetMapping("/employees/list")
-    public String listEmployees(Model model) {
-        // Retrieve all employees from the service layer
-        List<Employee> employees = employeeService.findAll();
-
-        // Add the employees list to the model
-        model.addAttribute("employees", employees);
+    public String listEmployees(@RequestParam(name = "page", defaultValue = "0") int page,
+                                @RequestParam(name = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                Model model, WebRequest webRequest,
+                                HttpServletRequest request, HttpServletResponse response) {
+        // Keep the paging parameters within sane bounds
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        // The browser must revalidate every time, but may keep its copy while the ETag matches
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+
+        long version = employeeService.getDataVersion();
+        String etag = "\"" + version + "-" + pageNumber + "-" + pageSize + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            // 304 Not Modified has already been prepared, nothing to render
+            return null;
+        }
+
+        // Add the pre-rendered employee table to the model
+        model.addAttribute("employeeTable",
+                employeeTableCache.getTable(version, pageNumber, pageSize, request, response));
 
         // Return the list view
         return "employees/list-employees";
     }
 
+    /**
+     * Display all employees on one page, streamed to the browser while they are read.
+     * <p>
+     * Meant for very large directories: nothing is collected in memory, see EmployeeStreamingRenderer.
+     *
+     * @param request  The current servlet request.
+     * @param response The servlet response the page is written to.
+     * @throws IOException If writing to the client fails.
+     */
+    @GetMapping("/employees/list/all")
+    public void listAllEmployees(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        employeeStreamingRenderer.render(request, response);
+    }
+
     /**
      * Save or update an employee.
      *
@@ -0,0 +1,16 @@
+// Define the package for the model classes
+package com.luv2Code.springboot.thymeleafdemo.model;
+
+/**
+ * Read-only projection of an Employee, as shown in one row of the employee table.
+ * <p>
+ * Spring Data JPA fills it through a constructor expression, so the rows are not managed
+ * entities: streaming many of them does not grow the persistence context.
+ *
+ * @param id        The employee ID.
+ * @param firstName The first name of the employee.
+ * @param lastName  The last name of the employee.
+ * @param email     The email address of the employee.
+ */
+public record EmployeeRow(int id, String firstName, String lastName, String email) {
+}
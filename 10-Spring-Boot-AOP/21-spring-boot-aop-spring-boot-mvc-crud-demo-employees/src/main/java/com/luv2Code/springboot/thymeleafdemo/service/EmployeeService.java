@@ -1,13 +1,23 @@
 package com.luv2Code.springboot.thymeleafdemo.service;
 
 import com.luv2Code.springboot.thymeleafdemo.model.Employee;
+import com.luv2Code.springboot.thymeleafdemo.model.EmployeeRow;
+import org.springframework.data.domain.Page;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
 
     List<Employee> findAll();
 
+    Page<Employee> findPage(int page, int size);
+
+    void streamAll(Consumer<Iterator<EmployeeRow>> consumer);
+
+    long getDataVersion();
+
     Employee findById(int id);
 
     Employee save(Employee employee);
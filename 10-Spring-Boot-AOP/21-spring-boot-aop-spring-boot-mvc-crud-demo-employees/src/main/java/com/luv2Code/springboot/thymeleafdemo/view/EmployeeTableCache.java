@@ -0,0 +1,113 @@
+// Define the package for the view helpers
+package com.luv2Code.springboot.thymeleafdemo.view;
+
+import com.luv2Code.springboot.thymeleafdemo.model.Employee;
+import com.luv2Code.springboot.thymeleafdemo.service.EmployeeService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the rendered employee table fragment ("employees/employee-table").
+ * <p>
+ * The fragment is rendered once per (data version, page, page size) and the resulting HTML is
+ * reused until the EmployeeService reports a new data version, i.e. until an employee is saved
+ * or deleted. A cache hit needs neither a database query nor a Thymeleaf render.
+ */
+@Component
+public class EmployeeTableCache {
+
+    // Upper bound on the cached pages of the current data version
+    private static final int MAX_ENTRIES = 256;
+
+    private static final String TABLE_TEMPLATE = "employees/employee-table";
+
+    private final EmployeeService employeeService;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final ApplicationContext applicationContext;
+
+    private final Map<Key, String> renderedTables = new ConcurrentHashMap<>();
+
+    // Data version the cached entries belong to
+    private volatile long cachedVersion = Long.MIN_VALUE;
+
+    /**
+     * Constructor for injecting the dependencies.
+     *
+     * @param employeeService    The service providing the employee pages and the data version.
+     * @param templateEngine     The Spring Boot configured Thymeleaf engine.
+     * @param applicationContext The context used to evaluate Spring EL expressions in the fragment.
+     */
+    @Autowired
+    public EmployeeTableCache(EmployeeService employeeService, SpringTemplateEngine templateEngine,
+                              ApplicationContext applicationContext) {
+        this.employeeService = employeeService;
+        this.templateEngine = templateEngine;
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * Returns the rendered table of one page, rendering it only on a cache miss.
+     *
+     * @param version  The data version read by the caller (also used for the ETag).
+     * @param page     The zero-based page number.
+     * @param size     The number of employees per page.
+     * @param request  The current request, needed to build the links of the fragment.
+     * @param response The current response.
+     * @return The HTML of the employee table and its pagination links.
+     */
+    public String getTable(long version, int page, int size,
+                           HttpServletRequest request, HttpServletResponse response) {
+        synchronized (renderedTables) {
+            if (version > cachedVersion) {
+                // The data changed: every cached page is stale
+                renderedTables.clear();
+                cachedVersion = version;
+            } else if (version < cachedVersion) {
+                // A request that read the version before the latest change; never cache its result
+                return render(page, size, request, response);
+            }
+        }
+
+        Key key = new Key(version, page, size);
+        String html = renderedTables.get(key);
+        if (html == null) {
+            html = render(page, size, request, response);
+            if (renderedTables.size() >= MAX_ENTRIES) {
+                renderedTables.clear();
+            }
+            renderedTables.put(key, html);
+        }
+        return html;
+    }
+
+    private String render(int page, int size, HttpServletRequest request, HttpServletResponse response) {
+        Page<Employee> employeePage = employeeService.findPage(page, size);
+
+        // A web context, so that @{...} links resolve against the servlet context path
+        WebContext context = new WebContext(
+                JakartaServletWebApplication.buildApplication(request.getServletContext())
+                        .buildExchange(request, response),
+                request.getLocale());
+        context.setVariable(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                new ThymeleafEvaluationContext(applicationContext, null));
+        context.setVariable("employeePage", employeePage);
+
+        return templateEngine.process(TABLE_TEMPLATE, context);
+    }
+
+    private record Key(long version, int page, int size) {
+    }
+}
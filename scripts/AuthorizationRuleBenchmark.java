@@ -0,0 +1,141 @@
+import com.luv2Code.springboot.cruddemo.security.CompiledAuthorizationManager;
+import com.luv2Code.springboot.cruddemo.security.DemoSecurityConfig;
+import com.luv2Code.springboot.cruddemo.security.RoleIndex;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * DB-free microbenchmark: CompiledAuthorizationManager vs Spring Security's matcher chain.
+ * <p>
+ * Both managers evaluate the employee rule table of 05-Spring-Boot-REST-API-Security/06 in memory,
+ * without a servlet container or a database. The matcher chain is what requestMatchers(method, pattern)
+ * .hasRole(role) builds, using AntPathRequestMatcher as a stand-in for the MVC matcher. Run from the module:
+ * <pre>
+ *   cd 05-Spring-Boot-REST-API-Security/06-spring-boot-rest-security-JPA-Hibernate-bcrypt
+ *   ./mvnw -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ *   java -cp "target/classes:$(cat target/classpath.txt)" ../../scripts/AuthorizationRuleBenchmark.java [seconds]
+ * </pre>
+ * Each variant is first warmed up, then measured for the given seconds (default 5) in alternating rounds.
+ * It reports nanoseconds and bytes allocated per authorization decision, averaged over a mix of granted,
+ * denied, unmatched and percent-encoded requests, including the decoding of the request path.
+ */
+public class AuthorizationRuleBenchmark {
+
+    private static final String[][] REQUESTS = {
+            {"GET", "/api/employees"},
+            {"GET", "/api/employees/42"},
+            {"POST", "/api/employees"},
+            {"PUT", "/api/employees"},
+            {"DELETE", "/api/employees/42"},
+            {"DELETE", "/api/%65mployees/42"},
+            {"GET", "/actuator/metrics"},
+    };
+
+    private static final int ROUNDS = 5;
+
+    private static volatile boolean sink;
+
+    public static void main(String[] args) {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 5;
+
+        AuthorizationManager<RequestAuthorizationContext> compiled =
+                new DemoSecurityConfig().employeeAuthorizationManager(new RoleIndex());
+        AuthorizationManager<HttpServletRequest> chain = RequestMatcherDelegatingAuthorizationManager.builder()
+                .add(new AntPathRequestMatcher("/api/employees", "GET"), AuthorityAuthorizationManager.hasRole("EMPLOYEE"))
+                .add(new AntPathRequestMatcher("/api/employees/**", "GET"), AuthorityAuthorizationManager.hasRole("EMPLOYEE"))
+                .add(new AntPathRequestMatcher("/api/employees", "POST"), AuthorityAuthorizationManager.hasRole("MANAGER"))
+                .add(new AntPathRequestMatcher("/api/employees", "PUT"), AuthorityAuthorizationManager.hasRole("MANAGER"))
+                .add(new AntPathRequestMatcher("/api/employees/**", "DELETE"), AuthorityAuthorizationManager.hasRole("ADMIN"))
+                .build();
+
+        Authentication user = UsernamePasswordAuthenticationToken.authenticated("susan", "n/a",
+                AuthorityUtils.createAuthorityList("ROLE_EMPLOYEE", "ROLE_MANAGER"));
+        Supplier<Authentication> authentication = () -> user;
+
+        MockHttpServletRequest[] requests = new MockHttpServletRequest[REQUESTS.length];
+        RequestAuthorizationContext[] contexts = new RequestAuthorizationContext[REQUESTS.length];
+        for (int i = 0; i < REQUESTS.length; i++) {
+            requests[i] = new MockHttpServletRequest(REQUESTS[i][0], REQUESTS[i][1]);
+            // The servlet container provides the decoded path, which AntPathRequestMatcher matches
+            requests[i].setServletPath(UriUtils.decode(REQUESTS[i][1], StandardCharsets.UTF_8));
+            contexts[i] = new RequestAuthorizationContext(requests[i]);
+        }
+
+        Runnable compiledOp = new Runnable() {
+            private int next;
+
+            @Override
+            public void run() {
+                int i = next++ % contexts.length;
+                sink = compiled.check(authentication, contexts[i]).isGranted();
+            }
+        };
+        Runnable chainOp = new Runnable() {
+            private int next;
+
+            @Override
+            public void run() {
+                int i = next++ % requests.length;
+                sink = chain.check(authentication, requests[i]).isGranted();
+            }
+        };
+
+        // Warm up both variants before measuring either
+        measure(compiledOp, seconds);
+        measure(chainOp, seconds);
+
+        double[] compiledResult = new double[2];
+        double[] chainResult = new double[2];
+        for (int round = 0; round < ROUNDS; round++) {
+            accumulate(compiledResult, measure(compiledOp, seconds));
+            accumulate(chainResult, measure(chainOp, seconds));
+        }
+
+        System.out.printf("%-14s %12s %14s%n", "variant", "ns/decision", "bytes/decision");
+        System.out.printf("%-14s %12.1f %14.1f%n", "compiled", compiledResult[0] / ROUNDS, compiledResult[1] / ROUNDS);
+        System.out.printf("%-14s %12.1f %14.1f%n", "matcher chain", chainResult[0] / ROUNDS, chainResult[1] / ROUNDS);
+    }
+
+    /**
+     * Runs the operation for the given time.
+     *
+     * @return Nanoseconds and bytes allocated per operation.
+     */
+    private static double[] measure(Runnable operation, long seconds) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long operations = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long now;
+        do {
+            // Check the clock once per batch, so that it does not dominate the figures
+            for (int i = 0; i < 1_000; i++) {
+                operation.run();
+            }
+            operations += 1_000;
+            now = System.nanoTime();
+        } while (now < deadline);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new double[]{(now - start) / (double) operations, allocated / (double) operations};
+    }
+
+    private static void accumulate(double[] total, double[] result) {
+        total[0] += result[0];
+        total[1] += result[1];
+    }
+}
@@ -0,0 +1,175 @@
+import com.luv2code.springCoreDemo.common.Coach;
+import com.luv2code.springCoreDemo.instrumentation.BeanInstrumentationPostProcessor;
+import com.luv2code.springCoreDemo.scope.PooledScope;
+import com.luv2code.springCoreDemo.scope.PooledScopeSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * DB-free microbenchmark: the cost of one Coach call per bean scope.
+ * <p>
+ * Compares, in one thread and without a web server:
+ * <ul>
+ *   <li>singleton: a call on an injected singleton</li>
+ *   <li>prototype: ObjectProvider&lt;Coach&gt;.getObject() and a call, i.e. a new instance per use</li>
+ *   <li>prototype+instr: the same with the BeanInstrumentationPostProcessor of this module registered</li>
+ *   <li>pooled: a call through the proxy of the "pooled" scope (borrow, call, return)</li>
+ * </ul>
+ * for a trivial coach and for a costly one that allocates a 64 KB buffer and compiles a pattern when
+ * built, like the components the pooled scope is meant for. The lesson's own coaches print to the
+ * console in their constructors, which would dominate the figures, so the script brings its own.
+ * Run from 02-Spring-Boot-Spring-Core/07-Bean-Scopes:
+ * <pre>
+ *   ./mvnw -q compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ *   java -cp "target/classes:$(cat target/classpath.txt)" ../../scripts/BeanScopeBenchmark.java [seconds]
+ * </pre>
+ * Each variant is first warmed up, then measured for the given seconds (default 3) in alternating rounds.
+ * It reports nanoseconds and bytes allocated per call. The pooled scope also keeps a non-thread-safe
+ * instance to one thread at a time; that guarantee is not what is measured here.
+ */
+public class BeanScopeBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private static volatile Object sink;
+
+    /**
+     * Nothing to build.
+     */
+    public static class LightCoach implements Coach {
+
+        @Override
+        public String getDailyWorkout() {
+            return "Practice fast bowling for 15 minutes.";
+        }
+    }
+
+    /**
+     * Holds a buffer and a compiled pattern, both built with the instance.
+     */
+    public static class CostlyCoach implements Coach {
+
+        private final byte[] buffer = new byte[64 * 1024];
+
+        private final Pattern pattern = Pattern.compile("(?<drill>[a-z ]+) for (?<minutes>\\d+) minutes\\.");
+
+        @Override
+        public String getDailyWorkout() {
+            String workout = "Practice fast bowling for 15 minutes.";
+            buffer[0] = (byte) (pattern.matcher(workout).matches() ? 1 : 0);
+            return workout;
+        }
+    }
+
+    public static void main(String[] args) {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 3;
+
+        GenericApplicationContext plain = context(false);
+        GenericApplicationContext instrumented = context(true);
+
+        Map<String, Runnable> variants = new LinkedHashMap<>();
+        for (Class<? extends Coach> type : List.<Class<? extends Coach>>of(LightCoach.class, CostlyCoach.class)) {
+            String kind = (type == LightCoach.class) ? "light" : "costly";
+            Coach singleton = plain.getBean(kind + "-singleton", Coach.class);
+            ObjectProvider<? extends Coach> prototype = plain.getBeanProvider(type);
+            ObjectProvider<? extends Coach> instrumentedPrototype = instrumented.getBeanProvider(type);
+            Coach pooled = plain.getBean(kind + "-pooled", Coach.class);
+
+            variants.put(kind + " singleton", () -> sink = singleton.getDailyWorkout());
+            variants.put(kind + " prototype", () -> sink = prototype.getObject().getDailyWorkout());
+            variants.put(kind + " prototype+instr", () -> sink = instrumentedPrototype.getObject().getDailyWorkout());
+            variants.put(kind + " pooled", () -> sink = pooled.getDailyWorkout());
+        }
+
+        // Warm up every variant before measuring any
+        for (Runnable variant : variants.values()) {
+            measure(variant, seconds);
+        }
+
+        Map<String, double[]> results = new LinkedHashMap<>();
+        for (String name : variants.keySet()) {
+            results.put(name, new double[2]);
+        }
+        for (int round = 0; round < ROUNDS; round++) {
+            for (Map.Entry<String, Runnable> variant : variants.entrySet()) {
+                double[] result = measure(variant.getValue(), seconds);
+                double[] total = results.get(variant.getKey());
+                total[0] += result[0];
+                total[1] += result[1];
+            }
+        }
+
+        System.out.printf("%-24s %10s %12s%n", "variant", "ns/call", "bytes/call");
+        for (Map.Entry<String, double[]> result : results.entrySet()) {
+            System.out.printf("%-24s %10.1f %12.1f%n", result.getKey(),
+                    result.getValue()[0] / ROUNDS, result.getValue()[1] / ROUNDS);
+        }
+
+        plain.close();
+        instrumented.close();
+    }
+
+    /**
+     * A container with a singleton, a prototype and a pooled bean of each coach class.
+     * <p>
+     * Only the prototypes are autowire candidates, so ObjectProvider&lt;LightCoach&gt; resolves to them.
+     */
+    private static GenericApplicationContext context(boolean instrumented) {
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.getBeanFactory().registerScope(PooledScope.SCOPE_POOLED,
+                new PooledScope(new PooledScopeSettings(1, 4, 8, Duration.ofMillis(500))));
+        if (instrumented) {
+            context.registerBean(BeanInstrumentationPostProcessor.class);
+        }
+        register(context, "light", LightCoach.class, LightCoach::new);
+        register(context, "costly", CostlyCoach.class, CostlyCoach::new);
+        context.refresh();
+        return context;
+    }
+
+    private static <T extends Coach> void register(GenericApplicationContext context, String kind,
+                                                   Class<T> type, Supplier<T> constructor) {
+        context.registerBean(kind + "-singleton", type, constructor,
+                definition -> definition.setAutowireCandidate(false));
+        context.registerBean(kind + "-prototype", type, constructor,
+                definition -> definition.setScope(ConfigurableBeanFactory.SCOPE_PROTOTYPE));
+        context.registerBean(kind + "-pooled", type, constructor, definition -> {
+            definition.setScope(PooledScope.SCOPE_POOLED);
+            definition.setAutowireCandidate(false);
+        });
+    }
+
+    /**
+     * Runs the operation for the given time.
+     *
+     * @return Nanoseconds and bytes allocated per operation.
+     */
+    private static double[] measure(Runnable operation, long seconds) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long operations = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long now;
+        do {
+            // Check the clock once per batch, so that it does not dominate the figures
+            for (int i = 0; i < 1_000; i++) {
+                operation.run();
+            }
+            operations += 1_000;
+            now = System.nanoTime();
+        } while (now < deadline);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new double[]{(now - start) / (double) operations, allocated / (double) operations};
+    }
+}
@@ -0,0 +1,232 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Latency benchmark for the queries behind GET /api/employees/search, before and after the search indexes.
+ * <p>
+ * Fills a scratch table shaped like "employee" with synthetic rows, then times each query shape
+ * without and with the (last_name, id) index of spring-boot-employee-sql-script/employee-search-indexes.sql:
+ * <ul>
+ *   <li>download: the old approach, SELECT every employee and filter and sort on the client</li>
+ *   <li>prefix: the first page of a two-letter "lastName" prefix, as issued by the endpoint</li>
+ *   <li>offset: a page in the middle of the table with LIMIT/OFFSET</li>
+ *   <li>keyset-or: the same page with only the keyset condition Spring Data generates from after/afterId</li>
+ *   <li>keyset: the same page as issued by the endpoint, which adds "last_name >= ?" as a range start</li>
+ * </ul>
+ * Runs against an in-memory H2 database by default, or any JDBC URL (e.g. a scratch MySQL schema; the
+ * table "employee_search_benchmark" is dropped and recreated there). Use the module classpath for the drivers:
+ * <pre>
+ *   cd 04-Spring-Boot-REST-CRUD/14-spring-boot-rest-crud-employee-with-spring-data-jpa
+ *   ./mvnw -q dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ *   java -Xmx2g -cp "$(cat target/classpath.txt)" ../../scripts/EmployeeSearchBenchmark.java [rows] [seconds] [jdbc-url user password]
+ * </pre>
+ * Defaults: 100000 rows, 3 seconds per query. The request's 1M and 10M row figures need a MySQL server
+ * (e.g. 1000000 3 jdbc:mysql://localhost:3306/benchmark springstudent springstudent); the
+ * FULLTEXT path ("q") is MySQL-only and not measured. Each query is warmed up before it is measured;
+ * the report shows p50 and p99 latency in milliseconds.
+ */
+public class EmployeeSearchBenchmark {
+
+    private static final String TABLE = "employee_search_benchmark";
+
+    private static final int PAGE = 20;
+
+    // Parameters are rotated, so that no run can reuse the result of the previous one
+    private static final int VARIANTS = 16;
+
+    private static volatile int sink;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 3;
+        String url = args.length > 2 ? args[2] : "jdbc:h2:mem:search;DB_CLOSE_DELAY=-1";
+        String user = args.length > 3 ? args[3] : "sa";
+        String password = args.length > 4 ? args[4] : "";
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            fill(connection, rows);
+
+            // Two-letter prefixes, and pages in the middle half of the table with the keyset cursor
+            // the previous page handed out
+            Random random = new Random(7);
+            String[] prefixes = new String[VARIANTS];
+            int[] offsets = new int[VARIANTS];
+            String[] afterLastNames = new String[VARIANTS];
+            int[] afterIds = new int[VARIANTS];
+            try (PreparedStatement cursor = connection.prepareStatement(
+                    "SELECT last_name, id FROM " + TABLE + " ORDER BY last_name, id LIMIT 1 OFFSET ?")) {
+                for (int i = 0; i < VARIANTS; i++) {
+                    prefixes[i] = name(random).substring(0, 2);
+                    offsets[i] = rows / 4 + random.nextInt(rows / 2);
+                    cursor.setInt(1, offsets[i] - 1);
+                    try (ResultSet resultSet = cursor.executeQuery()) {
+                        resultSet.next();
+                        afterLastNames[i] = resultSet.getString(1);
+                        afterIds[i] = resultSet.getInt(2);
+                    }
+                }
+            }
+
+            List<String> report = new ArrayList<>();
+            for (boolean indexed : new boolean[]{false, true}) {
+                if (indexed) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("CREATE INDEX idx_bench_last_name_id ON " + TABLE + " (last_name, id)");
+                    }
+                }
+                String phase = indexed ? "indexed" : "no index";
+
+                report.add(row("download", phase, measure(seconds, i -> download(connection, prefixes[i]))));
+                report.add(row("prefix", phase, measure(seconds, i -> query(connection,
+                        "SELECT id, first_name, last_name, email FROM " + TABLE
+                                + " WHERE last_name LIKE ? ORDER BY last_name, id LIMIT " + PAGE,
+                        prefixes[i] + "%"))));
+                report.add(row("offset", phase, measure(seconds, i -> query(connection,
+                        "SELECT id, first_name, last_name, email FROM " + TABLE
+                                + " ORDER BY last_name, id LIMIT " + PAGE + " OFFSET ?",
+                        offsets[i]))));
+                report.add(row("keyset-or", phase, measure(seconds, i -> query(connection,
+                        "SELECT id, first_name, last_name, email FROM " + TABLE
+                                + " WHERE (last_name > ? OR last_name = ? AND id > ?) ORDER BY last_name, id LIMIT " + PAGE,
+                        afterLastNames[i], afterLastNames[i], afterIds[i]))));
+                report.add(row("keyset", phase, measure(seconds, i -> query(connection,
+                        "SELECT id, first_name, last_name, email FROM " + TABLE
+                                + " WHERE last_name >= ? AND (last_name > ? OR last_name = ? AND id > ?)"
+                                + " ORDER BY last_name, id LIMIT " + PAGE,
+                        afterLastNames[i], afterLastNames[i], afterLastNames[i], afterIds[i]))));
+            }
+
+            System.out.printf("%,d rows%n", rows);
+            System.out.printf("%-10s %-10s %10s %10s%n", "query", "phase", "p50 ms", "p99 ms");
+            report.forEach(System.out::println);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE " + TABLE);
+            }
+        }
+    }
+
+    private static void fill(Connection connection, int rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " (id INT PRIMARY KEY, first_name VARCHAR(45),"
+                    + " last_name VARCHAR(45), email VARCHAR(45))");
+        }
+        connection.setAutoCommit(false);
+        Random random = new Random(42);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + TABLE + " VALUES (?, ?, ?, ?)")) {
+            for (int id = 1; id <= rows; id++) {
+                String firstName = name(random);
+                String lastName = name(random);
+                insert.setInt(1, id);
+                insert.setString(2, firstName);
+                insert.setString(3, lastName);
+                insert.setString(4, (firstName + "." + lastName + id + "@luv2code.com").toLowerCase());
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+    }
+
+    /**
+     * A random capitalized name of 4 to 8 letters, so that a two-letter prefix matches about 1/676 of the rows.
+     */
+    private static String name(Random random) {
+        char[] letters = new char[4 + random.nextInt(5)];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ((i == 0 ? 'A' : 'a') + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+
+    /**
+     * The old approach: load every employee, then filter on the prefix, sort and cut the first page on the client.
+     */
+    private static int download(Connection connection, String prefix) throws SQLException {
+        List<String[]> employees = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT id, first_name, last_name, email FROM " + TABLE)) {
+            while (resultSet.next()) {
+                employees.add(new String[]{resultSet.getString(1), resultSet.getString(2),
+                        resultSet.getString(3), resultSet.getString(4)});
+            }
+        }
+        return (int) employees.stream()
+                .filter(employee -> employee[2].startsWith(prefix))
+                .sorted(Comparator.<String[], String>comparing(employee -> employee[2])
+                        .thenComparingInt(employee -> Integer.parseInt(employee[0])))
+                .limit(PAGE)
+                .count();
+    }
+
+    private static int query(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            int count = 0;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private interface Query {
+        int run(int variant) throws SQLException;
+    }
+
+    /**
+     * Warms the query up for the given time, then runs it for the same time again.
+     *
+     * @return The p50 and p99 latency in milliseconds.
+     */
+    private static double[] measure(long seconds, Query query) throws SQLException {
+        run(seconds, query);
+        long[] latencies = run(seconds, query);
+        Arrays.sort(latencies);
+        return new double[]{percentile(latencies, 0.50), percentile(latencies, 0.99)};
+    }
+
+    private static long[] run(long seconds, Query query) throws SQLException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long[] latencies = new long[1024];
+        int count = 0;
+        // At least one run, even when a single one takes longer than the time given
+        do {
+            long start = System.nanoTime();
+            sink = query.run(count % VARIANTS);
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        } while (System.nanoTime() < deadline);
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static double percentile(long[] sortedLatencies, double quantile) {
+        int index = (int) Math.ceil(sortedLatencies.length * quantile) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static String row(String query, String phase, double[] result) {
+        return String.format("%-10s %-10s %10.2f %10.2f", query, phase, result[0], result[1]);
+    }
+}
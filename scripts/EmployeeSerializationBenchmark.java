@@ -0,0 +1,147 @@
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.luv2Code.springboot.cruddemo.entity.Employee;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * DB-free microbenchmark: the employee list payload before and after JacksonConfig.
+ * <p>
+ * Serializes and deserializes one GET /api/employees response (a list of employees) in memory with
+ * a plain JSON ObjectMapper (before) and with the Blackbird module in JSON, Smile and CBOR (after),
+ * without a servlet container or a database. Run from the module:
+ * <pre>
+ *   cd 04-Spring-Boot-REST-CRUD/14-spring-boot-rest-crud-employee-with-spring-data-jpa
+ *   ./mvnw -q compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ *   java -cp "target/classes:$(cat target/classpath.txt)" ../../scripts/EmployeeSerializationBenchmark.java [seconds] [employees]
+ * </pre>
+ * Each variant is first warmed up, then measured for the given seconds (default 3) in alternating rounds.
+ * It reports nanoseconds and bytes allocated per write and per read of the whole list (default 10000
+ * employees), and the payload size as sent with and without the gzip response compression.
+ */
+public class EmployeeSerializationBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 3;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Employee employee = new Employee("First" + i, "Last" + i, "employee" + i + "@luv2code.com");
+            employee.setId(i);
+            employees.add(employee);
+        }
+
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", JsonMapper.builder().build());
+        mappers.put("json+blackbird", JsonMapper.builder().addModule(new BlackbirdModule()).build());
+        mappers.put("smile+blackbird", SmileMapper.builder().addModule(new BlackbirdModule()).build());
+        mappers.put("cbor+blackbird", CBORMapper.builder().addModule(new BlackbirdModule()).build());
+
+        Map<String, Runnable> writes = new LinkedHashMap<>();
+        Map<String, Runnable> reads = new LinkedHashMap<>();
+        Map<String, byte[]> payloads = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            JavaType listType = mapper.getTypeFactory().constructCollectionType(List.class, Employee.class);
+            byte[] payload = mapper.writeValueAsBytes(employees);
+            payloads.put(entry.getKey(), payload);
+            writes.put(entry.getKey(), () -> {
+                try {
+                    sink = mapper.writeValueAsBytes(employees);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            reads.put(entry.getKey(), () -> {
+                try {
+                    sink = mapper.readValue(payload, listType);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        // Warm up every variant before measuring any
+        for (String variant : mappers.keySet()) {
+            measure(writes.get(variant), seconds);
+            measure(reads.get(variant), seconds);
+        }
+
+        Map<String, double[]> results = new LinkedHashMap<>();
+        for (String variant : mappers.keySet()) {
+            results.put(variant, new double[4]);
+        }
+        for (int round = 0; round < ROUNDS; round++) {
+            for (String variant : mappers.keySet()) {
+                double[] write = measure(writes.get(variant), seconds);
+                double[] read = measure(reads.get(variant), seconds);
+                double[] total = results.get(variant);
+                total[0] += write[0];
+                total[1] += write[1];
+                total[2] += read[0];
+                total[3] += read[1];
+            }
+        }
+
+        System.out.printf("%d employees%n", size);
+        System.out.printf("%-16s %10s %12s %10s %12s %10s %10s%n",
+                "variant", "write ns", "write bytes", "read ns", "read bytes", "payload", "gzipped");
+        for (String variant : mappers.keySet()) {
+            double[] total = results.get(variant);
+            byte[] payload = payloads.get(variant);
+            System.out.printf("%-16s %10.0f %12.0f %10.0f %12.0f %10d %10d%n", variant,
+                    total[0] / ROUNDS, total[1] / ROUNDS, total[2] / ROUNDS, total[3] / ROUNDS,
+                    payload.length, gzip(payload).length);
+        }
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(payload);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Runs the operation for the given time.
+     *
+     * @return Nanoseconds and bytes allocated per operation.
+     */
+    private static double[] measure(Runnable operation, long seconds) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long operations = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long now;
+        do {
+            // Check the clock once per batch, so that it does not dominate the figures
+            for (int i = 0; i < 100; i++) {
+                operation.run();
+            }
+            operations += 100;
+            now = System.nanoTime();
+        } while (now < deadline);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new double[]{(now - start) / (double) operations, allocated / (double) operations};
+    }
+}
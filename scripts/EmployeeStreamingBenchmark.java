@@ -0,0 +1,286 @@
+import com.luv2Code.springboot.thymeleafdemo.model.Employee;
+import com.luv2Code.springboot.thymeleafdemo.model.EmployeeRow;
+import com.luv2Code.springboot.thymeleafdemo.service.EmployeeService;
+import com.luv2Code.springboot.thymeleafdemo.view.EmployeeStreamingRenderer;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * DB-free benchmark: streaming 100,000 employees with EmployeeStreamingRenderer vs rendering a loaded list.
+ * <p>
+ * Renders "employees/list-employees-all" into a response that counts and discards the bytes it is sent,
+ * as a client on a fast network would, from an in-memory EmployeeService:
+ * <ul>
+ *   <li>streaming: EmployeeStreamingRenderer over rows generated one at a time, like the database cursor</li>
+ *   <li>loaded list: the same renderer, but the service first collects all rows in a List, as findAll() would</li>
+ * </ul>
+ * The module's database is not involved, so the figures leave out the time MySQL takes to send the rows;
+ * for the loaded list, all of that time would add to the time to first byte.
+ * Run from 07-Spring-Boot-Spring-MVC-CRUD/04-thymeleaf-demo-employees-delete or from
+ * 10-Spring-Boot-AOP/21-spring-boot-aop-spring-boot-mvc-crud-demo-employees (same classes and template):
+ * <pre>
+ *   ./mvnw -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ *   java -Xmx512m -cp "target/classes:$(cat target/classpath.txt)" ../../scripts/EmployeeStreamingBenchmark.java [rows] [runs]
+ * </pre>
+ * Each variant is warmed up, then run the given number of times (default 5) in alternating order. It reports
+ * the median time to first byte and to the last byte, the bytes sent, the bytes allocated, and the peak heap
+ * in use after any garbage collection during the runs, less the heap in use before the run: the most data the
+ * render kept alive at once.
+ */
+public class EmployeeStreamingBenchmark {
+
+    private static volatile long peakHeapAfterGc;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        watchGarbageCollections();
+
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.refresh();
+
+        // What ThymeleafAutoConfiguration sets up for classpath:/templates/*.html
+        SpringResourceTemplateResolver resolver = new SpringResourceTemplateResolver();
+        resolver.setApplicationContext(applicationContext);
+        resolver.setPrefix("classpath:/templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        templateEngine.setEnableSpringELCompiler(true);
+
+        String[] names = {"streaming", "loaded list"};
+        EmployeeStreamingRenderer[] renderers = {
+                new EmployeeStreamingRenderer(new GeneratingEmployeeService(rows, false), templateEngine, applicationContext),
+                new EmployeeStreamingRenderer(new GeneratingEmployeeService(rows, true), templateEngine, applicationContext)};
+
+        // Warm up both variants before measuring either
+        for (EmployeeStreamingRenderer renderer : renderers) {
+            render(renderer);
+        }
+
+        long[][] firstByteNanos = new long[renderers.length][runs];
+        long[][] lastByteNanos = new long[renderers.length][runs];
+        long[] bytesSent = new long[renderers.length];
+        long[] allocated = new long[renderers.length];
+        long[] peakHeap = new long[renderers.length];
+        for (int run = 0; run < runs; run++) {
+            for (int i = 0; i < renderers.length; i++) {
+                settleHeap();
+                long[] result = render(renderers[i]);
+                firstByteNanos[i][run] = result[0];
+                lastByteNanos[i][run] = result[1];
+                bytesSent[i] = result[2];
+                allocated[i] += result[3];
+                peakHeap[i] = Math.max(peakHeap[i], result[4]);
+            }
+        }
+
+        System.out.printf("%-12s %10s %10s %10s %16s %14s%n",
+                "variant", "TTFB ms", "total ms", "sent MB", "allocated MB/run", "peak heap MB");
+        for (int i = 0; i < renderers.length; i++) {
+            System.out.printf("%-12s %10.2f %10.1f %10.1f %16.1f %14.1f%n", names[i],
+                    median(firstByteNanos[i]) / 1e6, median(lastByteNanos[i]) / 1e6, bytesSent[i] / 1e6,
+                    allocated[i] / (double) runs / 1e6, peakHeap[i] / 1e6);
+        }
+    }
+
+    /**
+     * Renders the page once.
+     *
+     * @return Nanoseconds to the first and to the last byte, bytes sent, bytes allocated and the peak heap
+     * after a garbage collection above the heap in use before.
+     */
+    private static long[] render(EmployeeStreamingRenderer renderer) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        MockHttpServletRequest request = new MockHttpServletRequest(new MockServletContext(), "GET", "/employees/list/all");
+        CountingResponse response = new CountingResponse();
+
+        long heapBefore = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        peakHeapAfterGc = heapBefore;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        response.start = System.nanoTime();
+        renderer.render(request, response);
+        long end = System.nanoTime();
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        // GC notifications are delivered on another thread
+        Thread.sleep(100);
+        return new long[]{response.firstByte - response.start, end - response.start, response.bytes,
+                allocated, peakHeapAfterGc - heapBefore};
+    }
+
+    /**
+     * Records the heap in use after every garbage collection into peakHeapAfterGc.
+     */
+    private static void watchGarbageCollections() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+                if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                    return;
+                }
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                long used = info.getGcInfo().getMemoryUsageAfterGc().values().stream()
+                        .mapToLong(MemoryUsage::getUsed).sum();
+                peakHeapAfterGc = Math.max(peakHeapAfterGc, used);
+            }, null, null);
+        }
+    }
+
+    private static void settleHeap() throws InterruptedException {
+        System.gc();
+        Thread.sleep(100);
+    }
+
+    private static double median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * A response whose body goes nowhere, except into the byte count.
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private long start;
+
+        private long firstByte;
+
+        private long bytes;
+
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                count(1);
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) {
+                count(length);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        CountingResponse() {
+            super(new MockHttpServletResponse());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        private void count(int length) {
+            if (bytes == 0 && length > 0) {
+                firstByte = System.nanoTime();
+            }
+            bytes += length;
+        }
+    }
+
+    /**
+     * Generates employee rows on demand, like an open database cursor, or collects them all first.
+     */
+    private static final class GeneratingEmployeeService implements EmployeeService {
+
+        private final int rows;
+
+        private final boolean loadAll;
+
+        GeneratingEmployeeService(int rows, boolean loadAll) {
+            this.rows = rows;
+            this.loadAll = loadAll;
+        }
+
+        @Override
+        public void streamAll(Consumer<Iterator<EmployeeRow>> consumer) {
+            Iterator<EmployeeRow> cursor = new Iterator<>() {
+                private int next = 1;
+
+                @Override
+                public boolean hasNext() {
+                    return next <= rows;
+                }
+
+                @Override
+                public EmployeeRow next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int id = next++;
+                    return new EmployeeRow(id, "First" + id, "Last" + id, "employee" + id + "@luv2code.com");
+                }
+            };
+            if (loadAll) {
+                List<EmployeeRow> loaded = new ArrayList<>(rows);
+                cursor.forEachRemaining(loaded::add);
+                cursor = loaded.iterator();
+            }
+            consumer.accept(cursor);
+        }
+
+        @Override
+        public List<Employee> findAll() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Page<Employee> findPage(int page, int size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getDataVersion() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Employee findById(int id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Employee save(Employee employee) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteById(int id) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
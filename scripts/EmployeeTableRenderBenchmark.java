@@ -0,0 +1,214 @@
+import com.luv2Code.springboot.thymeleafdemo.model.Employee;
+import com.luv2Code.springboot.thymeleafdemo.model.EmployeeRow;
+import com.luv2Code.springboot.thymeleafdemo.service.EmployeeService;
+import com.luv2Code.springboot.thymeleafdemo.view.EmployeeTableCache;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * DB-free microbenchmark: rendering 10,000 employees through EmployeeTableCache, on a miss vs on a hit.
+ * <p>
+ * Pages through the employees of an in-memory EmployeeService with the module's "employees/employee-table"
+ * template and a Thymeleaf engine set up like Spring Boot's, for the default (50) and the largest (500)
+ * page size of GET /employees/list:
+ * <ul>
+ *   <li>render: a new data version before every pass, so every page is queried and rendered</li>
+ *   <li>cached: the same data version throughout, so every page comes from the cache</li>
+ * </ul>
+ * Run from 07-Spring-Boot-Spring-MVC-CRUD/04-thymeleaf-demo-employees-delete:
+ * <pre>
+ *   ./mvnw -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ *   java -cp "target/classes:$(cat target/classpath.txt)" ../../scripts/EmployeeTableRenderBenchmark.java [employees] [seconds]
+ * </pre>
+ * Each variant is first warmed up, then measured for the given seconds (default 3) in alternating rounds.
+ * It reports milliseconds and bytes allocated per pass over all employees (default 10000), the HTML
+ * size of one pass, and the cost per page.
+ */
+public class EmployeeTableRenderBenchmark {
+
+    private static final int[] PAGE_SIZES = {50, 500};
+
+    private static final int ROUNDS = 5;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        int employees = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 3;
+
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.refresh();
+
+        // What ThymeleafAutoConfiguration sets up for classpath:/templates/*.html
+        SpringResourceTemplateResolver resolver = new SpringResourceTemplateResolver();
+        resolver.setApplicationContext(applicationContext);
+        resolver.setPrefix("classpath:/templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        templateEngine.setEnableSpringELCompiler(true);
+
+        EmployeeTableCache tableCache = new EmployeeTableCache(new InMemoryEmployeeService(employees),
+                templateEngine, applicationContext);
+        MockHttpServletRequest request = new MockHttpServletRequest(new MockServletContext(), "GET", "/employees/list");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String[] names = new String[PAGE_SIZES.length * 2];
+        Runnable[] operations = new Runnable[names.length];
+        long[] htmlLength = new long[PAGE_SIZES.length];
+        // Versions only grow, and a version below the cached one is never cached, so every variant counts up
+        long[] version = {0};
+        for (int i = 0; i < PAGE_SIZES.length; i++) {
+            int size = PAGE_SIZES[i];
+            int pages = (employees + size - 1) / size;
+            int slot = i;
+            names[2 * i] = "render " + size;
+            operations[2 * i] = () -> {
+                long passVersion = ++version[0];
+                long length = 0;
+                for (int page = 0; page < pages; page++) {
+                    String html = tableCache.getTable(passVersion, page, size, request, response);
+                    length += html.length();
+                    sink = html;
+                }
+                htmlLength[slot] = length;
+            };
+            names[2 * i + 1] = "cached " + size;
+            operations[2 * i + 1] = new Runnable() {
+                private long cachedVersion = -1;
+
+                @Override
+                public void run() {
+                    if (cachedVersion != version[0]) {
+                        // Another variant moved the version on: fill the cache once, outside of the timing loop
+                        cachedVersion = ++version[0];
+                        for (int page = 0; page < pages; page++) {
+                            tableCache.getTable(cachedVersion, page, size, request, response);
+                        }
+                    }
+                    for (int page = 0; page < pages; page++) {
+                        sink = tableCache.getTable(cachedVersion, page, size, request, response);
+                    }
+                }
+            };
+        }
+
+        // Warm up all variants before measuring any
+        for (Runnable operation : operations) {
+            measure(operation, seconds);
+        }
+
+        double[][] results = new double[operations.length][2];
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < operations.length; i++) {
+                double[] result = measure(operations[i], seconds);
+                results[i][0] += result[0];
+                results[i][1] += result[1];
+            }
+        }
+
+        System.out.printf("%-11s %10s %14s %10s %12s %14s%n",
+                "variant", "ms/pass", "bytes/pass", "HTML KB", "us/page", "bytes/page");
+        for (int i = 0; i < operations.length; i++) {
+            int size = PAGE_SIZES[i / 2];
+            int pages = (employees + size - 1) / size;
+            double nanos = results[i][0] / ROUNDS;
+            double bytes = results[i][1] / ROUNDS;
+            System.out.printf("%-11s %10.3f %14.0f %10.0f %12.2f %14.0f%n", names[i], nanos / 1e6, bytes,
+                    htmlLength[i / 2] / 1024.0, nanos / 1e3 / pages, bytes / pages);
+        }
+    }
+
+    /**
+     * Runs the operation for the given time. A pass takes milliseconds, so the clock is read after each one.
+     *
+     * @return Nanoseconds and bytes allocated per operation.
+     */
+    private static double[] measure(Runnable operation, long seconds) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        // The cache of a "cached" variant is refilled on its first run, which must not be measured
+        operation.run();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long operations = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long now;
+        do {
+            operation.run();
+            operations++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new double[]{(now - start) / (double) operations, allocated / (double) operations};
+    }
+
+    /**
+     * Serves pages of generated employees, as the repository would return them.
+     */
+    private static final class InMemoryEmployeeService implements EmployeeService {
+
+        private final List<Employee> employees = new ArrayList<>();
+
+        InMemoryEmployeeService(int count) {
+            for (int i = 1; i <= count; i++) {
+                Employee employee = new Employee("First" + i, "Last" + i, "employee" + i + "@luv2code.com");
+                employee.setId(i);
+                employees.add(employee);
+            }
+        }
+
+        @Override
+        public Page<Employee> findPage(int page, int size) {
+            int from = Math.min(page * size, employees.size());
+            int to = Math.min(from + size, employees.size());
+            return new PageImpl<>(employees.subList(from, to), PageRequest.of(page, size), employees.size());
+        }
+
+        @Override
+        public List<Employee> findAll() {
+            return employees;
+        }
+
+        @Override
+        public void streamAll(Consumer<Iterator<EmployeeRow>> consumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getDataVersion() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Employee findById(int id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Employee save(Employee employee) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteById(int id) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Throughput and allocation benchmark: annotated FunRESTController vs the "/fast" functional routes.
+ * <p>
+ * Runs against a started 01-Spring-Boot-Overview/06-properties-demo (which includes the actuator):
+ * <pre>
+ *   cd 01-Spring-Boot-Overview/06-properties-demo && ./mvnw spring-boot:run
+ *   java scripts/FastPathBenchmark.java http://localhost:7070/mycoolapp [seconds] [threads]
+ * </pre>
+ * Every path of both variants (e.g. /teamInfo and /fast/teamInfo) is first warmed up, then measured
+ * for the given seconds (default 20) with the given number of client threads (default 4). It reports
+ * requests per second and the bytes the server allocated per request, from the
+ * jvm.gc.memory.allocated counter. That counter only advances at garbage collections, so
+ * the allocation figure gets more precise the longer the run; treat it as approximate below a few
+ * dozen collections per run.
+ * <p>
+ * The client runs in its own JVM but usually on the same machine: compare the variants with each
+ * other, not with numbers taken elsewhere.
+ */
+public class FastPathBenchmark {
+
+    private static final String[] PATHS = {"/teamInfo", "/", "/workout", "/fortune"};
+
+    private static final Pattern MEASUREMENT = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+    private final String baseUrl;
+
+    private final Duration duration;
+
+    private final int threads;
+
+    public FastPathBenchmark(String baseUrl, Duration duration, int threads) {
+        this.baseUrl = baseUrl;
+        this.duration = duration;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java scripts/FastPathBenchmark.java <base-url> [seconds] [threads]");
+            System.exit(1);
+        }
+        Duration duration = Duration.ofSeconds(args.length > 1 ? Integer.parseInt(args[1]) : 20);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        new FastPathBenchmark(args[0].replaceAll("/$", ""), duration, threads).run();
+    }
+
+    private void run() throws Exception {
+        // Warm up every target before measuring any, so that no variant profits from JIT work done for another
+        for (String path : PATHS) {
+            load(URI.create(baseUrl + path), duration);
+            load(URI.create(baseUrl + "/fast" + path), duration);
+        }
+
+        System.out.printf("%-16s %-10s %12s %16s%n", "path", "variant", "requests/s", "bytes/request");
+        for (String path : PATHS) {
+            measure(path, "annotated", path);
+            measure(path, "functional", "/fast" + path);
+        }
+    }
+
+    private void measure(String path, String variant, String target) throws Exception {
+        URI uri = URI.create(baseUrl + target);
+        double allocatedBefore = allocatedBytes();
+        long requests = load(uri, duration);
+        double allocatedAfter = allocatedBytes();
+
+        System.out.printf("%-16s %-10s %12.0f %16.0f%n", path, variant,
+                requests / (double) duration.toSeconds(), (allocatedAfter - allocatedBefore) / requests);
+    }
+
+    /**
+     * Sends GET requests to the URI from all client threads for the given time.
+     *
+     * @return The number of successful requests.
+     */
+    private long load(URI uri, Duration time) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                long count = 0;
+                while (running.get()) {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException(uri + " answered " + response.statusCode());
+                    }
+                    count++;
+                }
+                return count;
+            }));
+        }
+        Thread.sleep(time.toMillis());
+        running.set(false);
+
+        long total = 0;
+        for (Future<Long> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+        return total;
+    }
+
+    private double allocatedBytes() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/jvm.gc.memory.allocated"))
+                .GET().build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = MEASUREMENT.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No jvm.gc.memory.allocated measurement in " + body);
+        }
+        return Double.parseDouble(matcher.group(1));
+    }
+}
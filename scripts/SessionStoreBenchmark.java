@@ -0,0 +1,143 @@
+import com.luv2Code.demomvcsecurity.config.SessionConfig;
+import com.luv2Code.demomvcsecurity.security.RoleIndex;
+import com.luv2Code.demomvcsecurity.security.RoleMaskedUser;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Embedded-H2 benchmark: heap retained by 100,000 logged-in sessions, on the heap vs in the session store.
+ * <p>
+ * Compares, in one JVM and without a web server:
+ * <ul>
+ *   <li>heap: MapSessionRepository, i.e. sessions kept on the heap as by the servlet container's default</li>
+ *   <li>h2 file: JdbcIndexedSessionRepository on an H2 file database in a temporary directory, set up
+ *       like SessionConfig and application.properties of 08-Spring-Boot-Spring-MVC-Security/14
+ *       (compressed attributes, CACHE_SIZE=8192)</li>
+ * </ul>
+ * Every session holds the security context of its own RoleMaskedUser, as after a form login.
+ * Run from 08-Spring-Boot-Spring-MVC-Security/14-spring-boot-spring-mvc-security-jpa-hibernate-bcrypt-EXTRA:
+ * <pre>
+ *   ./mvnw -q compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ *   java -cp "target/classes:$(cat target/classpath.txt)" ../../scripts/SessionStoreBenchmark.java [sessions] [cacheKb]
+ * </pre>
+ * It creates the given number of sessions (default 100000) in each store and reports the heap still in
+ * use after a full GC, the average time per session save and, for H2, the size of the database file.
+ * Heap figures are the difference to the heap in use before the sessions were created. The file size is
+ * taken while the database is open, before H2 compacts the file on close, and includes old chunk versions.
+ */
+public class SessionStoreBenchmark {
+
+    private static final String SECURITY_CONTEXT = HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY;
+
+    // The length of a "{bcrypt}" hash, which is what the loaded user carries
+    private static final String PASSWORD_HASH = "{bcrypt}$2a$10$" + "x".repeat(53);
+
+    private static final RoleIndex ROLE_INDEX = new RoleIndex();
+
+    // Id of the last session saved by fill
+    private static String lastId;
+
+    public static void main(String[] args) throws IOException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int cacheKb = args.length > 1 ? Integer.parseInt(args[1]) : 8192;
+
+        System.out.printf("%-10s %10s %14s %12s %12s%n", "store", "sessions", "retained MB", "us/save", "file MB");
+
+        // Sessions on the heap
+        long before = usedHeap();
+        Map<String, Session> heapSessions = new ConcurrentHashMap<>();
+        double heapSaveMicros = fill(new MapSessionRepository(heapSessions), sessions);
+        long heapRetained = usedHeap() - before;
+        System.out.printf("%-10s %10d %14.1f %12.1f %12s%n", "heap", heapSessions.size(),
+                heapRetained / 1e6, heapSaveMicros, "-");
+        heapSessions.clear();
+
+        // Sessions in the H2 file database
+        Path directory = Files.createTempDirectory("sessions");
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:file:" + directory.resolve("sessions") + ";CACHE_SIZE=" + cacheKb);
+        dataSource.setUsername("sa");
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource("org/springframework/session/jdbc/schema-h2.sql"))
+                    .execute(dataSource);
+            JdbcIndexedSessionRepository jdbcRepository = new JdbcIndexedSessionRepository(
+                    new JdbcTemplate(dataSource), new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+            jdbcRepository.setConversionService(new SessionConfig().springSessionConversionService());
+
+            before = usedHeap();
+            double jdbcSaveMicros = fill(jdbcRepository, sessions);
+            long jdbcRetained = usedHeap() - before;
+
+            // Read one session back, so the figures are known to describe working sessions
+            Session restored = jdbcRepository.findById(lastId);
+            SecurityContextImpl context = restored.getAttribute(SECURITY_CONTEXT);
+            RoleMaskedUser user = (RoleMaskedUser) context.getAuthentication().getPrincipal();
+            int stored = new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM SPRING_SESSION", Integer.class);
+
+            System.out.printf("%-10s %10d %14.1f %12.1f %12.1f%n", "h2 file", stored, jdbcRetained / 1e6, jdbcSaveMicros,
+                    fileSize(directory) / 1e6);
+            System.out.printf("restored %s with role mask %d%n", user.getUsername(), user.getRoleMask(ROLE_INDEX));
+        } finally {
+            dataSource.close();
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Creates and saves the given number of logged-in sessions.
+     *
+     * @return Microseconds per saved session.
+     */
+    private static <S extends Session> double fill(SessionRepository<S> repository, int sessions) {
+        long start = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            RoleMaskedUser user = new RoleMaskedUser("user" + i, PASSWORD_HASH,
+                    AuthorityUtils.createAuthorityList("ROLE_EMPLOYEE", "ROLE_MANAGER"), ROLE_INDEX);
+            S session = repository.createSession();
+            session.setAttribute(SECURITY_CONTEXT, new SecurityContextImpl(
+                    UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities())));
+            repository.save(session);
+            lastId = session.getId();
+        }
+        return (System.nanoTime() - start) / 1e3 / sessions;
+    }
+
+    /**
+     * Heap in use after garbage collection has settled.
+     */
+    private static long usedHeap() {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    private static long fileSize(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import com.luv2Code.springboot.cruddemo.security.CachingUserDetailsService;
+import com.luv2Code.springboot.cruddemo.security.JoinedJdbcUserDetailsService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.provisioning.JdbcUserDetailsManager;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * Embedded-H2 benchmark: loading a user for authentication, stock JdbcUserDetailsManager vs this module's services.
+ * <p>
+ * Compares, in one thread and without a web server:
+ * <ul>
+ *   <li>stock: JdbcUserDetailsManager with the members/roles queries the module used before, two queries per load</li>
+ *   <li>joined: JoinedJdbcUserDetailsService, one LEFT JOIN query per load</li>
+ *   <li>cached: CachingUserDetailsService in front of the joined service, as configured in DemoSecurityConfig</li>
+ * </ul>
+ * By default the members and roles tables of the custom-tables SQL script are created in an in-memory H2
+ * database, so the figures leave out the network: against MySQL, every query saved is also one round trip
+ * saved. Pass the URL, username and password of an existing database with those tables to measure there.
+ * Run from 05-Spring-Boot-REST-API-Security/05-spring-boot-rest-security-JDBC-custom-tables-names:
+ * <pre>
+ *   ./mvnw -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ *   java -cp "target/classes:$(cat target/classpath.txt)" ../../scripts/UserDetailsLoadBenchmark.java [seconds] [url username password]
+ * </pre>
+ * Each variant is first warmed up, then measured for the given seconds (default 3) in alternating rounds.
+ * It reports nanoseconds and bytes allocated per loaded user, cycling through john, mary and susan.
+ */
+public class UserDetailsLoadBenchmark {
+
+    private static final String[] USERNAMES = {"john", "mary", "susan"};
+
+    private static final int ROUNDS = 5;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 3;
+
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            if (args.length > 3) {
+                dataSource.setJdbcUrl(args[1]);
+                dataSource.setUsername(args[2]);
+                dataSource.setPassword(args[3]);
+            } else {
+                dataSource.setJdbcUrl("jdbc:h2:mem:users;MODE=MySQL;DB_CLOSE_DELAY=-1");
+                createUsers(new JdbcTemplate(dataSource));
+            }
+
+            // The JdbcUserDetailsManager setup DemoSecurityConfig had before JoinedJdbcUserDetailsService
+            JdbcUserDetailsManager stock = new JdbcUserDetailsManager(dataSource);
+            stock.setUsersByUsernameQuery("SELECT user_id, pw, active FROM members WHERE user_id = ?");
+            stock.setAuthoritiesByUsernameQuery("SELECT * FROM roles WHERE user_id = ?");
+            JoinedJdbcUserDetailsService joined = new JoinedJdbcUserDetailsService(dataSource);
+            CachingUserDetailsService cached = new CachingUserDetailsService(joined, Duration.ofSeconds(60), 1000);
+
+            Runnable stockOp = loads(stock);
+            Runnable joinedOp = loads(joined);
+            Runnable cachedOp = loads(cached);
+
+            // Warm up all variants before measuring any
+            measure(stockOp, seconds);
+            measure(joinedOp, seconds);
+            measure(cachedOp, seconds);
+
+            double[] stockResult = new double[2];
+            double[] joinedResult = new double[2];
+            double[] cachedResult = new double[2];
+            for (int round = 0; round < ROUNDS; round++) {
+                accumulate(stockResult, measure(stockOp, seconds));
+                accumulate(joinedResult, measure(joinedOp, seconds));
+                accumulate(cachedResult, measure(cachedOp, seconds));
+            }
+
+            System.out.printf("%-8s %12s %12s%n", "variant", "ns/load", "bytes/load");
+            System.out.printf("%-8s %12.1f %12.1f%n", "stock", stockResult[0] / ROUNDS, stockResult[1] / ROUNDS);
+            System.out.printf("%-8s %12.1f %12.1f%n", "joined", joinedResult[0] / ROUNDS, joinedResult[1] / ROUNDS);
+            System.out.printf("%-8s %12.1f %12.1f%n", "cached", cachedResult[0] / ROUNDS, cachedResult[1] / ROUNDS);
+        }
+    }
+
+    /**
+     * The members and roles of the custom-tables SQL script.
+     */
+    private static void createUsers(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE TABLE members (user_id varchar(50) NOT NULL PRIMARY KEY, pw char(68) NOT NULL, "
+                + "active tinyint NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE roles (user_id varchar(50) NOT NULL, role varchar(50) NOT NULL, "
+                + "UNIQUE (user_id, role), FOREIGN KEY (user_id) REFERENCES members (user_id))");
+        String password = "{bcrypt}$2a$10$qeS0HEh7urweMojsnwNAR.vcXJeXR1UcMRZ2WcGQl9YeuspUdgF.q";
+        for (String username : USERNAMES) {
+            jdbcTemplate.update("INSERT INTO members VALUES (?, ?, 1)", username, password);
+        }
+        jdbcTemplate.update("INSERT INTO roles VALUES ('john', 'ROLE_EMPLOYEE'), ('mary', 'ROLE_EMPLOYEE'), "
+                + "('mary', 'ROLE_MANAGER'), ('susan', 'ROLE_EMPLOYEE'), ('susan', 'ROLE_MANAGER'), ('susan', 'ROLE_ADMIN')");
+    }
+
+    private static Runnable loads(UserDetailsService service) {
+        return new Runnable() {
+            private int next;
+
+            @Override
+            public void run() {
+                sink = service.loadUserByUsername(USERNAMES[next++ % USERNAMES.length]);
+            }
+        };
+    }
+
+    /**
+     * Runs the operation for the given time.
+     *
+     * @return Nanoseconds and bytes allocated per operation.
+     */
+    private static double[] measure(Runnable operation, long seconds) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long operations = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long now;
+        do {
+            // Check the clock once per batch, so that it does not dominate the figures
+            for (int i = 0; i < 100; i++) {
+                operation.run();
+            }
+            operations += 100;
+            now = System.nanoTime();
+        } while (now < deadline);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new double[]{(now - start) / (double) operations, allocated / (double) operations};
+    }
+
+    private static void accumulate(double[] total, double[] result) {
+        total[0] += result[0];
+        total[1] += result[1];
+    }
+}
@@ -0,0 +1,141 @@
+#!/usr/bin/env bash
+#
+# Smoke test of the Employee REST service (04/14) as a JVM jar and as a GraalVM native image.
+#
+# Builds both artifacts, starts each one with the "smoke" profile (in-memory H2 seeded with the
+# five demo employees), calls every endpoint of /api/employees and checks the status codes, then
+# prints the time to the first successful response and the resident memory of both processes.
+#
+#   jvm      java -jar target/*.jar
+#   native   target/cruddemo, built with "./mvnw -Pnative native:compile"
+#
+# Usage:
+#   scripts/native-smoke-test.sh [module-dir]
+#
+#   module-dir  Defaults to the 04/14 spring-data-jpa employee module.
+#   SKIP_BUILD=1  Reuse the artifacts already in target/.
+#   PORT        HTTP port of the application under test (default 8080).
+#
+# The full-text search (?q=) is not called: it relies on a MySQL FULLTEXT index that H2 lacks.
+#
+# Requirements: GraalVM for JDK 17+ with native-image on the PATH (or JAVA_HOME), curl, and
+# Linux for the /proc based memory figures.
+#
+set -euo pipefail
+
+SCRIPT_DIR=$(cd "$(dirname "$0")" && pwd)
+MODULE_DIR=$(cd "${1:-$SCRIPT_DIR/../04-Spring-Boot-REST-CRUD/14-spring-boot-rest-crud-employee-with-spring-data-jpa}" && pwd)
+PORT=${PORT:-8080}
+BASE="http://localhost:$PORT/api/employees"
+PROFILE_ARGS=(--spring.profiles.active=smoke --server.port="$PORT")
+
+cd "$MODULE_DIR"
+
+if [[ "${SKIP_BUILD:-0}" != 1 ]]; then
+    ./mvnw -B -q -DskipTests package
+    ./mvnw -B -q -DskipTests -Pnative native:compile
+fi
+
+JAR=$(ls target/*.jar | grep -v '\.original$' | head -n 1)
+NATIVE=target/cruddemo
+[[ -f "$JAR" ]] || { echo "No jar in target/"; exit 1; }
+[[ -x "$NATIVE" ]] || { echo "No native binary at $NATIVE"; exit 1; }
+
+FAILURES=0
+APP_PID=
+
+stop_app() {
+    if [[ -n "$APP_PID" ]]; then
+        kill "$APP_PID" 2>/dev/null || true
+        wait "$APP_PID" 2>/dev/null || true
+        APP_PID=
+    fi
+}
+trap stop_app EXIT
+
+# Milliseconds since the epoch
+now_ms() {
+    date +%s%3N
+}
+
+# expect <expected-status> <method> <path> [curl args...]
+expect() {
+    local expected=$1 method=$2 path=$3
+    shift 3
+    local status
+    status=$(curl -s -o /dev/null -w '%{http_code}' -X "$method" "$@" "$BASE$path")
+    if [[ "$status" == "$expected" ]]; then
+        printf '  ok    %-6s %-45s %s\n' "$method" "$path" "$status"
+    else
+        printf '  FAIL  %-6s %-45s %s (expected %s)\n' "$method" "$path" "$status" "$expected"
+        FAILURES=$((FAILURES + 1))
+    fi
+}
+
+# Every endpoint of EmployeeRestController, in an order that leaves the seed rows 1-5 untouched
+# until the delete calls at the end
+smoke_endpoints() {
+    local json=(-H 'Content-Type: application/json')
+
+    expect 200 GET ''
+    expect 200 GET '' -H 'Accept: application/x-jackson-smile'
+    expect 200 GET '' -H 'Accept: application/cbor'
+    expect 200 GET '/1'
+    # The single-employee lookup reports a missing ID with a plain RuntimeException
+    expect 500 GET '/9999'
+    expect 200 GET '/search?lastName=Gupta'
+    expect 200 GET '/search?sort=email&direction=desc&limit=2'
+    expect 200 GET '/search?after=Gupta&afterId=3&limit=2'
+    expect 200 POST '' "${json[@]}" -d '{"firstName":"Ada","lastName":"Lovelace","email":"ada@luv2code.com"}'
+    expect 200 PUT '' "${json[@]}" -d '{"id":1,"firstName":"Leslie","lastName":"Andrews","email":"leslie.andrews@luv2code.com"}'
+    expect 200 PATCH '' "${json[@]}" -d '{"filter":{"lastName":"Petrov"},"set":{"email":"yuri.petrov@luv2code.com"}}'
+    expect 404 PATCH '' "${json[@]}" -d '{"filter":{"lastName":"Nobody"},"set":{"email":"nobody@luv2code.com"}}'
+    expect 400 PATCH '' "${json[@]}" -d '{"filter":{"lastName":"Vega"},"set":{"id":42}}'
+    expect 200 DELETE '/5'
+    expect 404 DELETE '/5'
+    expect 200 DELETE '?ids=3,4'
+    expect 404 DELETE '?ids=9998,9999'
+}
+
+# run_variant <name> <command...>: starts the app, waits for it, smoke tests it, records the figures
+declare -A READY_MS RSS_KB
+run_variant() {
+    local name=$1
+    shift
+    echo "== $name"
+    local start
+    start=$(now_ms)
+    "$@" "${PROFILE_ARGS[@]}" > "target/smoke-$name.log" 2>&1 &
+    APP_PID=$!
+
+    until curl -s -o /dev/null -f "$BASE/1"; do
+        if ! kill -0 "$APP_PID" 2>/dev/null; then
+            echo "  $name exited during startup, see target/smoke-$name.log"
+            APP_PID=
+            FAILURES=$((FAILURES + 1))
+            return
+        fi
+        sleep 0.05
+    done
+    READY_MS[$name]=$(( $(now_ms) - start ))
+    RSS_KB[$name]=$(awk '/^VmRSS/ {print $2}' "/proc/$APP_PID/status")
+
+    smoke_endpoints
+    stop_app
+}
+
+run_variant jvm java -jar "$JAR"
+run_variant native "$NATIVE"
+
+echo
+printf '%-8s %12s %12s\n' variant "ready (ms)" "RSS (MB)"
+for name in jvm native; do
+    printf '%-8s %12s %12s\n' "$name" "${READY_MS[$name]:--}" \
+        "$([[ -n "${RSS_KB[$name]:-}" ]] && echo $((RSS_KB[$name] / 1024)) || echo -)"
+done
+
+if (( FAILURES > 0 )); then
+    echo "$FAILURES check(s) failed"
+    exit 1
+fi
+echo "All checks passed"
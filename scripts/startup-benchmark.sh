@@ -0,0 +1,133 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark for a single module of this repository.
+#
+# Measures the time from "java -jar" to the first successful HTTP response (web modules) or to
+# the end of the process (command line modules such as the 03/09 cruddemo apps), first for the
+# plain jar and then for the startup-optimised variant:
+#
+#   baseline   java -jar app.jar
+#   optimised  extracted jar + AppCDS archive from a training run
+#              + Spring AOT (only if the module has the "startup" Maven profile)
+#              + global lazy initialization (only with LAZY=1)
+#
+# Usage:
+#   scripts/startup-benchmark.sh <module-dir> [url]
+#
+#   url      Endpoint polled until it answers, e.g. http://localhost:8080/api/employees.
+#            Omit it for modules that exit on their own after a CommandLineRunner.
+#   RUNS     Number of measured runs per variant (default 5); the median is reported.
+#   LAZY=1   Also set spring.main.lazy-initialization=true for the optimised variant.
+#
+# Every module, one line each (command line modules only; add the URL for web modules):
+#   for m in 09-Spring-Boot-JPA-Hibernate-Advanced-Mapping/*-jpa-*/; do scripts/startup-benchmark.sh "$m"; done
+#
+# Note that each measured run of a command line module executes its CommandLineRunner again,
+# including any database changes it makes. The training run stops right after the context refresh.
+#
+# Requirements: JDK 17+ (AppCDS with -XX:ArchiveClassesAtExit), curl for web modules, and
+# whatever the module needs at runtime (e.g. the MySQL database).
+#
+set -euo pipefail
+
+if [[ $# -lt 1 ]]; then
+    sed -n '3,30p' "$0" | sed 's/^# \{0,1\}//'
+    exit 1
+fi
+
+MODULE_DIR=$(cd "$1" && pwd)
+URL=${2:-}
+RUNS=${RUNS:-5}
+LAZY=${LAZY:-0}
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+log() {
+    echo "[startup-benchmark] $*" >&2
+}
+
+# Builds the module and copies the executable jar to $1
+build_jar() {
+    local target=$1
+    shift
+    (cd "$MODULE_DIR" && ./mvnw -q -B -DskipTests "$@" clean package)
+    local jar
+    jar=$(find "$MODULE_DIR/target" -maxdepth 1 -name '*.jar' ! -name '*.original' | head -n 1)
+    cp "$jar" "$target"
+}
+
+now_ms() {
+    date +%s%3N
+}
+
+# Starts the command given as arguments and prints the milliseconds until it is "ready"
+time_to_ready() {
+    local start pid
+    start=$(now_ms)
+    "$@" > "$WORK_DIR/run.log" 2>&1 &
+    pid=$!
+
+    if [[ -z "$URL" ]]; then
+        wait "$pid" || { log "process failed, see output below"; cat "$WORK_DIR/run.log" >&2; exit 1; }
+    else
+        until curl -sf -o /dev/null "$URL"; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                log "process exited before answering $URL"; cat "$WORK_DIR/run.log" >&2; exit 1
+            fi
+            sleep 0.02
+        done
+    fi
+    echo $(( $(now_ms) - start ))
+
+    if [[ -n "$URL" ]]; then
+        kill "$pid" 2> /dev/null || true
+        wait "$pid" 2> /dev/null || true
+    fi
+}
+
+# Runs the command RUNS times and prints the median time to ready
+median_time_to_ready() {
+    local times=()
+    for ((i = 0; i < RUNS; i++)); do
+        times+=("$(time_to_ready "$@")")
+    done
+    printf '%s\n' "${times[@]}" | sort -n | sed -n "$(( (RUNS + 1) / 2 ))p"
+}
+
+# --- baseline -------------------------------------------------------------------------------
+log "building baseline jar"
+build_jar "$WORK_DIR/baseline.jar"
+log "measuring baseline ($RUNS runs)"
+BASELINE=$(median_time_to_ready java -jar "$WORK_DIR/baseline.jar")
+
+# --- optimised ------------------------------------------------------------------------------
+SPRING_ARGS=()
+if grep -q '<id>startup</id>' "$MODULE_DIR/pom.xml"; then
+    log "building AOT-processed jar (-Pstartup)"
+    build_jar "$WORK_DIR/optimised.jar" -Pstartup
+    SPRING_ARGS+=(-Dspring.aot.enabled=true)
+else
+    log "module has no \"startup\" profile, skipping Spring AOT"
+    cp "$WORK_DIR/baseline.jar" "$WORK_DIR/optimised.jar"
+fi
+if [[ "$LAZY" == "1" ]]; then
+    SPRING_ARGS+=(-Dspring.main.lazy-initialization=true)
+fi
+
+# CDS needs a classpath of plain jars, so run from the extracted layout
+java -Djarmode=tools -jar "$WORK_DIR/optimised.jar" extract --destination "$WORK_DIR/extracted" > /dev/null
+APP_JAR=$(find "$WORK_DIR/extracted" -maxdepth 1 -name '*.jar' | head -n 1)
+
+# Training run: refresh the context, then exit and dump the loaded classes into the archive
+log "training run for the AppCDS archive"
+java -XX:ArchiveClassesAtExit="$WORK_DIR/app.jsa" -Dspring.context.exit=onRefresh \
+    ${SPRING_ARGS[@]+"${SPRING_ARGS[@]}"} -jar "$APP_JAR" > "$WORK_DIR/training.log" 2>&1
+
+log "measuring optimised ($RUNS runs)"
+OPTIMISED=$(median_time_to_ready java -XX:SharedArchiveFile="$WORK_DIR/app.jsa" -Xshare:auto \
+    ${SPRING_ARGS[@]+"${SPRING_ARGS[@]}"} -jar "$APP_JAR")
+
+# --- report ---------------------------------------------------------------------------------
+printf '\n%-60s %12s %12s %8s\n' "module" "baseline" "optimised" "gain"
+printf '%-60s %10sms %10sms %7s%%\n' "${MODULE_DIR#"$(pwd)/"}" "$BASELINE" "$OPTIMISED" \
+    "$(( (BASELINE - OPTIMISED) * 100 / BASELINE ))"